@@ -0,0 +1,110 @@
+package com.alexsanderyurevich.benchmarks;
+
+import com.alexsanderyurevich.converter.Converter;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.loader.DeclineXmlLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link Converter} for numbers of different magnitude, in every case and gender
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+    private static final int NUMBER_COUNT = 1_024;
+
+    @Param({"UNITS", "THOUSANDS", "MILLIONS", "BILLIONS", "QUINTILLIONS", "NEGATIVE"})
+    public Magnitude magnitude;
+    @Param({"NOMINATIVE", "GENITIVE", "ACCUSATIVE", "DATIVE", "INSTRUMENTAL", "PREPOSITIONAL"})
+    public Cases cases;
+    @Param({"MALE", "FEMALE", "NEUTER"})
+    public Gender gender;
+
+    private final long[] numbers = new long[NUMBER_COUNT];
+    private final char[] chars = new char[1_024];
+    private final ByteBuffer bytes = ByteBuffer.allocate(1_024);
+    private final StringBuilder builder = new StringBuilder(1_024);
+    private int index;
+
+    @Setup
+    public void setUp() {
+        DeclineXmlLoader.loadDeclineData();
+        Random random = new Random(42);
+        for (int i = 0; i < NUMBER_COUNT; i++) {
+            numbers[i] = magnitude.from + (long) (random.nextDouble() * (magnitude.to - magnitude.from));
+        }
+    }
+
+    @Benchmark
+    public String convert() {
+        return Converter.convert(next(), cases, gender);
+    }
+
+    @Benchmark
+    public int convertToChars() {
+        return Converter.convertTo(next(), cases, gender, chars, 0);
+    }
+
+    @Benchmark
+    public int convertToBuilder() {
+        builder.setLength(0);
+        return Converter.convertTo(next(), cases, gender, builder).length();
+    }
+
+    @Benchmark
+    public String convertOrdinal() {
+        return Converter.convertOrdinal(next(), cases, gender);
+    }
+
+    @Benchmark
+    public int convertOrdinalToBuilder() {
+        builder.setLength(0);
+        return Converter.convertOrdinalTo(next(), cases, gender, builder).length();
+    }
+
+    @Benchmark
+    public int writeUtf8() {
+        bytes.clear();
+        return Converter.writeUtf8(next(), cases, gender, bytes);
+    }
+
+    private long next() {
+        return numbers[index++ & (NUMBER_COUNT - 1)];
+    }
+
+    public enum Magnitude {
+        UNITS(1, 999),
+        THOUSANDS(1_000, 999_999),
+        MILLIONS(1_000_000, 999_999_999),
+        BILLIONS(1_000_000_000, 999_999_999_999L),
+        QUINTILLIONS(1_000_000_000_000_000_000L, Long.MAX_VALUE),
+        NEGATIVE(-999_999_999_999L, -1);
+
+        final long from;
+        final long to;
+
+        Magnitude(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.alexsanderyurevich.benchmarks;
+
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.data.DeclineData.Word;
+import com.alexsanderyurevich.loader.DeclineXmlLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of {@link DeclineData}, cycling over all values, cases and genders
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeclineDataBenchmark {
+    private static final Cases[] CASES = Cases.values();
+    private static final Gender[] GENDERS = Gender.values();
+    private static final Word[] WORDS = Word.values();
+    private static final int[] DECADES = {1, 2, 3, 4, 5, 6, 7, 8, 9, 11, 12, 13, 14, 15, 16, 17, 18, 19};
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        DeclineXmlLoader.loadDeclineData();
+    }
+
+    @Benchmark
+    public String getStringUnit() {
+        int i = index++;
+        return DeclineData.getStringUnit(1 + i % 9, CASES[i % CASES.length], GENDERS[i % GENDERS.length]);
+    }
+
+    @Benchmark
+    public String getStringDecade() {
+        int i = index++;
+        return DeclineData.getStringDecade(DECADES[i % DECADES.length], CASES[i % CASES.length]);
+    }
+
+    @Benchmark
+    public String getStringHundred() {
+        int i = index++;
+        return DeclineData.getStringHundred(1 + i % 9, CASES[i % CASES.length]);
+    }
+
+    @Benchmark
+    public String getWord() {
+        int i = index++;
+        return DeclineData.getWord(WORDS[i % WORDS.length], CASES[i % CASES.length], i % 10);
+    }
+}
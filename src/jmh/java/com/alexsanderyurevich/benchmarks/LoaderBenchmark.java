@@ -0,0 +1,37 @@
+package com.alexsanderyurevich.benchmarks;
+
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.loader.DeclineDictionaryLoader;
+import com.alexsanderyurevich.loader.DeclineXmlLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold load of the dictionary: every fork loads it once in a fresh JVM
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class LoaderBenchmark {
+
+    @Benchmark
+    public long loadDeclineData() {
+        DeclineXmlLoader.loadDeclineData();
+        return DeclineData.getVersion();
+    }
+
+    @Benchmark
+    public long loadDeclineDictionary() {
+        DeclineDictionaryLoader.loadDeclineData();
+        return DeclineData.getVersion();
+    }
+}
@@ -0,0 +1,63 @@
+package com.alexsanderyurevich.benchmarks;
+
+import com.alexsanderyurevich.converter.Converter;
+import com.alexsanderyurevich.converter.NumberParser;
+import com.alexsanderyurevich.converter.ParseResult;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.loader.DeclineXmlLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link NumberParser} for numbers of different magnitude written in random cases and genders
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    private static final int TEXT_COUNT = 1_024;
+
+    @Param({"UNITS", "THOUSANDS", "MILLIONS", "BILLIONS", "QUINTILLIONS", "NEGATIVE"})
+    public ConverterBenchmark.Magnitude magnitude;
+
+    private final String[] texts = new String[TEXT_COUNT];
+    private final ParseResult result = new ParseResult();
+    private NumberParser parser;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        DeclineXmlLoader.loadDeclineData();
+        parser = NumberParser.current();
+        Random random = new Random(42);
+        Cases[] cases = Cases.values();
+        Gender[] genders = Gender.values();
+        for (int i = 0; i < TEXT_COUNT; i++) {
+            long number = magnitude.from + (long) (random.nextDouble() * (magnitude.to - magnitude.from));
+            texts[i] = Converter.convert(number, cases[random.nextInt(cases.length)], genders[random.nextInt(genders.length)]);
+        }
+    }
+
+    @Benchmark
+    public long parse() {
+        String text = texts[index++ & (TEXT_COUNT - 1)];
+        parser.parse(text, 0, text.length(), result);
+        return result.getNumber();
+    }
+}
@@ -0,0 +1,395 @@
+package com.alexsanderyurevich.loadtest;
+
+import com.alexsanderyurevich.Main;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the web tier end to end: Tomcat, form binding, Thymeleaf and the converter.
+ * Starts the application on a random local port, unless {@code --url} points to a running one, and sends
+ * a weighted mix of requests from several threads. Each thread sends the next request as soon as the previous
+ * one is answered. Throughput and p50/p99/p999 latency are reported for every endpoint.
+ * Requests rejected by admission control with 429 are counted separately and do not fail the test
+ */
+public final class WebLoadTest {
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_SLOW = 1;
+    public static final int EXIT_ERROR = 2;
+
+    private static final String USAGE = "Usage: [--url=http://localhost:8080] [--threads=16] [--duration=20] "
+            + "[--warmup=5] [--mix=form:6,api:3,page:1] [--batch=1] [--max-p99=<ms>]";
+    private static final Cases[] CASES = Cases.values();
+    private static final Gender[] GENDERS = Gender.values();
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+    private static final int BUFFER_SIZE = 8_192;
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private WebLoadTest() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the load test with command line arguments
+     *
+     * @param args arguments
+     * @return exit code, {@link #EXIT_SLOW} if p99 of some endpoint exceeds {@code --max-p99}
+     */
+    public static int run(@Nonnull String[] args) {
+        String url = null;
+        int threads = 16;
+        int duration = 20;
+        int warmup = 5;
+        int batch = 1;
+        long maxP99 = 0;
+        int[] weights = {6, 3, 1};
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--url=")) {
+                    url = getOptionValue(arg);
+                } else if (arg.startsWith("--threads=")) {
+                    threads = getPositive(arg);
+                } else if (arg.startsWith("--duration=")) {
+                    duration = getPositive(arg);
+                } else if (arg.startsWith("--warmup=")) {
+                    warmup = Integer.parseInt(getOptionValue(arg));
+                } else if (arg.startsWith("--batch=")) {
+                    batch = getPositive(arg);
+                } else if (arg.startsWith("--max-p99=")) {
+                    maxP99 = getPositive(arg);
+                } else if (arg.startsWith("--mix=")) {
+                    weights = getWeights(getOptionValue(arg));
+                } else {
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_ERROR;
+        }
+
+        //Соединения keep-alive переиспользуются, по одному на поток
+        System.setProperty("http.maxConnections", Integer.toString(threads));
+        ConfigurableApplicationContext context = null;
+        try {
+            if (url == null) {
+                context = SpringApplication.run(Main.class, "--server.port=0", "--logging.level.root=WARN");
+                url = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            }
+            System.out.printf(Locale.ROOT, "Target %s, %d threads, warmup %d s, duration %d s, batch %d%n",
+                    url, threads, warmup, duration, batch);
+            if (warmup > 0) {
+                load(url, threads, warmup, weights, batch);
+            }
+            Recorder total = load(url, threads, duration, weights, batch);
+            return report(total, duration, maxP99);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT_ERROR;
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    @Nonnull
+    private static Recorder load(@Nonnull String url, int threads, int seconds, @Nonnull int[] weights, int batch)
+            throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Recorder[] recorders = new Recorder[threads];
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Recorder recorder = new Recorder();
+            recorders[i] = recorder;
+            Thread thread = new Thread(() -> {
+                try {
+                    Client client = new Client(url, batch);
+                    while (System.nanoTime() < end) {
+                        Endpoint endpoint = Endpoint.next(weights);
+                        long start = System.nanoTime();
+                        Outcome outcome = client.send(endpoint);
+                        recorder.record(endpoint, System.nanoTime() - start, outcome);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        Recorder total = new Recorder();
+        for (Recorder recorder : recorders) {
+            total.add(recorder);
+        }
+        return total;
+    }
+
+    private static int report(@Nonnull Recorder total, int seconds, long maxP99) {
+        int exitCode = EXIT_OK;
+        System.out.printf(Locale.ROOT, "%-8s %10s %8s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "429", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Endpoint endpoint : Endpoint.VALUES) {
+            //Задержки считаются только по принятым запросам, быстрые отказы 429 их занижали бы
+            long[] latencies = total.getLatencies(endpoint);
+            long rejected = total.getRejected(endpoint);
+            if (latencies.length == 0 && rejected == 0) continue;
+            Arrays.sort(latencies);
+            double[] percentiles = new double[PERCENTILES.length];
+            for (int i = 0; i < PERCENTILES.length && latencies.length > 0; i++) {
+                percentiles[i] = toMillis(latencies[percentileIndex(latencies.length, PERCENTILES[i])]);
+            }
+            System.out.printf(Locale.ROOT, "%-8s %10d %8d %8d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                    endpoint.name().toLowerCase(Locale.ROOT), latencies.length + rejected, total.getErrors(endpoint),
+                    rejected, (double) latencies.length / seconds, percentiles[0], percentiles[1], percentiles[2],
+                    latencies.length > 0 ? toMillis(latencies[latencies.length - 1]) : 0);
+            if (total.getErrors(endpoint) > 0) {
+                exitCode = EXIT_ERROR;
+            } else if (maxP99 > 0 && percentiles[1] > maxP99 && exitCode == EXIT_OK) {
+                exitCode = EXIT_SLOW;
+            }
+        }
+        return exitCode;
+    }
+
+    private static int percentileIndex(int count, double percentile) {
+        return Math.max(0, (int) Math.ceil(percentile * count) - 1);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    @Nonnull
+    private static int[] getWeights(@Nonnull String mix) {
+        int[] weights = new int[Endpoint.VALUES.length];
+        for (String part : mix.split(",")) {
+            String[] pair = part.split(":");
+            Endpoint endpoint = Endpoint.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+            weights[endpoint.ordinal()] = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+        }
+        if (Arrays.stream(weights).sum() <= 0) {
+            throw new IllegalArgumentException("The mix has no requests");
+        }
+        return weights;
+    }
+
+    private static int getPositive(@Nonnull String arg) {
+        int value = Integer.parseInt(getOptionValue(arg));
+        if (value <= 0) {
+            throw new IllegalArgumentException("The value of " + arg + " must be positive");
+        }
+        return value;
+    }
+
+    @Nonnull
+    private static String getOptionValue(@Nonnull String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    /**
+     * Endpoints under load
+     */
+    private enum Endpoint {
+        /**
+         * {@code POST /index}, the form, rendered with Thymeleaf
+         */
+        FORM,
+        /**
+         * {@code POST /api/convert}, NDJSON records
+         */
+        API,
+        /**
+         * {@code GET /index}, the empty page
+         */
+        PAGE;
+
+        private static final Endpoint[] VALUES = values();
+
+        @Nonnull
+        private static Endpoint next(@Nonnull int[] weights) {
+            int sum = 0;
+            for (int weight : weights) {
+                sum += weight;
+            }
+            int value = ThreadLocalRandom.current().nextInt(sum);
+            for (Endpoint endpoint : VALUES) {
+                value -= weights[endpoint.ordinal()];
+                if (value < 0) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Results of a request
+     */
+    private enum Outcome {
+        /**
+         * 200
+         */
+        SUCCESS,
+        /**
+         * 429, rejected by admission control
+         */
+        REJECTED,
+        /**
+         * Any other status or an I/O error
+         */
+        ERROR
+    }
+
+    /**
+     * HTTP client of one thread
+     */
+    private static final class Client {
+        private final URL index;
+        private final URL api;
+        private final int batch;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private Client(@Nonnull String url, int batch) {
+            try {
+                this.index = new URL(url + "/index");
+                this.api = new URL(url + "/api/convert");
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid url " + url, e);
+            }
+            this.batch = batch;
+        }
+
+        @Nonnull
+        private Outcome send(@Nonnull Endpoint endpoint) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                switch (endpoint) {
+                    case FORM: {
+                        String form = "number=" + nextNumber(random)
+                                + "&caseType=" + CASES[random.nextInt(CASES.length)]
+                                + "&gender=" + GENDERS[random.nextInt(GENDERS.length)];
+                        return exchange(index, "POST", "application/x-www-form-urlencoded", form);
+                    }
+                    case API: {
+                        StringBuilder records = new StringBuilder();
+                        for (int i = 0; i < batch; i++) {
+                            records.append("{\"number\":").append(nextNumber(random))
+                                    .append(",\"caseType\":\"").append(CASES[random.nextInt(CASES.length)])
+                                    .append("\",\"gender\":\"").append(GENDERS[random.nextInt(GENDERS.length)])
+                                    .append("\"}\n");
+                        }
+                        return exchange(api, "POST", "application/x-ndjson", records.toString());
+                    }
+                    default: {
+                        return exchange(index, "GET", null, null);
+                    }
+                }
+            } catch (IOException e) {
+                return Outcome.ERROR;
+            }
+        }
+
+        @Nonnull
+        private Outcome exchange(@Nonnull URL url, @Nonnull String method, @Nullable String contentType,
+                                 @Nullable String body) throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod(method);
+            if (body != null) {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", contentType);
+                connection.setFixedLengthStreamingMode(bytes.length);
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(bytes);
+                }
+            }
+            int status = connection.getResponseCode();
+            //Ответ дочитывается до конца, чтобы соединение вернулось в пул keep-alive
+            try (InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                while (input != null && input.read(buffer) >= 0) {
+                    //Тело ответа не проверяется
+                }
+            }
+            if (status == HttpURLConnection.HTTP_OK) {
+                return Outcome.SUCCESS;
+            }
+            return status == TOO_MANY_REQUESTS ? Outcome.REJECTED : Outcome.ERROR;
+        }
+
+        //Числа разной величины, чтобы нагрузка проходила все разряды
+        @Nonnull
+        private static String nextNumber(@Nonnull ThreadLocalRandom random) {
+            return Long.toString(random.nextLong() >> random.nextInt(Long.SIZE));
+        }
+    }
+
+    /**
+     * Latencies, errors and rejections of one thread, merged after the run
+     */
+    private static final class Recorder {
+        private final long[][] latencies = new long[Endpoint.VALUES.length][1_024];
+        private final int[] counts = new int[Endpoint.VALUES.length];
+        private final long[] errors = new long[Endpoint.VALUES.length];
+        private final long[] rejected = new long[Endpoint.VALUES.length];
+
+        private void record(@Nonnull Endpoint endpoint, long nanos, @Nonnull Outcome outcome) {
+            int e = endpoint.ordinal();
+            if (outcome == Outcome.REJECTED) {
+                rejected[e]++;
+                return;
+            }
+            if (counts[e] == latencies[e].length) {
+                latencies[e] = Arrays.copyOf(latencies[e], counts[e] * 2);
+            }
+            latencies[e][counts[e]++] = nanos;
+            if (outcome == Outcome.ERROR) {
+                errors[e]++;
+            }
+        }
+
+        private void add(@Nonnull Recorder other) {
+            for (int e = 0; e < counts.length; e++) {
+                for (int i = 0; i < other.counts[e]; i++) {
+                    record(Endpoint.VALUES[e], other.latencies[e][i], Outcome.SUCCESS);
+                }
+                errors[e] += other.errors[e];
+                rejected[e] += other.rejected[e];
+            }
+        }
+
+        @Nonnull
+        private long[] getLatencies(@Nonnull Endpoint endpoint) {
+            return Arrays.copyOf(latencies[endpoint.ordinal()], counts[endpoint.ordinal()]);
+        }
+
+        private long getErrors(@Nonnull Endpoint endpoint) {
+            return errors[endpoint.ordinal()];
+        }
+
+        private long getRejected(@Nonnull Endpoint endpoint) {
+            return rejected[endpoint.ordinal()];
+        }
+    }
+}
@@ -1,17 +1,76 @@
 package com.alexsanderyurevich;
 
-import com.alexsanderyurevich.loader.DeclineXmlLoader;
+import com.alexsanderyurevich.cli.DictionaryCompiler;
+import com.alexsanderyurevich.cli.FileConverter;
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.loader.DeclineDictionaryLoader;
+import com.alexsanderyurevich.loader.DeclineImageLoader;
+import com.alexsanderyurevich.loader.DeclineLoadException;
+import com.alexsanderyurevich.server.LineServer;
+import com.alexsanderyurevich.web.config.DictionaryConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 @SpringBootApplication
 public class Main {
+    /**
+     * The option that loads the dictionary of the application from a binary image instead of the bundled one,
+     * in every mode. For the web application it is the property {@value DictionaryConfiguration#IMAGE_PROPERTY}
+     */
+    public static final String IMAGE_OPTION = "--" + DictionaryConfiguration.IMAGE_PROPERTY + "=";
+    private static final int EXIT_ERROR = 2;
 
-    static {
-        DeclineXmlLoader.loadDeclineData();
+    public static void main(String[] args) {
+        Path image = null;
+        List<String> commandArgs = new ArrayList<>(Arrays.asList(args));
+        for (String arg : args) {
+            if (arg.startsWith(IMAGE_OPTION)) {
+                image = Paths.get(arg.substring(IMAGE_OPTION.length()));
+                commandArgs.remove(arg);
+            }
+        }
+        String command = commandArgs.isEmpty() ? null : commandArgs.get(0);
+        if (!FileConverter.COMMAND.equals(command) && !DictionaryCompiler.COMMAND.equals(command)
+                && !LineServer.COMMAND.equals(command)) {
+            //Веб приложение загружает словарь при запуске контекста, см. DictionaryConfiguration
+            SpringApplication.run(Main.class, args);
+            return;
+        }
+        try {
+            loadDictionary(image);
+        } catch (DeclineLoadException e) {
+            System.err.println("Dictionary failed: " + e.getMessage());
+            System.exit(EXIT_ERROR);
+        }
+        String[] rest = commandArgs.subList(1, commandArgs.size()).toArray(new String[0]);
+        if (FileConverter.COMMAND.equals(command)) {
+            System.exit(FileConverter.run(rest));
+        }
+        if (DictionaryCompiler.COMMAND.equals(command)) {
+            System.exit(DictionaryCompiler.run(rest));
+        }
+        System.exit(LineServer.run(rest));
     }
 
-    public static void main(String[] args) {
-        SpringApplication.run(Main.class, args);
+    /**
+     * Loads the dictionary of the application for the commands and makes it current.
+     * The web application loads it with {@link DictionaryConfiguration}
+     *
+     * @param image binary image of the dictionary, {@code null} for the bundled dictionary
+     * @throws DeclineLoadException if the image can not be read or is not a valid image
+     */
+    public static void loadDictionary(@Nullable Path image) {
+        if (image == null) {
+            DeclineDictionaryLoader.loadDeclineData();
+        } else {
+            DeclineData.setDictionary(DeclineImageLoader.loadDictionary(image));
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.alexsanderyurevich.cli;
+
+import com.alexsanderyurevich.data.Dictionary;
+import com.alexsanderyurevich.loader.DeclineImageLoader;
+import com.alexsanderyurevich.loader.DeclineLoadException;
+import com.alexsanderyurevich.loader.DeclineXmlLoader;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles an XML dictionary to a binary image loaded with {@link DeclineImageLoader}.
+ * Without the input file the dictionary bundled with the application is compiled
+ */
+public final class DictionaryCompiler {
+    /**
+     * The first command line argument that selects this mode
+     */
+    public static final String COMMAND = "compile-dictionary";
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_ERROR = 2;
+
+    private static final String USAGE = "Usage: compile-dictionary [<input.xml>] <output>";
+
+    private DictionaryCompiler() {
+    }
+
+    /**
+     * Runs the compiler with command line arguments
+     *
+     * @param args arguments after {@link #COMMAND}
+     * @return exit code
+     */
+    public static int run(@Nonnull String[] args) {
+        if (args.length < 1 || args.length > 2 || args[0].startsWith("--") || args[args.length - 1].startsWith("--")) {
+            System.err.println(USAGE);
+            return EXIT_ERROR;
+        }
+        Path output = Paths.get(args[args.length - 1]);
+        try {
+            Dictionary dictionary = args.length == 2 ? DeclineXmlLoader.loadDictionary(Paths.get(args[0]))
+                    : DeclineXmlLoader.loadDictionary();
+            DeclineImageLoader.writeImage(dictionary, output);
+            //Образ читается обратно, чтобы ошибка записи не дошла до серверов
+            Dictionary image = DeclineImageLoader.loadDictionary(output);
+            System.out.println("Compiled " + dictionary.getEntryCount() + " entries, " + dictionary.getFragmentCount()
+                    + " fragments, hash " + Long.toHexString(image.getContentHash()));
+            return EXIT_OK;
+        } catch (IOException | DeclineLoadException e) {
+            System.err.println("Compilation failed: " + e.getMessage());
+            return EXIT_ERROR;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.alexsanderyurevich.cli;
+
+import com.alexsanderyurevich.converter.ConversionError;
+import com.alexsanderyurevich.converter.NumberSpeller;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Converts a file of numbers without starting the web application.
+ * The input file is memory-mapped window by window and parsed byte by byte, so memory use does not depend on
+ * the file size. Every input line produces one output line, the lines with errors produce empty lines
+ */
+public final class FileConverter {
+    /**
+     * The first command line argument that selects this mode
+     */
+    public static final String COMMAND = "convert";
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED_LINES = 1;
+    public static final int EXIT_ERROR = 2;
+
+    private static final String USAGE = "Usage: convert <input> <output> [--case=NOMINATIVE] [--gender=MALE] "
+            + "[--column=1] [--delimiter=,]";
+    private static final long WINDOW_SIZE = 256L << 20;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private FileConverter() {
+    }
+
+    /**
+     * Runs the conversion with command line arguments
+     *
+     * @param args arguments after {@link #COMMAND}
+     * @return exit code
+     */
+    public static int run(@Nonnull String[] args) {
+        Path input = null;
+        Path output = null;
+        Cases cases = Cases.NOMINATIVE;
+        Gender gender = Gender.MALE;
+        int column = 1;
+        char delimiter = ',';
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--case=")) {
+                    cases = Cases.valueOf(getOptionValue(arg));
+                } else if (arg.startsWith("--gender=")) {
+                    gender = Gender.valueOf(getOptionValue(arg));
+                } else if (arg.startsWith("--column=")) {
+                    column = Integer.parseInt(getOptionValue(arg));
+                } else if (arg.startsWith("--delimiter=")) {
+                    String value = getOptionValue(arg);
+                    delimiter = "\\t".equals(value) ? '\t' : value.charAt(0);
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                } else if (input == null) {
+                    input = Paths.get(arg);
+                } else if (output == null) {
+                    output = Paths.get(arg);
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument " + arg);
+                }
+            }
+            if (input == null || output == null) {
+                throw new IllegalArgumentException("Input and output files are required");
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_ERROR;
+        }
+
+        try {
+            long failed = convert(input, output, cases, gender, column, delimiter, System.err);
+            return failed == 0 ? EXIT_OK : EXIT_FAILED_LINES;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Conversion failed: " + e);
+            return EXIT_ERROR;
+        }
+    }
+
+    /**
+     * Converts the numbers from a column of the input file and writes the results to the output file
+     *
+     * @param input     input file, one number per line or a CSV file
+     * @param output    output file in UTF-8
+     * @param cases     cases
+     * @param gender    gender
+     * @param column    the number of the column [1...]
+     * @param delimiter column delimiter, an ASCII char
+     * @param errors    stream for error messages, may be omitted
+     * @return the number of lines that could not be converted
+     * @throws IOException if the files can not be read or written
+     */
+    public static long convert(@Nonnull Path input, @Nonnull Path output, @Nonnull Cases cases, @Nonnull Gender gender,
+                               int column, char delimiter, @Nullable PrintStream errors) throws IOException {
+        Objects.requireNonNull(input, "input");
+        Objects.requireNonNull(output, "output");
+        Objects.requireNonNull(cases, "cases");
+        Objects.requireNonNull(gender, "gender");
+        if (column < 1) {
+            throw new IllegalArgumentException("The column must be positive");
+        }
+        if (delimiter > 0x7F || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("The delimiter must be an ASCII char");
+        }
+
+        long line = 0;
+        long failed = 0;
+        try (FileChannel in = FileChannel.open(input, READ);
+             FileChannel out = FileChannel.open(output, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            //Весь файл конвертируется одним словарем
+            NumberSpeller speller = NumberSpeller.current();
+            LineParser parser = new LineParser(column - 1, (byte) delimiter);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+            long size = in.size();
+            for (long position = 0; position < size; position += WINDOW_SIZE) {
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(WINDOW_SIZE, size - position));
+                while (window.hasRemaining()) {
+                    if (parser.accept(window.get())) {
+                        line++;
+                        ConversionError error = writeLine(parser, speller, cases, gender, buffer, out);
+                        if (error != null) {
+                            report(errors, ++failed, line, error);
+                        }
+                        parser.reset();
+                    }
+                }
+            }
+            //Последняя строка без перевода строки
+            if (parser.isStarted()) {
+                line++;
+                ConversionError error = writeLine(parser, speller, cases, gender, buffer, out);
+                if (error != null) {
+                    report(errors, ++failed, line, error);
+                }
+            }
+            flush(buffer, out);
+        }
+        return failed;
+    }
+
+    @Nullable
+    private static ConversionError writeLine(@Nonnull LineParser parser, @Nonnull NumberSpeller speller,
+                                             @Nonnull Cases cases, @Nonnull Gender gender, @Nonnull ByteBuffer buffer,
+                                             @Nonnull FileChannel out) throws IOException {
+        ConversionError error = parser.getError(speller);
+        int length = error == null ? speller.utf8Length(parser.getValue(), cases, gender) : 0;
+        if (buffer.remaining() < length + 1) {
+            flush(buffer, out);
+        }
+        if (error == null) {
+            speller.writeUtf8(parser.getValue(), cases, gender, buffer);
+        }
+        buffer.put((byte) '\n');
+        return error;
+    }
+
+    private static void flush(@Nonnull ByteBuffer buffer, @Nonnull FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void report(@Nullable PrintStream errors, long failed, long line, @Nonnull ConversionError error) {
+        if (errors == null || failed > MAX_REPORTED_ERRORS) {
+            return;
+        }
+        errors.println("line " + line + ": " + error);
+        if (failed == MAX_REPORTED_ERRORS) {
+            errors.println("further errors are not reported");
+        }
+    }
+
+    @Nonnull
+    private static String getOptionValue(@Nonnull String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    /**
+     * Parses a number from a column of a line, one byte at a time
+     */
+    private static final class LineParser {
+        private static final int LEADING = 0;
+        private static final int SIGN = 1;
+        private static final int DIGITS = 2;
+        private static final int TRAILING = 3;
+
+        private final int column;
+        private final byte delimiter;
+        private int currentColumn;
+        private int state;
+        private boolean started;
+        private boolean negative;
+        private long value;
+        private ConversionError error;
+
+        private LineParser(int column, byte delimiter) {
+            this.column = column;
+            this.delimiter = delimiter;
+        }
+
+        /**
+         * Accepts the next byte of the file
+         *
+         * @param b byte
+         * @return {@code true} if the line is complete
+         */
+        boolean accept(byte b) {
+            if (b == '\n') {
+                return true;
+            }
+            started = true;
+            if (b == '\r') {
+                return false;
+            }
+            if (b == delimiter) {
+                currentColumn++;
+                return false;
+            }
+            if (currentColumn != column || error != null) {
+                return false;
+            }
+            boolean blank = b == ' ' || b == '\t' || b == '"';
+            switch (state) {
+                case LEADING: {
+                    if (b == '-' || b == '+') {
+                        negative = b == '-';
+                        state = SIGN;
+                    } else if (b >= '0' && b <= '9') {
+                        value = '0' - b;
+                        state = DIGITS;
+                    } else if (!blank) {
+                        error = ConversionError.INVALID_NUMBER;
+                    }
+                    break;
+                }
+                case SIGN: {
+                    if (b >= '0' && b <= '9') {
+                        value = '0' - b;
+                        state = DIGITS;
+                    } else {
+                        error = ConversionError.INVALID_NUMBER;
+                    }
+                    break;
+                }
+                case DIGITS: {
+                    if (b >= '0' && b <= '9') {
+                        //Значение накапливается отрицательным, чтобы уместить Long.MIN_VALUE
+                        int digit = b - '0';
+                        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+                        if (value < limit / 10 || value * 10 < limit + digit) {
+                            error = ConversionError.OUT_OF_RANGE;
+                        } else {
+                            value = value * 10 - digit;
+                        }
+                    } else if (blank) {
+                        state = TRAILING;
+                    } else {
+                        error = ConversionError.INVALID_NUMBER;
+                    }
+                    break;
+                }
+                case TRAILING: {
+                    if (!blank) {
+                        error = ConversionError.INVALID_NUMBER;
+                    }
+                    break;
+                }
+            }
+            return false;
+        }
+
+        boolean isStarted() {
+            return started;
+        }
+
+        /**
+         * Returns the error of the line
+         *
+         * @param speller speller that converts the line, its dictionary defines the range
+         * @return the error or {@code null} if the line can be converted
+         */
+        @Nullable
+        ConversionError getError(@Nonnull NumberSpeller speller) {
+            if (error != null) {
+                return error;
+            }
+            if (state != DIGITS && state != TRAILING) {
+                return ConversionError.INVALID_NUMBER;
+            }
+            if (!speller.isInRange(getValue())) {
+                return ConversionError.OUT_OF_RANGE;
+            }
+            return null;
+        }
+
+        long getValue() {
+            return negative ? value : -value;
+        }
+
+        void reset() {
+            currentColumn = 0;
+            state = LEADING;
+            started = false;
+            negative = false;
+            value = 0;
+            error = null;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.alexsanderyurevich.converter;
+
+import com.alexsanderyurevich.data.CurrencyWords;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.Noun;
+
+import javax.annotation.Nonnull;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Objects;
+
+/**
+ * Converts amounts of money to string representations, e.g. "сто двадцать три рубля сорок пять копеек".
+ * Amounts are given in minor units (kopecks) or as {@link BigDecimal} in major units.
+ * Both parts are always spelled, including zero: "один рубль ноль копеек".
+ * Spellers are immutable and thread-safe, obtain them with {@link NumberSpeller#getAmountSpeller}
+ */
+public final class AmountSpeller {
+    private static final byte[] MINUS_BYTES = NumberSpeller.MINUS.getBytes(StandardCharsets.UTF_8);
+    private static final byte SPACE_BYTE = ' ';
+    private static final BigInteger HUNDRED = BigInteger.valueOf(100);
+
+    private final NumberSpeller speller;
+    private final CurrencyWords currency;
+    private final Noun major;
+    private final Noun minor;
+    private final long minorPerMajor;
+
+    AmountSpeller(@Nonnull NumberSpeller speller, @Nonnull CurrencyWords currency) {
+        this.speller = speller;
+        this.currency = currency;
+        this.major = currency.getMajor();
+        this.minor = currency.getMinor();
+        long power = 1;
+        for (int i = 0; i < currency.getMinorDigits(); i++) {
+            power *= 10;
+        }
+        this.minorPerMajor = power;
+    }
+
+    /**
+     * Returns the currency of the speller
+     *
+     * @return the nouns of the currency
+     */
+    @Nonnull
+    public CurrencyWords getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Converts an amount to a string representation
+     *
+     * @param amount amount in minor units, e.g. 12345 for 123.45 rubles
+     * @param cases  cases
+     * @return string representation
+     */
+    @Nonnull
+    public String convert(long amount, @Nonnull Cases cases) {
+        StringBuilder represent = new StringBuilder(length(amount, cases));
+        return convertTo(amount, cases, represent).toString();
+    }
+
+    /**
+     * Converts an amount to a string representation
+     *
+     * @param amount amount in major units with at most {@link CurrencyWords#getMinorDigits()} fraction digits
+     * @param cases  cases
+     * @return string representation
+     * @throws IllegalArgumentException if the amount has more fraction digits or is out of range
+     */
+    @Nonnull
+    public String convert(@Nonnull BigDecimal amount, @Nonnull Cases cases) {
+        Objects.requireNonNull(amount, "amount");
+        Objects.requireNonNull(cases, "cases");
+        BigInteger units;
+        try {
+            units = amount.setScale(currency.getMinorDigits()).unscaledValue();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(MessageFormat.format("The amount {0} has more than {1} fraction digits",
+                    amount.toPlainString(), currency.getMinorDigits()));
+        }
+        if (units.bitLength() < Long.SIZE) {
+            return convert(units.longValue(), cases);
+        }
+        BigInteger[] parts = units.abs().divideAndRemainder(BigInteger.valueOf(minorPerMajor));
+        StringBuilder represent = new StringBuilder();
+        if (units.signum() < 0) {
+            represent.append(NumberSpeller.MINUS);
+        }
+        speller.convertTo(parts[0], cases, major.getGender(), represent)
+                .append(' ').append(major.getForm(cases, parts[0].mod(HUNDRED).longValue())).append(' ');
+        long minorUnits = parts[1].longValue();
+        speller.convertTo(minorUnits, cases, minor.getGender(), represent)
+                .append(' ').append(minor.getForm(cases, minorUnits));
+        return represent.toString();
+    }
+
+    /**
+     * Returns the exact length of the string representation of an amount
+     *
+     * @param amount amount in minor units
+     * @param cases  cases
+     * @return the number of chars in the string representation
+     */
+    public int length(long amount, @Nonnull Cases cases) {
+        Objects.requireNonNull(cases, "cases");
+        long majorUnits = getMajorUnits(amount);
+        long minorUnits = getMinorUnits(amount);
+        return (amount < 0 ? NumberSpeller.MINUS.length() : 0)
+                + speller.length(majorUnits, cases, major.getGender()) + 1 + major.getForm(cases, majorUnits).length() + 1
+                + speller.length(minorUnits, cases, minor.getGender()) + 1 + minor.getForm(cases, minorUnits).length();
+    }
+
+    /**
+     * Appends the string representation of an amount to the builder
+     *
+     * @param amount      amount in minor units
+     * @param cases       cases
+     * @param destination builder
+     * @return the builder
+     */
+    @Nonnull
+    public StringBuilder convertTo(long amount, @Nonnull Cases cases, @Nonnull StringBuilder destination) {
+        Objects.requireNonNull(cases, "cases");
+        Objects.requireNonNull(destination, "destination");
+        long majorUnits = getMajorUnits(amount);
+        long minorUnits = getMinorUnits(amount);
+        if (amount < 0) {
+            destination.append(NumberSpeller.MINUS);
+        }
+        speller.convertTo(majorUnits, cases, major.getGender(), destination)
+                .append(' ').append(major.getForm(cases, majorUnits)).append(' ');
+        speller.convertTo(minorUnits, cases, minor.getGender(), destination)
+                .append(' ').append(minor.getForm(cases, minorUnits));
+        return destination;
+    }
+
+    /**
+     * Writes the string representation of an amount to the array
+     *
+     * @param amount      amount in minor units
+     * @param cases       cases
+     * @param destination array
+     * @param offset      the index of the first char to write
+     * @return the number of written chars
+     * @throws IndexOutOfBoundsException if the string representation does not fit in the array
+     */
+    public int convertTo(long amount, @Nonnull Cases cases, @Nonnull char[] destination, int offset) {
+        Objects.requireNonNull(destination, "destination");
+        int length = length(amount, cases);
+        if (offset < 0 || offset > destination.length - length) {
+            throw new IndexOutOfBoundsException(MessageFormat.format("Need {0} chars at offset {1}, array length {2}",
+                    length, offset, destination.length));
+        }
+        long majorUnits = getMajorUnits(amount);
+        long minorUnits = getMinorUnits(amount);
+        int position = offset;
+        if (amount < 0) {
+            position = put(NumberSpeller.MINUS, destination, position);
+        }
+        position += speller.convertTo(majorUnits, cases, major.getGender(), destination, position);
+        destination[position++] = ' ';
+        position = put(major.getForm(cases, majorUnits), destination, position);
+        destination[position++] = ' ';
+        position += speller.convertTo(minorUnits, cases, minor.getGender(), destination, position);
+        destination[position++] = ' ';
+        position = put(minor.getForm(cases, minorUnits), destination, position);
+        return position - offset;
+    }
+
+    /**
+     * Returns the exact length in bytes of the UTF-8 representation of an amount
+     *
+     * @param amount amount in minor units
+     * @param cases  cases
+     * @return the number of bytes in the UTF-8 representation
+     */
+    public int utf8Length(long amount, @Nonnull Cases cases) {
+        Objects.requireNonNull(cases, "cases");
+        long majorUnits = getMajorUnits(amount);
+        long minorUnits = getMinorUnits(amount);
+        return (amount < 0 ? MINUS_BYTES.length : 0)
+                + speller.utf8Length(majorUnits, cases, major.getGender()) + 1 + major.getUtf8Length(cases, majorUnits) + 1
+                + speller.utf8Length(minorUnits, cases, minor.getGender()) + 1 + minor.getUtf8Length(cases, minorUnits);
+    }
+
+    /**
+     * Writes the UTF-8 representation of an amount to the buffer
+     *
+     * @param amount      amount in minor units
+     * @param cases       cases
+     * @param destination buffer
+     * @return the number of written bytes
+     * @throws BufferOverflowException if the representation does not fit in the remaining bytes of the buffer
+     */
+    public int writeUtf8(long amount, @Nonnull Cases cases, @Nonnull ByteBuffer destination) {
+        Objects.requireNonNull(destination, "destination");
+        int length = utf8Length(amount, cases);
+        if (destination.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        long majorUnits = getMajorUnits(amount);
+        long minorUnits = getMinorUnits(amount);
+        if (amount < 0) {
+            destination.put(MINUS_BYTES);
+        }
+        speller.writeUtf8(majorUnits, cases, major.getGender(), destination);
+        destination.put(SPACE_BYTE);
+        major.writeUtf8(cases, majorUnits, destination);
+        destination.put(SPACE_BYTE);
+        speller.writeUtf8(minorUnits, cases, minor.getGender(), destination);
+        destination.put(SPACE_BYTE);
+        minor.writeUtf8(cases, minorUnits, destination);
+        return length;
+    }
+
+    //Деление long округляет к нулю, поэтому модули частей не переполняются даже для Long.MIN_VALUE
+    private long getMajorUnits(long amount) {
+        return Math.abs(amount / minorPerMajor);
+    }
+
+    private long getMinorUnits(long amount) {
+        return Math.abs(amount % minorPerMajor);
+    }
+
+    private static int put(@Nonnull String fragment, @Nonnull char[] destination, int position) {
+        fragment.getChars(0, fragment.length(), destination, position);
+        return position + fragment.length();
+    }
+}
@@ -0,0 +1,203 @@
+package com.alexsanderyurevich.converter;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Converts arrays of numbers.
+ * Invalid values do not abort the batch, they are reported per element
+ */
+public final class BatchConverter {
+    //Размер части массива, которую один поток обрабатывает последовательно
+    static final int SEQUENTIAL_THRESHOLD = 8_192;
+
+    private BatchConverter() {
+    }
+
+    /**
+     * Converts numbers to string representations
+     *
+     * @param numbers numbers
+     * @param cases   cases
+     * @param gender  gender
+     * @param results results, {@code null} for the values that could not be converted
+     * @param errors  errors, {@code null} for the converted values; may be omitted
+     * @return the number of values that could not be converted
+     */
+    public static int convert(@Nonnull long[] numbers, @Nonnull Cases cases, @Nonnull Gender gender,
+                              @Nonnull String[] results, @Nullable ConversionError[] errors) {
+        Objects.requireNonNull(cases, "cases");
+        Objects.requireNonNull(gender, "gender");
+        return convert(numbers, cases, null, gender, null, results, errors);
+    }
+
+    /**
+     * Converts numbers to string representations, each with its own case and gender
+     *
+     * @param numbers numbers
+     * @param cases   cases of the numbers
+     * @param genders genders of the numbers
+     * @param results results, {@code null} for the values that could not be converted
+     * @param errors  errors, {@code null} for the converted values; may be omitted
+     * @return the number of values that could not be converted
+     */
+    public static int convert(@Nonnull long[] numbers, @Nonnull Cases[] cases, @Nonnull Gender[] genders,
+                              @Nonnull String[] results, @Nullable ConversionError[] errors) {
+        checkLength(numbers, cases, "cases");
+        checkLength(numbers, genders, "genders");
+        return convert(numbers, null, cases, null, genders, results, errors);
+    }
+
+    /**
+     * Converts numbers and passes string representations to the sink
+     *
+     * @param numbers numbers
+     * @param cases   cases
+     * @param gender  gender
+     * @param sink    sink
+     * @return the number of values that could not be converted
+     */
+    public static int convert(@Nonnull long[] numbers, @Nonnull Cases cases, @Nonnull Gender gender,
+                              @Nonnull ConversionSink sink) {
+        Objects.requireNonNull(numbers, "numbers");
+        Objects.requireNonNull(cases, "cases");
+        Objects.requireNonNull(gender, "gender");
+        Objects.requireNonNull(sink, "sink");
+        return run(new ConvertTask(NumberSpeller.current(), numbers, cases, null, gender, null, sink, 0, numbers.length));
+    }
+
+    /**
+     * Converts numbers, each with its own case and gender, and passes string representations to the sink
+     *
+     * @param numbers numbers
+     * @param cases   cases of the numbers
+     * @param genders genders of the numbers
+     * @param sink    sink
+     * @return the number of values that could not be converted
+     */
+    public static int convert(@Nonnull long[] numbers, @Nonnull Cases[] cases, @Nonnull Gender[] genders,
+                              @Nonnull ConversionSink sink) {
+        checkLength(numbers, cases, "cases");
+        checkLength(numbers, genders, "genders");
+        Objects.requireNonNull(sink, "sink");
+        return run(new ConvertTask(NumberSpeller.current(), numbers, null, cases, null, genders, sink, 0, numbers.length));
+    }
+
+    private static int convert(@Nonnull long[] numbers, @Nullable Cases cases, @Nullable Cases[] casesArray,
+                               @Nullable Gender gender, @Nullable Gender[] genders,
+                               @Nonnull String[] results, @Nullable ConversionError[] errors) {
+        Objects.requireNonNull(numbers, "numbers");
+        checkLength(numbers, results, "results");
+        if (errors != null) {
+            checkLength(numbers, errors, "errors");
+        }
+        ConversionSink sink = new ArraySink(results, errors);
+        return run(new ConvertTask(NumberSpeller.current(), numbers, cases, casesArray, gender, genders, sink, 0, numbers.length));
+    }
+
+    private static int run(@Nonnull ConvertTask task) {
+        if (task.to - task.from <= SEQUENTIAL_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        return task.failed;
+    }
+
+    private static void checkLength(@Nonnull long[] numbers, @Nonnull Object[] array, @Nonnull String name) {
+        Objects.requireNonNull(numbers, "numbers");
+        Objects.requireNonNull(array, name);
+        if (array.length < numbers.length) {
+            throw new IllegalArgumentException(name + " is shorter than numbers");
+        }
+    }
+
+    private static final class ArraySink implements ConversionSink {
+        private final String[] results;
+        private final ConversionError[] errors;
+
+        private ArraySink(@Nonnull String[] results, @Nullable ConversionError[] errors) {
+            this.results = results;
+            this.errors = errors;
+        }
+
+        @Override
+        public void accept(int index, @Nonnull CharSequence represent) {
+            results[index] = represent.toString();
+            if (errors != null) {
+                errors[index] = null;
+            }
+        }
+
+        @Override
+        public void reject(int index, @Nonnull ConversionError error) {
+            results[index] = null;
+            if (errors != null) {
+                errors[index] = error;
+            }
+        }
+    }
+
+    private static final class ConvertTask extends RecursiveAction {
+        //Весь пакет конвертируется одним словарем, даже если его заменят во время работы
+        private final NumberSpeller speller;
+        private final long[] numbers;
+        private final Cases cases;
+        private final Cases[] casesArray;
+        private final Gender gender;
+        private final Gender[] genders;
+        private final ConversionSink sink;
+        private final int from;
+        private final int to;
+        private int failed;
+
+        private ConvertTask(@Nonnull NumberSpeller speller, @Nonnull long[] numbers,
+                            @Nullable Cases cases, @Nullable Cases[] casesArray,
+                            @Nullable Gender gender, @Nullable Gender[] genders,
+                            @Nonnull ConversionSink sink, int from, int to) {
+            this.speller = speller;
+            this.numbers = numbers;
+            this.cases = cases;
+            this.casesArray = casesArray;
+            this.gender = gender;
+            this.genders = genders;
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SEQUENTIAL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                ConvertTask left = new ConvertTask(speller, numbers, cases, casesArray, gender, genders, sink, from, middle);
+                ConvertTask right = new ConvertTask(speller, numbers, cases, casesArray, gender, genders, sink, middle, to);
+                invokeAll(left, right);
+                failed = left.failed + right.failed;
+                return;
+            }
+            StringBuilder represent = new StringBuilder();
+            for (int i = from; i < to; i++) {
+                long number = numbers[i];
+                Cases caseType = casesArray == null ? cases : casesArray[i];
+                Gender genderType = genders == null ? gender : genders[i];
+                if (caseType == null || genderType == null) {
+                    failed++;
+                    sink.reject(i, ConversionError.MISSING_ARGUMENT);
+                } else if (!speller.isInRange(number)) {
+                    failed++;
+                    sink.reject(i, ConversionError.OUT_OF_RANGE);
+                } else {
+                    represent.setLength(0);
+                    sink.accept(i, speller.appendTo(number, caseType, genderType, represent));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.alexsanderyurevich.converter;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of string representations for skewed traffic, where the same numbers are converted again and again.
+ * The cache is direct-mapped: a number, its case and gender select one slot of the table,
+ * and a new representation evicts the one in its slot.
+ * Lookups allocate nothing, the key is compared as primitives.
+ * The cache is thread-safe and lock-free, representations of a replaced dictionary are never returned
+ */
+public final class ConversionCache {
+    /**
+     * The default number of cached representations
+     */
+    public static final int DEFAULT_CAPACITY = 4_096;
+    private static final int MAX_CAPACITY = 1 << 24;
+    private static final int GENDER_COUNT = Gender.values().length;
+
+    //null, если кэш следует за текущим словарем
+    private final NumberSpeller speller;
+    private final Entry[] entries;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache for the current dictionary of the application, see {@link NumberSpeller#current()}
+     *
+     * @param capacity the number of cached representations [1...16777216], rounded up to a power of two
+     */
+    public ConversionCache(int capacity) {
+        this(null, capacity);
+    }
+
+    /**
+     * Creates a cache for the speller
+     *
+     * @param speller  speller, {@code null} for the current dictionary of the application
+     * @param capacity the number of cached representations [1...16777216], rounded up to a power of two
+     */
+    public ConversionCache(@Nullable NumberSpeller speller, int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException();
+        }
+        this.speller = speller;
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.entries = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Converts a number to a string representation or returns the cached one
+     *
+     * @param number number, see {@link NumberSpeller#isInRange(long)}
+     * @param cases  cases
+     * @param gender gender
+     * @return string representation
+     */
+    @Nonnull
+    public String convert(long number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        return convert(speller == null ? NumberSpeller.current() : speller, number, cases, gender);
+    }
+
+    /**
+     * Converts a number with the given speller or returns the cached representation of that speller.
+     * Lets a caller that has already taken {@link NumberSpeller#current()} convert with the same dictionary
+     * even if it is replaced meanwhile
+     *
+     * @param current speller, must be the speller of the cache if the cache was created for one
+     * @param number  number, see {@link NumberSpeller#isInRange(long)}
+     * @param cases   cases
+     * @param gender  gender
+     * @return string representation
+     * @throws IllegalArgumentException if the cache was created for another speller
+     */
+    @Nonnull
+    public String convert(@Nonnull NumberSpeller current, long number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        Objects.requireNonNull(current, "speller");
+        Objects.requireNonNull(cases, "cases");
+        Objects.requireNonNull(gender, "gender");
+        if (speller != null && speller != current) {
+            throw new IllegalArgumentException("The cache is created for another speller");
+        }
+        int form = cases.ordinal() * GENDER_COUNT + gender.ordinal();
+        int index = index(number, form);
+        //Поля записи final, поэтому запись из другого потока видна целиком и без volatile
+        Entry entry = entries[index];
+        if (entry != null && entry.number == number && entry.form == form && entry.speller == current) {
+            hits.increment();
+            return entry.represent;
+        }
+        misses.increment();
+        String represent = current.convert(number, cases, gender);
+        if (entry != null) {
+            evictions.increment();
+        }
+        entries[index] = new Entry(number, form, current, represent);
+        return represent;
+    }
+
+    /**
+     * Returns the number of slots of the cache
+     *
+     * @return capacity, a power of two
+     */
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * Returns the number of conversions answered from the cache
+     *
+     * @return hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of conversions that were not in the cache
+     *
+     * @return misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of representations evicted by others, including those of a replaced dictionary
+     *
+     * @return evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Removes all representations, the counters are kept
+     */
+    public void clear() {
+        Arrays.fill(entries, null);
+    }
+
+    private int index(long number, int form) {
+        long hash = (number ^ ((long) form << 59)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static final class Entry {
+        private final long number;
+        //cases * количество родов + gender
+        private final int form;
+        private final NumberSpeller speller;
+        private final String represent;
+
+        private Entry(long number, int form, @Nonnull NumberSpeller speller, @Nonnull String represent) {
+            this.number = number;
+            this.form = form;
+            this.speller = speller;
+            this.represent = represent;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.alexsanderyurevich.converter;
+
+/**
+ * Reasons why a value could not be converted
+ */
+public enum ConversionError {
+    /**
+     * The number is out of the supported range
+     */
+    OUT_OF_RANGE,
+    /**
+     * The case or the gender of the value is not specified
+     */
+    MISSING_ARGUMENT,
+    /**
+     * The value is not an integer number
+     */
+    INVALID_NUMBER,
+    /**
+     * The case name is unknown
+     */
+    INVALID_CASE,
+    /**
+     * The gender name is unknown
+     */
+    INVALID_GENDER,
+}
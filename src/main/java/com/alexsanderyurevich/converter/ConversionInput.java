@@ -0,0 +1,196 @@
+package com.alexsanderyurevich.converter;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Validates text input of a conversion: the number, the case name and the gender name.
+ * Invalid input is reported with {@link ConversionError}, no exception is thrown or created,
+ * so junk input costs no more than valid input.
+ * The number may have a sign and digit groups separated by spaces, {@code _} or {@code '}, e.g. "1 000 000".
+ * An input may be reused for many conversions, it is not thread-safe
+ */
+public final class ConversionInput {
+    private static final Cases[] CASES = Cases.values();
+    private static final Gender[] GENDERS = Gender.values();
+    private static final char MINUS_SIGN = '−';
+
+    private long number;
+    private Cases cases;
+    private Gender gender;
+    private ConversionError error;
+
+    /**
+     * Reads the input. The number is checked first, then the case and the gender
+     *
+     * @param number  number
+     * @param cases   the name of the case, e.g. {@code GENITIVE}
+     * @param gender  the name of the gender, e.g. {@code MALE}
+     * @param speller speller whose range the number must fit in
+     * @return {@code true} if the input is valid
+     */
+    public boolean read(@Nullable CharSequence number, @Nullable CharSequence cases, @Nullable CharSequence gender,
+                        @Nonnull NumberSpeller speller) {
+        Objects.requireNonNull(speller, "speller");
+        this.cases = cases == null ? null : find(CASES, cases);
+        this.gender = gender == null ? null : find(GENDERS, gender);
+        ConversionError numberError = readNumber(number);
+        if (numberError == null && !speller.isInRange(this.number)) {
+            numberError = ConversionError.OUT_OF_RANGE;
+        }
+        if (numberError != null) {
+            error = numberError;
+        } else if (this.cases == null) {
+            error = isBlank(cases) ? ConversionError.MISSING_ARGUMENT : ConversionError.INVALID_CASE;
+        } else if (this.gender == null) {
+            error = isBlank(gender) ? ConversionError.MISSING_ARGUMENT : ConversionError.INVALID_GENDER;
+        } else {
+            error = null;
+        }
+        return error == null;
+    }
+
+    /**
+     * @return {@code true} if the last input is valid
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * @return the error of the last input or {@code null} if it is valid
+     */
+    @Nullable
+    public ConversionError getError() {
+        return error;
+    }
+
+    /**
+     * @return the number of the last valid input
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * @return the case of the last input or {@code null} if it is invalid
+     */
+    @Nullable
+    public Cases getCases() {
+        return cases;
+    }
+
+    /**
+     * @return the gender of the last input or {@code null} if it is invalid
+     */
+    @Nullable
+    public Gender getGender() {
+        return gender;
+    }
+
+    /**
+     * Finds the constant by name without creating strings or exceptions
+     *
+     * @param values constants
+     * @param name   name
+     * @param <E>    enum
+     * @return the constant or {@code null} if there is no constant with this name
+     */
+    @Nullable
+    public static <E extends Enum<E>> E find(@Nonnull E[] values, @Nonnull CharSequence name) {
+        for (E value : values) {
+            if (value.name().contentEquals(name)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    //Один проход: знак, цифры и разделители групп, переполнение. Число накапливается отрицательным
+    @Nullable
+    private ConversionError readNumber(@Nullable CharSequence text) {
+        number = 0;
+        if (text == null) {
+            return ConversionError.MISSING_ARGUMENT;
+        }
+        int from = 0;
+        int to = text.length();
+        while (from < to && isSpace(text.charAt(from))) {
+            from++;
+        }
+        while (to > from && isSpace(text.charAt(to - 1))) {
+            to--;
+        }
+        if (from == to) {
+            return ConversionError.MISSING_ARGUMENT;
+        }
+        boolean negative = false;
+        char first = text.charAt(from);
+        if (first == '-' || first == MINUS_SIGN || first == '+') {
+            negative = first != '+';
+            from++;
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        boolean overflow = false;
+        //Цифры текущей группы; grouped - встретился ли разделитель
+        int groupDigits = 0;
+        boolean grouped = false;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                if (result < limit / 10 || result * 10 < limit + digit) {
+                    overflow = true;
+                } else {
+                    result = result * 10 - digit;
+                }
+                groupDigits++;
+                if (grouped && groupDigits > 3) {
+                    return ConversionError.INVALID_NUMBER;
+                }
+            } else if (isSeparator(c)) {
+                //Первая группа из 1...3 цифр, остальные ровно из 3
+                if (groupDigits == 0 || groupDigits > 3 || grouped && groupDigits != 3) {
+                    return ConversionError.INVALID_NUMBER;
+                }
+                grouped = true;
+                groupDigits = 0;
+            } else {
+                return ConversionError.INVALID_NUMBER;
+            }
+        }
+        if (groupDigits == 0 || grouped && groupDigits != 3) {
+            return ConversionError.INVALID_NUMBER;
+        }
+        if (overflow) {
+            return ConversionError.OUT_OF_RANGE;
+        }
+        number = negative ? result : -result;
+        return null;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '_' || c == '\'' || Character.isSpaceChar(c);
+    }
+
+    private static boolean isSpace(char c) {
+        return Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+
+    private static boolean isBlank(@Nullable CharSequence text) {
+        if (text == null) {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!isSpace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
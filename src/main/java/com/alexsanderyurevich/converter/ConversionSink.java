@@ -0,0 +1,26 @@
+package com.alexsanderyurevich.converter;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receiver of batch conversion results.
+ * During a parallel batch it is called from several threads at once, each time for a different index
+ */
+public interface ConversionSink {
+
+    /**
+     * Accepts the string representation of a value
+     *
+     * @param index     index of the value in the batch
+     * @param represent string representation, valid only until the method returns
+     */
+    void accept(int index, @Nonnull CharSequence represent);
+
+    /**
+     * Accepts a value that could not be converted
+     *
+     * @param index index of the value in the batch
+     * @param error reason
+     */
+    void reject(int index, @Nonnull ConversionError error);
+}
@@ -0,0 +1,85 @@
+package com.alexsanderyurevich.converter;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.Noun;
+import com.alexsanderyurevich.data.NounDictionary;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * Agrees nouns with numbers: "21 день", "3 дня", "двадцати пяти дней".
+ * Nouns come from the dictionary of the application or from a user {@link NounDictionary}.
+ * Agreements are immutable and thread-safe, obtain them with {@link NumberSpeller#getNounAgreement()}
+ */
+public final class NounAgreement {
+    private final NumberSpeller speller;
+
+    NounAgreement(@Nonnull NumberSpeller speller) {
+        this.speller = speller;
+    }
+
+    /**
+     * Returns the number in digits with the agreeing noun, e.g. "21 день"
+     *
+     * @param number number
+     * @param cases  cases
+     * @param noun   noun
+     * @return the number with the noun
+     */
+    @Nonnull
+    public String agree(long number, @Nonnull Cases cases, @Nonnull Noun noun) {
+        return agreeTo(number, cases, noun, new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the number in digits with the agreeing noun to the builder
+     *
+     * @param number      number
+     * @param cases       cases
+     * @param noun        noun
+     * @param destination builder
+     * @return the builder
+     */
+    @Nonnull
+    public StringBuilder agreeTo(long number, @Nonnull Cases cases, @Nonnull Noun noun,
+                                 @Nonnull StringBuilder destination) {
+        Objects.requireNonNull(cases, "cases");
+        Objects.requireNonNull(noun, "noun");
+        Objects.requireNonNull(destination, "destination");
+        return destination.append(number).append(' ').append(noun.getForm(cases, number));
+    }
+
+    /**
+     * Returns the number in words with the agreeing noun, e.g. "двадцати пяти дней"
+     *
+     * @param number number, see {@link NumberSpeller#isInRange(long)}
+     * @param cases  cases
+     * @param noun   noun, the number agrees with its gender
+     * @return the number with the noun
+     */
+    @Nonnull
+    public String convert(long number, @Nonnull Cases cases, @Nonnull Noun noun) {
+        Objects.requireNonNull(noun, "noun");
+        StringBuilder represent = new StringBuilder(speller.length(number, cases, noun.getGender()) + 1
+                + noun.getForm(cases, number).length());
+        return convertTo(number, cases, noun, represent).toString();
+    }
+
+    /**
+     * Appends the number in words with the agreeing noun to the builder
+     *
+     * @param number      number, see {@link NumberSpeller#isInRange(long)}
+     * @param cases       cases
+     * @param noun        noun, the number agrees with its gender
+     * @param destination builder
+     * @return the builder
+     */
+    @Nonnull
+    public StringBuilder convertTo(long number, @Nonnull Cases cases, @Nonnull Noun noun,
+                                   @Nonnull StringBuilder destination) {
+        Objects.requireNonNull(noun, "noun");
+        return speller.convertTo(number, cases, noun.getGender(), destination)
+                .append(' ').append(noun.getForm(cases, number));
+    }
+}
@@ -0,0 +1,380 @@
+package com.alexsanderyurevich.converter;
+
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.data.Dictionary;
+import com.alexsanderyurevich.data.Noun;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Parses numbers written in words back to {@code long}, e.g. "двухсот тридцати одной тысячи" to 231000.
+ * Every form of the numerals of a dictionary is compiled into a finite automaton over the letters of the dictionary,
+ * the text is read once char by char without building words or other objects.
+ * Words are separated by whitespace, letters are compared ignoring case.
+ * Parsers are immutable and thread-safe
+ */
+public final class NumberParser {
+    //Виды слов, значение слова хранится отдельно
+    private static final byte NONE = 0;
+    private static final byte ZERO = 1;
+    private static final byte MINUS = 2;
+    private static final byte UNIT = 3;
+    private static final byte DECADE = 4;
+    private static final byte TEEN = 5;
+    private static final byte HUNDRED = 6;
+    private static final byte SCALE = 7;
+    //Порядок слов в тройке: сотни, десятки или 11...19, единицы
+    private static final int SLOT_EMPTY = 0;
+    private static final int SLOT_HUNDRED = 1;
+    private static final int SLOT_DECADE = 2;
+    private static final int SLOT_FULL = 3;
+    private static final int CASES_COUNT = Cases.values().length;
+    private static final int ALL_CASES = (1 << CASES_COUNT) - 1;
+    private static final int ALL_GENDERS = (1 << Gender.values().length) - 1;
+    //Степени 1000 для разрядов long
+    private static final long[] POWERS = {1L, 1_000L, 1_000_000L, 1_000_000_000L, 1_000_000_000_000L,
+            1_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+
+    private static volatile NumberParser current;
+
+    private final Dictionary dictionary;
+    private final char firstChar;
+    //Номер столбца автомата для буквы - firstChar, -1 для символов не из словаря
+    private final byte[] columns;
+    private final int columnCount;
+    //[state * columnCount + column] -> следующее состояние, 0 - нет перехода
+    private final int[] transitions;
+    //Слово, которое заканчивается в состоянии
+    private final byte[] kinds;
+    private final short[] values;
+    private final byte[] casesMasks;
+    private final byte[] gendersMasks;
+    //Падежи слова разряда по формам числа перед ним: бит (forms - 1) * CASES_COUNT + case
+    private final long[] scaleForms;
+
+    /**
+     * Compiles the parser of the dictionary
+     *
+     * @param dictionary dictionary
+     * @throws IllegalStateException if two different numerals of the dictionary have the same form
+     */
+    public NumberParser(@Nonnull Dictionary dictionary) {
+        this.dictionary = Objects.requireNonNull(dictionary, "dictionary");
+        Builder builder = new Builder();
+        builder.collect(dictionary);
+        this.transitions = builder.compile();
+        this.firstChar = builder.firstChar;
+        this.columns = builder.columns;
+        this.columnCount = builder.columnCount;
+        int states = builder.stateCount;
+        this.kinds = Arrays.copyOf(builder.kinds, states);
+        this.values = Arrays.copyOf(builder.values, states);
+        this.casesMasks = Arrays.copyOf(builder.casesMasks, states);
+        this.gendersMasks = Arrays.copyOf(builder.gendersMasks, states);
+        this.scaleForms = Arrays.copyOf(builder.scaleForms, states);
+    }
+
+    /**
+     * Returns the parser of the current dictionary of {@link DeclineData}
+     *
+     * @return the parser
+     */
+    @Nonnull
+    public static NumberParser current() {
+        Dictionary dictionary = DeclineData.getDictionary();
+        NumberParser parser = current;
+        if (parser == null || parser.dictionary != dictionary) {
+            //Парсер неизменяем, поэтому повторная компиляция в гонке безопасна
+            parser = new NumberParser(dictionary);
+            current = parser;
+        }
+        return parser;
+    }
+
+    /**
+     * Returns the dictionary of the parser
+     *
+     * @return the dictionary
+     */
+    @Nonnull
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Parses the text
+     *
+     * @param text text, e.g. "минус двадцать одна тысяча"
+     * @return the result
+     */
+    @Nonnull
+    public ParseResult parse(@Nonnull CharSequence text) {
+        ParseResult result = new ParseResult();
+        parse(text, 0, text.length(), result);
+        return result;
+    }
+
+    /**
+     * Parses a part of the text into the result
+     *
+     * @param text   text
+     * @param from   the index of the first char
+     * @param to     the index after the last char
+     * @param result the result to fill
+     * @return {@code true} if the part is a number
+     */
+    public boolean parse(@Nonnull CharSequence text, int from, int to, @Nonnull ParseResult result) {
+        Objects.requireNonNull(text, "text");
+        Objects.requireNonNull(result, "result");
+        if (from < 0 || from > to || to > text.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        //Число накапливается отрицательным, чтобы поместился Long.MIN_VALUE
+        long total = 0;
+        int triad = 0;
+        int slot = SLOT_EMPTY;
+        int lastScale = Integer.MAX_VALUE;
+        int casesMask = ALL_CASES;
+        int gendersMask = ALL_GENDERS;
+        boolean negative = false;
+        boolean zero = false;
+        int words = 0;
+        int state = 0;
+        int wordStart = -1;
+        for (int i = from; i <= to; i++) {
+            char c = i < to ? text.charAt(i) : ' ';
+            if (c != ' ' && !Character.isWhitespace(c)) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                    state = 0;
+                }
+                if (state >= 0) {
+                    int column = column(c);
+                    if (column < 0) {
+                        column = column(Character.toLowerCase(c));
+                    }
+                    state = column < 0 ? -1 : transitions[state * columnCount + column] - 1;
+                }
+                continue;
+            }
+            if (wordStart < 0) {
+                continue;
+            }
+            byte kind = state < 0 ? NONE : kinds[state];
+            if (kind == NONE) {
+                result.setError(ParseError.UNKNOWN_WORD, wordStart);
+                return false;
+            }
+            int value = values[state];
+            int wordCases = casesMasks[state];
+            boolean expected;
+            switch (kind) {
+                case MINUS: {
+                    expected = words == 0;
+                    negative = true;
+                    break;
+                }
+                case ZERO: {
+                    expected = words == 0;
+                    zero = true;
+                    break;
+                }
+                case HUNDRED: {
+                    expected = !zero && slot == SLOT_EMPTY;
+                    slot = SLOT_HUNDRED;
+                    break;
+                }
+                case DECADE: {
+                    expected = !zero && slot <= SLOT_HUNDRED;
+                    //После "десять" единиц быть не может
+                    slot = value == 10 ? SLOT_FULL : SLOT_DECADE;
+                    break;
+                }
+                case TEEN: {
+                    expected = !zero && slot <= SLOT_HUNDRED;
+                    slot = SLOT_FULL;
+                    break;
+                }
+                case UNIT: {
+                    expected = !zero && slot <= SLOT_DECADE;
+                    slot = SLOT_FULL;
+                    gendersMask = gendersMasks[state];
+                    break;
+                }
+                default: {
+                    expected = !zero && value < lastScale;
+                    if (expected) {
+                        if (value >= POWERS.length) {
+                            result.setError(ParseError.OUT_OF_RANGE, wordStart);
+                            return false;
+                        }
+                        //"тысяча" без числа перед ней - одна тысяча
+                        long part = slot == SLOT_EMPTY ? 1 : triad;
+                        //Форма слова разряда согласуется с тройкой перед ним: "две тысячи", но "пять тысяч"
+                        wordCases = (int) (scaleForms[state] >>> (Noun.getForms(part) - 1) * CASES_COUNT) & ALL_CASES;
+                        if (part > Long.MAX_VALUE / POWERS[value] || total < Long.MIN_VALUE + part * POWERS[value]) {
+                            result.setError(ParseError.OUT_OF_RANGE, wordStart);
+                            return false;
+                        }
+                        total -= part * POWERS[value];
+                        lastScale = value;
+                        triad = 0;
+                        slot = SLOT_EMPTY;
+                        //Род числа определяют только единицы последней тройки
+                        gendersMask = ALL_GENDERS;
+                        value = 0;
+                    }
+                }
+            }
+            if (!expected) {
+                result.setError(ParseError.UNEXPECTED_WORD, wordStart);
+                return false;
+            }
+            if (kind != SCALE) {
+                triad += value;
+            }
+            if (kind != MINUS) {
+                casesMask &= wordCases;
+                if (casesMask == 0) {
+                    result.setError(ParseError.CASE_MISMATCH, wordStart);
+                    return false;
+                }
+            }
+            words++;
+            wordStart = -1;
+        }
+        if (words == 0 || words == 1 && negative) {
+            result.setError(ParseError.EMPTY, negative ? from : to);
+            return false;
+        }
+        if (zero && negative) {
+            result.setError(ParseError.UNEXPECTED_WORD, from);
+            return false;
+        }
+        if (total < Long.MIN_VALUE + triad) {
+            result.setError(ParseError.OUT_OF_RANGE, from);
+            return false;
+        }
+        total -= triad;
+        if (!negative && total == Long.MIN_VALUE) {
+            result.setError(ParseError.OUT_OF_RANGE, from);
+            return false;
+        }
+        result.setNumber(negative ? total : -total, casesMask, gendersMask);
+        return true;
+    }
+
+    private int column(char c) {
+        int index = c - firstChar;
+        return index < 0 || index >= columns.length ? -1 : columns[index];
+    }
+
+    /**
+     * Collects forms into a trie, which is then compiled into the table of transitions
+     */
+    private static final class Builder {
+        private final List<String> forms = new ArrayList<>();
+        private final List<int[]> terminals = new ArrayList<>();
+        private char firstChar;
+        private byte[] columns;
+        private int columnCount;
+        private int stateCount;
+        private byte[] kinds;
+        private short[] values;
+        private byte[] casesMasks;
+        private byte[] gendersMasks;
+        private long[] scaleForms;
+
+        private void collect(@Nonnull Dictionary dictionary) {
+            add(NumberSpeller.ZERO, ZERO, 0, ALL_CASES, ALL_GENDERS, 0);
+            add(NumberSpeller.MINUS.trim(), MINUS, 0, ALL_CASES, ALL_GENDERS, 0);
+            for (Cases caseType : Cases.values()) {
+                int caseMask = 1 << caseType.ordinal();
+                for (int i = 1; i <= 9; i++) {
+                    for (Gender gender : Gender.values()) {
+                        add(dictionary.getStringUnit(i, caseType, gender), UNIT, i, caseMask, 1 << gender.ordinal(), 0);
+                    }
+                    add(dictionary.getStringDecade(i, caseType), DECADE, i * 10, caseMask, ALL_GENDERS, 0);
+                    add(dictionary.getStringDecade(10 + i, caseType), TEEN, 10 + i, caseMask, ALL_GENDERS, 0);
+                    add(dictionary.getStringHundred(i, caseType), HUNDRED, i * 100, caseMask, ALL_GENDERS, 0);
+                    for (int scale = 1; scale <= dictionary.getMaxScale(); scale++) {
+                        add(dictionary.getScaleWord(scale, caseType, i), SCALE, scale, caseMask, ALL_GENDERS, i);
+                    }
+                }
+            }
+        }
+
+        //numberForms - формы числа перед словом разряда [1...9], 0 для остальных слов
+        private void add(@Nonnull String form, byte kind, int value, int casesMask, int gendersMask, int numberForms) {
+            forms.add(form.toLowerCase());
+            terminals.add(new int[]{kind, value, casesMask, gendersMask, numberForms});
+        }
+
+        @Nonnull
+        private int[] compile() {
+            char min = Character.MAX_VALUE;
+            char max = Character.MIN_VALUE;
+            for (String form : forms) {
+                for (int i = 0; i < form.length(); i++) {
+                    min = (char) Math.min(min, form.charAt(i));
+                    max = (char) Math.max(max, form.charAt(i));
+                }
+            }
+            firstChar = min;
+            columns = new byte[Math.max(0, max - min + 1)];
+            Arrays.fill(columns, (byte) -1);
+            for (String form : forms) {
+                for (int i = 0; i < form.length(); i++) {
+                    if (columns[form.charAt(i) - min] < 0) {
+                        columns[form.charAt(i) - min] = (byte) columnCount++;
+                    }
+                }
+            }
+            int[] table = new int[columnCount * 64];
+            kinds = new byte[64];
+            values = new short[64];
+            casesMasks = new byte[64];
+            gendersMasks = new byte[64];
+            scaleForms = new long[64];
+            stateCount = 1;
+            for (int f = 0; f < forms.size(); f++) {
+                String form = forms.get(f);
+                int state = 0;
+                for (int i = 0; i < form.length(); i++) {
+                    int index = state * columnCount + columns[form.charAt(i) - min];
+                    if (table[index] == 0) {
+                        if ((stateCount + 1) * columnCount > table.length) {
+                            table = Arrays.copyOf(table, table.length * 2);
+                            kinds = Arrays.copyOf(kinds, kinds.length * 2);
+                            values = Arrays.copyOf(values, values.length * 2);
+                            casesMasks = Arrays.copyOf(casesMasks, casesMasks.length * 2);
+                            gendersMasks = Arrays.copyOf(gendersMasks, gendersMasks.length * 2);
+                            scaleForms = Arrays.copyOf(scaleForms, scaleForms.length * 2);
+                        }
+                        //Переходы хранятся со сдвигом на 1, чтобы 0 означал отсутствие перехода
+                        table[index] = ++stateCount;
+                    }
+                    state = table[index] - 1;
+                }
+                int[] terminal = terminals.get(f);
+                if (kinds[state] != NONE && (kinds[state] != terminal[0] || values[state] != terminal[1])) {
+                    throw new IllegalStateException("Ambiguous form " + form);
+                }
+                kinds[state] = (byte) terminal[0];
+                values[state] = (short) terminal[1];
+                casesMasks[state] |= terminal[2];
+                gendersMasks[state] |= terminal[3];
+                if (terminal[4] > 0) {
+                    scaleForms[state] |= (long) terminal[2] << (terminal[4] - 1) * CASES_COUNT;
+                }
+            }
+            return Arrays.copyOf(table, stateCount * columnCount);
+        }
+    }
+}
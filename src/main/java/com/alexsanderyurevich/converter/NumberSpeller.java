@@ -0,0 +1,633 @@
+package com.alexsanderyurevich.converter;
+
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.data.Dictionary;
+import com.alexsanderyurevich.data.OrdinalTable;
+import com.alexsanderyurevich.data.TriadTable;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Converts numbers to string representations with one dictionary.
+ * Spellers are immutable and thread-safe
+ */
+public final class NumberSpeller {
+    static final String ZERO = "ноль";
+    static final String MINUS = "минус ";
+    private static final byte[] ZERO_BYTES = ZERO.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MINUS_BYTES = MINUS.getBytes(StandardCharsets.UTF_8);
+    private static final byte SPACE_BYTE = ' ';
+    //Степени 1000 для разрядов long: единицы, тысячи, ... квинтиллионы
+    private static final long[] POWERS = {1L, 1_000L, 1_000_000L, 1_000_000_000L, 1_000_000_000_000L,
+            1_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+
+    private static volatile NumberSpeller current;
+
+    private final Dictionary dictionary;
+    private final TriadTable table;
+    //null, если в словаре нет порядковых числительных
+    private final OrdinalTable ordinals;
+    //Спеллеры сумм создаются вместе со спеллером, чтобы не выделять память при каждом вызове
+    private final Map<String, AmountSpeller> amountSpellers;
+    private final NounAgreement nounAgreement;
+
+    /**
+     * Creates a speller bound to the dictionary
+     *
+     * @param dictionary dictionary
+     */
+    public NumberSpeller(@Nonnull Dictionary dictionary) {
+        this.dictionary = Objects.requireNonNull(dictionary, "dictionary");
+        this.table = dictionary.getTriadTable();
+        this.ordinals = dictionary.hasOrdinals() ? dictionary.getOrdinalTable() : null;
+        Map<String, AmountSpeller> amounts = new HashMap<>();
+        for (String code : dictionary.getCurrencyCodes()) {
+            amounts.put(code, new AmountSpeller(this, dictionary.getCurrency(code)));
+        }
+        this.amountSpellers = amounts;
+        this.nounAgreement = new NounAgreement(this);
+    }
+
+    /**
+     * Returns the speller bound to the current dictionary of {@link DeclineData}
+     *
+     * @return the speller
+     * @throws IllegalStateException if no dictionary is loaded yet
+     */
+    @Nonnull
+    public static NumberSpeller current() {
+        Dictionary dictionary = DeclineData.getDictionary();
+        NumberSpeller speller = current;
+        if (speller == null || speller.dictionary != dictionary) {
+            //Спеллер неизменяем, поэтому повторное создание в гонке безопасно
+            speller = new NumberSpeller(dictionary);
+            current = speller;
+        }
+        return speller;
+    }
+
+    /**
+     * Returns the dictionary of the speller
+     *
+     * @return the dictionary
+     */
+    @Nonnull
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the agreement of nouns with numbers spelled by this speller
+     *
+     * @return the agreement
+     */
+    @Nonnull
+    public NounAgreement getNounAgreement() {
+        return nounAgreement;
+    }
+
+    /**
+     * Returns the speller of amounts in the currency of the dictionary
+     *
+     * @param currencyCode code of the currency, e.g. {@code RUB}
+     * @return the speller
+     * @throws IllegalArgumentException if the dictionary has no such currency
+     */
+    @Nonnull
+    public AmountSpeller getAmountSpeller(@Nonnull String currencyCode) {
+        Objects.requireNonNull(currencyCode, "currencyCode");
+        AmountSpeller speller = amountSpellers.get(currencyCode);
+        if (speller == null) {
+            throw new IllegalArgumentException("Unknown currency " + currencyCode);
+        }
+        return speller;
+    }
+
+    /**
+     * Checks whether the number is in the range of the dictionary, below 1000^(max scale + 1) by absolute value
+     *
+     * @param number number
+     * @return {@code true} if the number can be converted
+     */
+    public boolean isInRange(long number) {
+        return getGroupCount(number) <= table.getScaleCount();
+    }
+
+    /**
+     * Checks whether the number is in the range of the dictionary, below 1000^(max scale + 1) by absolute value
+     *
+     * @param number number
+     * @return {@code true} if the number can be converted
+     */
+    public boolean isInRange(@Nonnull BigInteger number) {
+        Objects.requireNonNull(number, "number");
+        if (number.bitLength() < Long.SIZE) {
+            return isInRange(number.longValue());
+        }
+        return (number.abs().toString().length() + 2) / 3 <= table.getScaleCount();
+    }
+
+    /**
+     * Converts a number of any size to a string representation.
+     * Numbers that fit in {@code long} are converted without {@link BigInteger} arithmetic
+     *
+     * @param number number, see {@link #isInRange(BigInteger)}
+     * @param cases  cases
+     * @param gender gender
+     * @return string representation
+     */
+    @Nonnull
+    public String convert(@Nonnull BigInteger number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        Objects.requireNonNull(number, "number");
+        if (number.bitLength() < Long.SIZE) {
+            return convert(number.longValue(), cases, gender);
+        }
+        return convertTo(number, cases, gender, new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the string representation of a number of any size to the builder
+     *
+     * @param number      number, see {@link #isInRange(BigInteger)}
+     * @param cases       cases
+     * @param gender      gender
+     * @param destination builder
+     * @return the builder
+     */
+    @Nonnull
+    public StringBuilder convertTo(@Nonnull BigInteger number, @Nonnull Cases cases, @Nonnull Gender gender,
+                                   @Nonnull StringBuilder destination) {
+        Objects.requireNonNull(number, "number");
+        Objects.requireNonNull(destination, "destination");
+        if (number.bitLength() < Long.SIZE) {
+            return convertTo(number.longValue(), cases, gender, destination);
+        }
+        Objects.requireNonNull(cases, "cases");
+        Objects.requireNonNull(gender, "gender");
+        //Десятичная запись строится один раз, дальше каждая триада читается из нее без деления BigInteger
+        String digits = number.abs().toString();
+        int groups = (digits.length() + 2) / 3;
+        if (groups > table.getScaleCount()) {
+            throw outOfRange();
+        }
+        if (number.signum() < 0) {
+            destination.append(MINUS);
+        }
+        boolean separator = false;
+        for (int group = groups - 1; group >= 0; group--) {
+            int triad = getTriad(digits, group);
+            if (triad == 0) continue;
+            if (separator) destination.append(' ');
+            destination.append(table.getTriad(cases, getGender(group, gender), triad));
+            if (group > 0) {
+                destination.append(' ').append(table.getWord(group, cases, triad));
+            }
+            separator = true;
+        }
+        return destination;
+    }
+
+    /**
+     * Converts a number to a string representation
+     *
+     * @param number number, see {@link #isInRange(long)}
+     * @param cases  cases
+     * @param gender gender
+     * @return string representation
+     */
+    @Nonnull
+    public String convert(long number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        checkArguments(number, cases, gender);
+        if (number == 0) {
+            return ZERO;
+        }
+        StringBuilder represent = new StringBuilder(getLength(number, cases, gender));
+        return appendTo(number, cases, gender, represent).toString();
+    }
+
+    /**
+     * Returns the exact length of the string representation of a number
+     *
+     * @param number number, see {@link #isInRange(long)}
+     * @param cases  cases
+     * @param gender gender
+     * @return the number of chars in the string representation
+     */
+    public int length(long number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        checkArguments(number, cases, gender);
+        return getLength(number, cases, gender);
+    }
+
+    /**
+     * Appends the string representation of a number to the builder
+     *
+     * @param number      number, see {@link #isInRange(long)}
+     * @param cases       cases
+     * @param gender      gender
+     * @param destination builder
+     * @return the builder
+     */
+    @Nonnull
+    public StringBuilder convertTo(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                                   @Nonnull StringBuilder destination) {
+        Objects.requireNonNull(destination, "destination");
+        checkArguments(number, cases, gender);
+        destination.ensureCapacity(destination.length() + getLength(number, cases, gender));
+        return appendTo(number, cases, gender, destination);
+    }
+
+    /**
+     * Appends the string representation of a number to the appendable
+     *
+     * @param number      number, see {@link #isInRange(long)}
+     * @param cases       cases
+     * @param gender      gender
+     * @param destination appendable
+     * @return the appendable
+     * @throws IOException if the appendable fails
+     */
+    @Nonnull
+    public <T extends Appendable> T convertTo(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                                              @Nonnull T destination) throws IOException {
+        Objects.requireNonNull(destination, "destination");
+        checkArguments(number, cases, gender);
+        return write(number, cases, gender, destination);
+    }
+
+    /**
+     * Writes the string representation of a number to the array
+     *
+     * @param number      number, see {@link #isInRange(long)}
+     * @param cases       cases
+     * @param gender      gender
+     * @param destination array
+     * @param offset      the index of the first char to write
+     * @return the number of written chars
+     * @throws IndexOutOfBoundsException if the string representation does not fit in the array
+     */
+    public int convertTo(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                         @Nonnull char[] destination, int offset) {
+        Objects.requireNonNull(destination, "destination");
+        checkArguments(number, cases, gender);
+        int length = getLength(number, cases, gender);
+        if (offset < 0 || offset > destination.length - length) {
+            throw new IndexOutOfBoundsException(MessageFormat.format("Need {0} chars at offset {1}, array length {2}",
+                    length, offset, destination.length));
+        }
+        if (number == 0) {
+            return put(ZERO, destination, offset) - offset;
+        }
+        int position = offset;
+        if (number < 0) {
+            position = put(MINUS, destination, position);
+        }
+        boolean separator = false;
+        for (int group = getGroupCount(number) - 1; group >= 0; group--) {
+            int triad = getTriad(number, group);
+            if (triad == 0) continue;
+            if (separator) destination[position++] = ' ';
+            position = put(table.getTriad(cases, getGender(group, gender), triad), destination, position);
+            if (group > 0) {
+                destination[position++] = ' ';
+                position = put(table.getWord(group, cases, triad), destination, position);
+            }
+            separator = true;
+        }
+        return position - offset;
+    }
+
+    /**
+     * Returns the exact length in bytes of the UTF-8 representation of a number
+     *
+     * @param number number, see {@link #isInRange(long)}
+     * @param cases  cases
+     * @param gender gender
+     * @return the number of bytes in the UTF-8 representation
+     */
+    public int utf8Length(long number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        checkArguments(number, cases, gender);
+        return getUtf8Length(number, cases, gender);
+    }
+
+    /**
+     * Writes the UTF-8 representation of a number to the buffer
+     *
+     * @param number      number, see {@link #isInRange(long)}
+     * @param cases       cases
+     * @param gender      gender
+     * @param destination buffer
+     * @return the number of written bytes
+     * @throws BufferOverflowException if the representation does not fit in the remaining bytes of the buffer
+     */
+    public int writeUtf8(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                         @Nonnull ByteBuffer destination) {
+        Objects.requireNonNull(destination, "destination");
+        checkArguments(number, cases, gender);
+        int length = getUtf8Length(number, cases, gender);
+        if (destination.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (number == 0) {
+            destination.put(ZERO_BYTES);
+            return length;
+        }
+        if (number < 0) {
+            destination.put(MINUS_BYTES);
+        }
+        boolean separator = false;
+        for (int group = getGroupCount(number) - 1; group >= 0; group--) {
+            int triad = getTriad(number, group);
+            if (triad == 0) continue;
+            if (separator) destination.put(SPACE_BYTE);
+            table.writeTriad(cases, getGender(group, gender), triad, destination);
+            if (group > 0) {
+                destination.put(SPACE_BYTE);
+                table.writeWord(group, cases, triad, destination);
+            }
+            separator = true;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the UTF-8 representation of a number to the stream
+     *
+     * @param number      number, see {@link #isInRange(long)}
+     * @param cases       cases
+     * @param gender      gender
+     * @param destination stream
+     * @throws IOException if the stream fails
+     */
+    public void writeUtf8(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                          @Nonnull OutputStream destination) throws IOException {
+        Objects.requireNonNull(destination, "destination");
+        checkArguments(number, cases, gender);
+        if (number == 0) {
+            destination.write(ZERO_BYTES);
+            return;
+        }
+        if (number < 0) {
+            destination.write(MINUS_BYTES);
+        }
+        boolean separator = false;
+        for (int group = getGroupCount(number) - 1; group >= 0; group--) {
+            int triad = getTriad(number, group);
+            if (triad == 0) continue;
+            if (separator) destination.write(SPACE_BYTE);
+            table.writeTriad(cases, getGender(group, gender), triad, destination);
+            if (group > 0) {
+                destination.write(SPACE_BYTE);
+                table.writeWord(group, cases, triad, destination);
+            }
+            separator = true;
+        }
+    }
+
+    /**
+     * Converts a number to an ordinal representation, e.g. "двадцать пятого", "двухтысячном"
+     *
+     * @param number number, see {@link #isInRange(long)}
+     * @param cases  cases
+     * @param gender gender
+     * @return ordinal representation
+     * @throws IllegalStateException if the dictionary has no ordinals
+     */
+    @Nonnull
+    public String convertOrdinal(long number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        checkArguments(number, cases, gender);
+        OrdinalTable ordinals = getOrdinals();
+        if (number == 0) {
+            return ordinals.getZero(cases, gender);
+        }
+        StringBuilder represent = new StringBuilder(getOrdinalLength(number, cases, gender, ordinals));
+        return appendOrdinalTo(number, cases, gender, ordinals, represent).toString();
+    }
+
+    /**
+     * Appends the ordinal representation of a number to the builder
+     *
+     * @param number      number, see {@link #isInRange(long)}
+     * @param cases       cases
+     * @param gender      gender
+     * @param destination builder
+     * @return the builder
+     * @throws IllegalStateException if the dictionary has no ordinals
+     */
+    @Nonnull
+    public StringBuilder convertOrdinalTo(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                                          @Nonnull StringBuilder destination) {
+        Objects.requireNonNull(destination, "destination");
+        checkArguments(number, cases, gender);
+        OrdinalTable ordinals = getOrdinals();
+        destination.ensureCapacity(destination.length() + getOrdinalLength(number, cases, gender, ordinals));
+        return appendOrdinalTo(number, cases, gender, ordinals, destination);
+    }
+
+    //Все разряды, кроме младшего ненулевого, количественные в именительном падеже, младший - порядковый
+    @Nonnull
+    private StringBuilder appendOrdinalTo(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                                          @Nonnull OrdinalTable ordinals, @Nonnull StringBuilder destination) {
+        if (number == 0) {
+            return destination.append(ordinals.getZero(cases, gender));
+        }
+        if (number < 0) {
+            destination.append(MINUS);
+        }
+        int last = getLastGroup(number);
+        boolean separator = false;
+        for (int group = getGroupCount(number) - 1; group > last; group--) {
+            int triad = getTriad(number, group);
+            if (triad == 0) continue;
+            if (separator) destination.append(' ');
+            destination.append(table.getTriad(Cases.NOMINATIVE, getGender(group, gender), triad))
+                    .append(' ').append(table.getWord(group, Cases.NOMINATIVE, triad));
+            separator = true;
+        }
+        if (separator) destination.append(' ');
+        int triad = getTriad(number, last);
+        if (last == 0) {
+            return destination.append(ordinals.getTriad(cases, gender, triad));
+        }
+        return destination.append(ordinals.getPrefix(triad)).append(ordinals.getScaleWord(last, cases, gender));
+    }
+
+    private int getOrdinalLength(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                                 @Nonnull OrdinalTable ordinals) {
+        if (number == 0) {
+            return ordinals.getZero(cases, gender).length();
+        }
+        int length = number < 0 ? MINUS.length() : 0;
+        int last = getLastGroup(number);
+        for (int group = getGroupCount(number) - 1; group > last; group--) {
+            int triad = getTriad(number, group);
+            if (triad == 0) continue;
+            length += table.getTriad(Cases.NOMINATIVE, getGender(group, gender), triad).length()
+                    + 1 + table.getWord(group, Cases.NOMINATIVE, triad).length() + 1;
+        }
+        int triad = getTriad(number, last);
+        if (last == 0) {
+            return length + ordinals.getTriad(cases, gender, triad).length();
+        }
+        return length + ordinals.getPrefix(triad).length() + ordinals.getScaleWord(last, cases, gender).length();
+    }
+
+    @Nonnull
+    private OrdinalTable getOrdinals() {
+        if (ordinals == null) {
+            throw new IllegalStateException("The dictionary has no ordinals");
+        }
+        return ordinals;
+    }
+
+    private int getUtf8Length(long number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        if (number == 0) {
+            return ZERO_BYTES.length;
+        }
+        int length = 0;
+        if (number < 0) {
+            length += MINUS_BYTES.length;
+        }
+        boolean separator = false;
+        for (int group = getGroupCount(number) - 1; group >= 0; group--) {
+            int triad = getTriad(number, group);
+            if (triad == 0) continue;
+            if (separator) length++;
+            length += table.getTriadUtf8Length(cases, getGender(group, gender), triad);
+            if (group > 0) {
+                length += 1 + table.getWordUtf8Length(group, cases, triad);
+            }
+            separator = true;
+        }
+        return length;
+    }
+
+    private int getLength(long number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        if (number == 0) {
+            return ZERO.length();
+        }
+        int length = 0;
+        if (number < 0) {
+            length += MINUS.length();
+        }
+        boolean separator = false;
+        for (int group = getGroupCount(number) - 1; group >= 0; group--) {
+            int triad = getTriad(number, group);
+            if (triad == 0) continue;
+            if (separator) length++;
+            length += table.getTriad(cases, getGender(group, gender), triad).length();
+            if (group > 0) {
+                length += 1 + table.getWord(group, cases, triad).length();
+            }
+            separator = true;
+        }
+        return length;
+    }
+
+    StringBuilder appendTo(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                           @Nonnull StringBuilder destination) {
+        try {
+            return write(number, cases, gender, destination);
+        } catch (IOException e) {
+            //StringBuilder не бросает IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T extends Appendable> T write(long number, @Nonnull Cases cases, @Nonnull Gender gender,
+                                           @Nonnull T destination) throws IOException {
+        if (number == 0) {
+            destination.append(ZERO);
+            return destination;
+        }
+        if (number < 0) {
+            destination.append(MINUS);
+        }
+        boolean separator = false;
+        for (int group = getGroupCount(number) - 1; group >= 0; group--) {
+            int triad = getTriad(number, group);
+            if (triad == 0) continue;
+            if (separator) destination.append(' ');
+            destination.append(table.getTriad(cases, getGender(group, gender), triad));
+            if (group > 0) {
+                destination.append(' ').append(table.getWord(group, cases, triad));
+            }
+            separator = true;
+        }
+        return destination;
+    }
+
+    private static int put(@Nonnull String fragment, @Nonnull char[] destination, int position) {
+        fragment.getChars(0, fragment.length(), destination, position);
+        return position + fragment.length();
+    }
+
+    private static int getGroupCount(long number) {
+        if (number == Long.MIN_VALUE) {
+            return POWERS.length;
+        }
+        long magnitude = Math.abs(number);
+        int groups = 1;
+        while (groups < POWERS.length && magnitude >= POWERS[groups]) {
+            groups++;
+        }
+        return groups;
+    }
+
+    //Младшая ненулевая триада, number не 0
+    private static int getLastGroup(long number) {
+        int group = 0;
+        while (getTriad(number, group) == 0) {
+            group++;
+        }
+        return group;
+    }
+
+    private static int getTriad(long number, int group) {
+        if (number == Long.MIN_VALUE) {
+            //Модуль Long.MIN_VALUE не помещается в long, но отличается от Long.MAX_VALUE только младшей триадой (808 и 807)
+            int triad = (int) (Long.MAX_VALUE / POWERS[group] % 1_000);
+            return group == 0 ? triad + 1 : triad;
+        }
+        return (int) (Math.abs(number) / POWERS[group] % 1_000);
+    }
+
+    private static int getTriad(@Nonnull String digits, int group) {
+        int end = digits.length() - group * 3;
+        int triad = 0;
+        for (int i = Math.max(0, end - 3); i < end; i++) {
+            triad = triad * 10 + digits.charAt(i) - '0';
+        }
+        return triad;
+    }
+
+    private Gender getGender(int group, @Nonnull Gender gender) {
+        return group == 0 ? gender : table.getScaleGender(group);
+    }
+
+    private void checkArguments(long number, @Nonnull Cases cases, @Nonnull Gender gender) {
+        Objects.requireNonNull(cases, "cases");
+        Objects.requireNonNull(gender, "gender");
+        if (!isInRange(number)) {
+            throw outOfRange();
+        }
+    }
+
+    @Nonnull
+    private IllegalArgumentException outOfRange() {
+        BigInteger max = BigInteger.TEN.pow(3 * table.getScaleCount()).subtract(BigInteger.ONE);
+        return new IllegalArgumentException(MessageFormat.format("The value must be in range[{0};{1}]", max.negate(), max));
+    }
+}
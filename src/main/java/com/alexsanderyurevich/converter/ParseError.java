@@ -0,0 +1,28 @@
+package com.alexsanderyurevich.converter;
+
+/**
+ * Reasons why a text could not be parsed to a number
+ */
+public enum ParseError {
+    /**
+     * The text has no words
+     */
+    EMPTY,
+    /**
+     * The word is not a form of any numeral of the dictionary
+     */
+    UNKNOWN_WORD,
+    /**
+     * The word is a numeral, but can not follow the previous words, e.g. "сто двести"
+     */
+    UNEXPECTED_WORD,
+    /**
+     * The words do not agree in case, e.g. "двух тысяча", or the scale word does not agree with the number before it,
+     * e.g. "две тысяч"
+     */
+    CASE_MISMATCH,
+    /**
+     * The number does not fit in {@code long}
+     */
+    OUT_OF_RANGE,
+}
@@ -0,0 +1,139 @@
+package com.alexsanderyurevich.converter;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Result of {@link NumberParser}: the number with the cases and genders its words agree with, or the error.
+ * A result may be reused for many texts, it is not thread-safe
+ */
+public final class ParseResult {
+    private static final Cases[] CASES = Cases.values();
+    private static final Gender[] GENDERS = Gender.values();
+
+    private long number;
+    private int casesMask;
+    private int gendersMask;
+    private ParseError error;
+    private int errorPosition;
+
+    /**
+     * Checks whether the text is parsed
+     *
+     * @return {@code true} if the text is a number
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Returns the number
+     *
+     * @return the number, 0 if the text is not parsed
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the error
+     *
+     * @return the error or {@code null} if the text is parsed
+     */
+    @Nullable
+    public ParseError getError() {
+        return error;
+    }
+
+    /**
+     * Returns the position of the first char of the word that caused the error
+     *
+     * @return position in the text or -1 if the text is parsed
+     */
+    public int getErrorPosition() {
+        return errorPosition;
+    }
+
+    /**
+     * Returns the case of the number. Some forms are the same in several cases, e.g. "двух", then the first one is returned
+     *
+     * @return the first case all words agree with or {@code null} if the words disagree or the text is not parsed
+     */
+    @Nullable
+    public Cases getCase() {
+        return casesMask == 0 ? null : CASES[Integer.numberOfTrailingZeros(casesMask)];
+    }
+
+    /**
+     * Returns all cases of the number
+     *
+     * @return the cases all words agree with
+     */
+    @Nonnull
+    public Set<Cases> getCases() {
+        Set<Cases> cases = EnumSet.noneOf(Cases.class);
+        for (Cases caseType : CASES) {
+            if (isCase(caseType)) {
+                cases.add(caseType);
+            }
+        }
+        return cases;
+    }
+
+    /**
+     * Checks whether the number may be in the case
+     *
+     * @param cases cases
+     * @return {@code true} if all words agree with the case
+     */
+    public boolean isCase(@Nonnull Cases cases) {
+        return (casesMask & 1 << cases.ordinal()) != 0;
+    }
+
+    /**
+     * Returns the gender of the number. Only the units, e.g. "одна", "два", tell the gender, for other numbers
+     * the first gender is returned
+     *
+     * @return the first gender the last unit agrees with or {@code null} if the text is not parsed
+     */
+    @Nullable
+    public Gender getGender() {
+        return gendersMask == 0 ? null : GENDERS[Integer.numberOfTrailingZeros(gendersMask)];
+    }
+
+    /**
+     * Checks whether the number may be of the gender
+     *
+     * @param gender gender
+     * @return {@code true} if the last unit agrees with the gender
+     */
+    public boolean isGender(@Nonnull Gender gender) {
+        return (gendersMask & 1 << gender.ordinal()) != 0;
+    }
+
+    void setNumber(long number, int casesMask, int gendersMask) {
+        this.number = number;
+        this.casesMask = casesMask;
+        this.gendersMask = gendersMask;
+        this.error = null;
+        this.errorPosition = -1;
+    }
+
+    void setError(@Nonnull ParseError error, int position) {
+        this.number = 0;
+        this.casesMask = 0;
+        this.gendersMask = 0;
+        this.error = error;
+        this.errorPosition = position;
+    }
+
+    @Override
+    public String toString() {
+        return error == null ? number + " " + getCases() + " " + getGender() : error + " at " + errorPosition;
+    }
+}
@@ -0,0 +1,218 @@
+package com.alexsanderyurevich.converter;
+
+import com.alexsanderyurevich.data.Dictionary;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Spellers of several dictionaries by name.
+ * A dictionary is loaded on the first request of its speller, and the speller is cached.
+ * If the load fails, the failure is cached too: requests fail without loading until the retry delay passes.
+ * Names of dictionaries registered for a locale are language tags, e.g. {@code ru} or {@code ru-BY}
+ */
+public final class SpellerRegistry {
+    public static final long DEFAULT_RETRY_DELAY_SECONDS = 30;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long retryDelayNanos;
+
+    public SpellerRegistry() {
+        this(DEFAULT_RETRY_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param retryDelay delay before a dictionary that failed to load is loaded again
+     * @param unit       unit of the delay
+     */
+    public SpellerRegistry(long retryDelay, @Nonnull TimeUnit unit) {
+        if (retryDelay < 0) {
+            throw new IllegalArgumentException("The retry delay must not be negative");
+        }
+        this.retryDelayNanos = unit.toNanos(retryDelay);
+    }
+
+    /**
+     * Registers a dictionary
+     *
+     * @param name   name of the dictionary
+     * @param loader loads the dictionary, called once on the first request
+     * @return this registry
+     * @throws IllegalStateException if a dictionary with this name is already registered
+     */
+    @Nonnull
+    public SpellerRegistry register(@Nonnull String name, @Nonnull Supplier<Dictionary> loader) {
+        Objects.requireNonNull(loader, "loader");
+        return register(name, new Entry(loader, retryDelayNanos));
+    }
+
+    /**
+     * Registers a dictionary for the locale
+     *
+     * @param locale locale
+     * @param loader loads the dictionary, called once on the first request
+     * @return this registry
+     * @throws IllegalStateException if a dictionary for this locale is already registered
+     */
+    @Nonnull
+    public SpellerRegistry register(@Nonnull Locale locale, @Nonnull Supplier<Dictionary> loader) {
+        Objects.requireNonNull(locale, "locale");
+        return register(locale.toLanguageTag(), loader);
+    }
+
+    /**
+     * Registers the current dictionary of the application under the name.
+     * Its speller follows the reloads of the dictionary, see {@link NumberSpeller#current()}
+     *
+     * @param name name of the dictionary
+     * @return this registry
+     * @throws IllegalStateException if a dictionary with this name is already registered
+     */
+    @Nonnull
+    public SpellerRegistry registerCurrent(@Nonnull String name) {
+        return register(name, new Entry(null, 0));
+    }
+
+    /**
+     * Returns the speller of the dictionary, loading the dictionary if needed
+     *
+     * @param name name of the dictionary
+     * @return the speller
+     * @throws IllegalArgumentException if the dictionary is not registered
+     * @throws IllegalStateException    if the dictionary can not be loaded
+     */
+    @Nonnull
+    public NumberSpeller getSpeller(@Nonnull String name) {
+        NumberSpeller speller = findSpeller(name);
+        if (speller == null) {
+            throw new IllegalArgumentException("Unknown dictionary " + name);
+        }
+        return speller;
+    }
+
+    /**
+     * Returns the speller of the dictionary for the locale.
+     * If there is no dictionary for the whole language tag, the dictionary of the language is used
+     *
+     * @param locale locale
+     * @return the speller
+     * @throws IllegalArgumentException if there is no dictionary for the locale
+     * @throws IllegalStateException    if the dictionary can not be loaded
+     */
+    @Nonnull
+    public NumberSpeller getSpeller(@Nonnull Locale locale) {
+        Objects.requireNonNull(locale, "locale");
+        NumberSpeller speller = findSpeller(locale.toLanguageTag());
+        if (speller == null) {
+            speller = findSpeller(locale.getLanguage());
+        }
+        if (speller == null) {
+            throw new IllegalArgumentException("Unknown dictionary " + locale.toLanguageTag());
+        }
+        return speller;
+    }
+
+    /**
+     * Returns the speller of the dictionary, loading the dictionary if needed
+     *
+     * @param name name of the dictionary
+     * @return the speller or {@code null} if the dictionary is not registered
+     * @throws IllegalStateException if the dictionary can not be loaded, the cause is the error of the last load
+     */
+    @Nullable
+    public NumberSpeller findSpeller(@Nonnull String name) {
+        Objects.requireNonNull(name, "name");
+        Entry entry = entries.get(name);
+        return entry == null ? null : entry.getSpeller(name);
+    }
+
+    /**
+     * Checks whether the dictionary is already loaded
+     *
+     * @param name name of the dictionary
+     * @return {@code true} if the dictionary is registered and loaded
+     */
+    public boolean isLoaded(@Nonnull String name) {
+        Objects.requireNonNull(name, "name");
+        Entry entry = entries.get(name);
+        return entry != null && (entry.loader == null || entry.speller != null);
+    }
+
+    /**
+     * Returns the names of the registered dictionaries
+     *
+     * @return sorted names
+     */
+    @Nonnull
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(entries.keySet()));
+    }
+
+    @Nonnull
+    private SpellerRegistry register(@Nonnull String name, @Nonnull Entry entry) {
+        Objects.requireNonNull(name, "name");
+        if (entries.putIfAbsent(name, entry) != null) {
+            throw new IllegalStateException("Dictionary " + name + " is already registered");
+        }
+        return this;
+    }
+
+    private static final class Entry {
+        //null для текущего словаря приложения
+        private final Supplier<Dictionary> loader;
+        private final long retryDelayNanos;
+        private volatile NumberSpeller speller;
+        //Ошибка последней загрузки и время, после которого загрузка повторяется
+        private RuntimeException failure;
+        private long retryAt;
+
+        private Entry(@Nullable Supplier<Dictionary> loader, long retryDelayNanos) {
+            this.loader = loader;
+            this.retryDelayNanos = retryDelayNanos;
+        }
+
+        @Nonnull
+        private NumberSpeller getSpeller(@Nonnull String name) {
+            if (loader == null) {
+                return NumberSpeller.current();
+            }
+            NumberSpeller result = speller;
+            if (result == null) {
+                result = load(name);
+            }
+            return result;
+        }
+
+        //Словарь загружается один раз, остальные потоки ждут окончания загрузки.
+        //Неудачная загрузка не повторяется до истечения задержки, чтобы ошибочный файл не разбирался на каждый запрос
+        @Nonnull
+        private synchronized NumberSpeller load(@Nonnull String name) {
+            NumberSpeller result = speller;
+            if (result != null) {
+                return result;
+            }
+            if (failure != null && System.nanoTime() - retryAt < 0) {
+                throw new IllegalStateException("Dictionary " + name + " is not available", failure);
+            }
+            try {
+                result = new NumberSpeller(Objects.requireNonNull(loader.get(), "dictionary"));
+            } catch (RuntimeException e) {
+                failure = e;
+                retryAt = System.nanoTime() + retryDelayNanos;
+                throw new IllegalStateException("Dictionary " + name + " is not available", e);
+            }
+            failure = null;
+            speller = result;
+            return result;
+        }
+    }
+}
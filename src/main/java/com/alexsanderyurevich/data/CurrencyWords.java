@@ -0,0 +1,55 @@
+package com.alexsanderyurevich.data;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Nouns of a currency: the major unit, e.g. rubles, and the minor unit, e.g. kopecks
+ */
+public final class CurrencyWords {
+    private final String code;
+    private final Noun major;
+    private final Noun minor;
+    private final int minorDigits;
+
+    CurrencyWords(@Nonnull String code, @Nonnull Noun major, @Nonnull Noun minor, int minorDigits) {
+        this.code = code;
+        this.major = major;
+        this.minor = minor;
+        this.minorDigits = minorDigits;
+    }
+
+    /**
+     * Returns the code of the currency, e.g. {@code RUB}
+     *
+     * @return code
+     */
+    @Nonnull
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @return the noun of the major unit
+     */
+    @Nonnull
+    public Noun getMajor() {
+        return major;
+    }
+
+    /**
+     * @return the noun of the minor unit
+     */
+    @Nonnull
+    public Noun getMinor() {
+        return minor;
+    }
+
+    /**
+     * Returns the number of decimal digits of the minor unit, 2 for kopecks
+     *
+     * @return digits [1...9]
+     */
+    public int getMinorDigits() {
+        return minorDigits;
+    }
+}
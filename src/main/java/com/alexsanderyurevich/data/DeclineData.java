@@ -1,25 +1,62 @@
 package com.alexsanderyurevich.data;
 
-import com.alexsanderyurevich.utils.Pair;
-
 import javax.annotation.Nonnull;
-import java.util.EnumMap;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * The current declension dictionary of the application.
+ * The dictionary is an immutable {@link Dictionary} snapshot replaced with one atomic swap,
+ * so readers never block and never see a partially loaded dictionary.
+ * There is no dictionary until one is published: the application loads it at startup
+ */
 public final class DeclineData {
-    private static final EnumMap<Word, Pair<String, Map<Integer, Decline>>> declineWords = new EnumMap<>(Word.class);
-    private static final Map<Integer, EnumMap<Gender, Decline>> digitWithGender = new HashMap<>();
-    private static final Map<Integer, Decline> digits = new HashMap<>();
-    private static final Map<Integer, Decline> numbers = new HashMap<>();
-    private static final Map<Integer, Decline> decades = new HashMap<>();
-    private static final Map<Integer, Decline> hundreds = new HashMap<>();
+    //null, пока словарь не загружен
+    private static final AtomicReference<Dictionary> dictionary = new AtomicReference<>();
 
     private DeclineData() {
     }
 
+    /**
+     * Returns the current dictionary
+     *
+     * @return the current dictionary
+     * @throws IllegalStateException if no dictionary is loaded yet
+     */
+    @Nonnull
+    public static Dictionary getDictionary() {
+        Dictionary current = dictionary.get();
+        if (current == null) {
+            throw new IllegalStateException("The dictionary is not loaded");
+        }
+        return current;
+    }
+
+    /**
+     * Returns whether a dictionary is published
+     *
+     * @return {@code true} if a dictionary is loaded
+     */
+    public static boolean isLoaded() {
+        return dictionary.get() != null;
+    }
+
+    /**
+     * Publishes a new dictionary. Its triad and ordinal tables are built before publishing,
+     * so conversions do not wait for them
+     *
+     * @param newDictionary dictionary
+     */
+    public static void setDictionary(@Nonnull Dictionary newDictionary) {
+        requireNonNull(newDictionary, "dictionary");
+        newDictionary.getTriadTable();
+        if (newDictionary.hasOrdinals()) {
+            newDictionary.getOrdinalTable();
+        }
+        dictionary.set(newDictionary);
+    }
+
     /**
      * Added word to container
      *
@@ -27,17 +64,11 @@ public final class DeclineData {
      * @param caseType caseType
      * @param word     word
      * @param wordEnd  word end
+     * @deprecated publishes a copy of the dictionary on every call, fill {@link Dictionary.Builder} instead
      */
-    public static void addWord(@Nonnull Word wordType, @Nonnull String word, int number, @Nonnull Cases caseType, @Nonnull String wordEnd) {
-        requireNonNull(wordType, "wordType");
-        requireNonNull(word, "word");
-        requireNonNull(caseType, "caseType");
-        requireNonNull(wordEnd, "wordEnd");
-        Pair<String, Map<Integer, Decline>> declinesPair = declineWords.getOrDefault(wordType, new Pair<>(word, new HashMap<>()));
-        Decline decline = declinesPair.getRight().getOrDefault(number, new Decline());
-        decline.addDecline(caseType, wordEnd);
-        declinesPair.getRight().put(number, decline);
-        declineWords.put(wordType, declinesPair);
+    @Deprecated
+    public static synchronized void addWord(@Nonnull Word wordType, @Nonnull String word, int number, @Nonnull Cases caseType, @Nonnull String wordEnd) {
+        dictionary.set(toBuilder().addWord(wordType, word, number, caseType, wordEnd).buildPartial());
     }
 
     /**
@@ -46,16 +77,11 @@ public final class DeclineData {
      * @param decade      decades [1,2...,9]
      * @param caseType    caseType
      * @param declineWord word
+     * @deprecated publishes a copy of the dictionary on every call, fill {@link Dictionary.Builder} instead
      */
-    public static void addDecade(int decade, @Nonnull Cases caseType, @Nonnull String declineWord) {
-        requireNonNull(declineWord, "declineWord");
-        requireNonNull(caseType, "caseType");
-        if (decade < 1 || decade > 9) {
-            throw new IllegalArgumentException();
-        }
-        Decline decline = decades.getOrDefault(decade, new Decline());
-        decline.addDecline(caseType, declineWord);
-        decades.put(decade, decline);
+    @Deprecated
+    public static synchronized void addDecade(int decade, @Nonnull Cases caseType, @Nonnull String declineWord) {
+        dictionary.set(toBuilder().addDecade(decade, caseType, declineWord).buildPartial());
     }
 
     /**
@@ -64,16 +90,11 @@ public final class DeclineData {
      * @param hundred     hundred [1,2...,9]
      * @param caseType    caseType
      * @param declineWord word
+     * @deprecated publishes a copy of the dictionary on every call, fill {@link Dictionary.Builder} instead
      */
-    public static void addHundred(int hundred, @Nonnull Cases caseType, @Nonnull String declineWord) {
-        requireNonNull(caseType, "caseType");
-        requireNonNull(declineWord, "declineWord");
-        if (hundred < 1 || hundred > 9) {
-            throw new IllegalArgumentException();
-        }
-        Decline decline = hundreds.getOrDefault(hundred, new Decline());
-        decline.addDecline(caseType, declineWord);
-        hundreds.put(hundred, decline);
+    @Deprecated
+    public static synchronized void addHundred(int hundred, @Nonnull Cases caseType, @Nonnull String declineWord) {
+        dictionary.set(toBuilder().addHundred(hundred, caseType, declineWord).buildPartial());
     }
 
     /**
@@ -82,16 +103,11 @@ public final class DeclineData {
      * @param gender       gender
      * @param caseType     caseType
      * @param declineDigit decline digit
+     * @deprecated publishes a copy of the dictionary on every call, fill {@link Dictionary.Builder} instead
      */
-    public static void addDigitWithGender(int digit, @Nonnull Gender gender, @Nonnull Cases caseType, @Nonnull String declineDigit) {
-        requireNonNull(gender, "gender");
-        requireNonNull(caseType, "caseType");
-        requireNonNull(declineDigit, "declineDigit");
-        EnumMap<Gender, Decline> declineMap = digitWithGender.getOrDefault(digit, new EnumMap<>(Gender.class));
-        Decline decline = declineMap.getOrDefault(gender, new Decline());
-        decline.addDecline(caseType, declineDigit);
-        declineMap.put(gender, decline);
-        digitWithGender.put(digit, declineMap);
+    @Deprecated
+    public static synchronized void addDigitWithGender(int digit, @Nonnull Gender gender, @Nonnull Cases caseType, @Nonnull String declineDigit) {
+        dictionary.set(toBuilder().addDigitWithGender(digit, gender, caseType, declineDigit).buildPartial());
     }
 
     /**
@@ -100,16 +116,11 @@ public final class DeclineData {
      * @param digit        digit [1...9]
      * @param caseType     caseType
      * @param declineDigit decline digit
+     * @deprecated publishes a copy of the dictionary on every call, fill {@link Dictionary.Builder} instead
      */
-    public static void addDigits(int digit, @Nonnull Cases caseType, @Nonnull String declineDigit) {
-        requireNonNull(caseType, "caseType");
-        requireNonNull(declineDigit, "declineDigit");
-        if (digit < 1 || digit > 9) {
-            throw new IllegalArgumentException();
-        }
-        Decline decline = digits.getOrDefault(digit, new Decline());
-        decline.addDecline(caseType, declineDigit);
-        digits.put(digit, decline);
+    @Deprecated
+    public static synchronized void addDigits(int digit, @Nonnull Cases caseType, @Nonnull String declineDigit) {
+        dictionary.set(toBuilder().addDigits(digit, caseType, declineDigit).buildPartial());
     }
 
     /**
@@ -118,16 +129,27 @@ public final class DeclineData {
      * @param number       number [11...19]
      * @param caseType     caseType
      * @param declineDigit decline number
+     * @deprecated publishes a copy of the dictionary on every call, fill {@link Dictionary.Builder} instead
      */
-    public static void addNumber(int number, @Nonnull Cases caseType, @Nonnull String declineDigit) {
-        requireNonNull(caseType, "caseType");
-        requireNonNull(declineDigit, "declineDigit");
-        if (number < 11 || number > 19) {
-            throw new IllegalArgumentException();
-        }
-        Decline decline = numbers.getOrDefault(number, new Decline());
-        decline.addDecline(caseType, declineDigit);
-        numbers.put(number, decline);
+    @Deprecated
+    public static synchronized void addNumber(int number, @Nonnull Cases caseType, @Nonnull String declineDigit) {
+        dictionary.set(toBuilder().addNumber(number, caseType, declineDigit).buildPartial());
+    }
+
+    @Nonnull
+    private static Dictionary.Builder toBuilder() {
+        Dictionary current = dictionary.get();
+        return current == null ? new Dictionary.Builder() : current.toBuilder();
+    }
+
+    /**
+     * Returns the version of the current dictionary.
+     * It changes every time a dictionary is published
+     *
+     * @return the version
+     */
+    public static long getVersion() {
+        return getDictionary().getVersion();
     }
 
     /**
@@ -139,18 +161,7 @@ public final class DeclineData {
      * @return a string representation for unit
      */
     public static String getStringUnit(int unit, @Nonnull Cases caseType, @Nonnull Gender gender) {
-        if (unit < 1 || unit > 9) {
-            throw new IllegalArgumentException();
-        }
-        requireNonNull(caseType, "caseType");
-        requireNonNull(gender, "gender");
-        EnumMap<Gender, Decline> map = digitWithGender.get(unit);
-        if (map != null) {
-            Decline decline = map.get(gender);
-            return decline.getDecline(caseType);
-        }
-        Decline decline = digits.get(unit);
-        return decline.getDecline(caseType);
+        return getDictionary().getStringUnit(unit, caseType, gender);
     }
 
     /**
@@ -161,12 +172,7 @@ public final class DeclineData {
      * @return a string representation for decades
      */
     public static String getStringDecade(int decade, @Nonnull Cases caseType) {
-        requireNonNull(caseType, "caseType");
-        if (decade > 10 && decade < 20) {
-            return numbers.get(decade).getDecline(caseType);
-        }
-        Decline decline = decades.get(decade);
-        return decline.getDecline(caseType);
+        return getDictionary().getStringDecade(decade, caseType);
     }
 
     /**
@@ -177,12 +183,7 @@ public final class DeclineData {
      * @return a string representation for hundreds
      */
     public static String getStringHundred(int hundred, @Nonnull Cases caseType) {
-        if (hundred < 1 || hundred > 9) {
-            throw new IllegalArgumentException();
-        }
-        requireNonNull(caseType, "caseType");
-        Decline decline = hundreds.get(hundred);
-        return decline.getDecline(caseType);
+        return getDictionary().getStringHundred(hundred, caseType);
     }
 
     /**
@@ -194,28 +195,44 @@ public final class DeclineData {
      * @return the word in the desired declension
      */
     public static String getWord(@Nonnull Word word, @Nonnull Cases caseType, int forms) {
-        if (forms < 0) {
-            throw new IllegalArgumentException();
-        }
-        requireNonNull(word, "word");
-        requireNonNull(caseType, "caseType");
-        if (forms == 0) {
-            forms = 1;
-        }
-        String wordEnd = declineWords.get(word).getRight().get(forms).getDecline(caseType);
-        if (wordEnd.isEmpty()) {
-            return declineWords.get(word).getLeft();
-        }
-        return declineWords.get(word).getLeft() + wordEnd;
+        return getDictionary().getWord(word, caseType, forms);
     }
 
     /**
-     * Word types
+     * Word types, the scale words of thousands, millions and billions.
+     * All scale words, including larger ones, are defined in the dictionary, see {@link Dictionary#getScaleWord}
      */
     public enum Word {
-        THOUSAND,
-        MILLION,
-        BILLION,
+        THOUSAND(1, Gender.FEMALE),
+        MILLION(2, Gender.MALE),
+        BILLION(3, Gender.MALE);
+
+        private final int scale;
+        private final Gender gender;
+
+        Word(int scale, @Nonnull Gender gender) {
+            this.scale = scale;
+            this.gender = gender;
+        }
+
+        /**
+         * Returns the scale of the word, the power of 1000
+         *
+         * @return scale
+         */
+        public int getScale() {
+            return scale;
+        }
+
+        /**
+         * Returns the gender with which the triad before the word agrees
+         *
+         * @return gender
+         */
+        @Nonnull
+        public Gender getGender() {
+            return gender;
+        }
     }
 
     /**
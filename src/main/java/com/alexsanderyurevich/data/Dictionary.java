@@ -0,0 +1,1214 @@
+package com.alexsanderyurevich.data;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.data.DeclineData.Word;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable snapshot of the declension dictionary.
+ * A dictionary is filled with {@link Builder} off to the side and published at once with {@link DeclineData#setDictionary}
+ */
+public final class Dictionary {
+    /**
+     * The largest scale a dictionary may define, 1000^100
+     */
+    public static final int MAX_SCALE = 100;
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final int CASES_COUNT = Cases.values().length;
+    private static final int GENDER_COUNT = Gender.values().length;
+    //Индексы массивов совпадают со значениями: цифры [1...9], числа [11...19], формы слов [1...9], разряды [1...]
+    private static final int DIGIT_COUNT = 10;
+    private static final int NUMBER_COUNT = 20;
+
+    //Смещения в numberFragments: единицы [unit][gender][cases], числа [number - 10][cases], десятки и сотни [value][cases]
+    private static final int NUMBERS = DIGIT_COUNT * GENDER_COUNT * CASES_COUNT;
+    private static final int DECADES = NUMBERS + DIGIT_COUNT * CASES_COUNT;
+    private static final int HUNDREDS = DECADES + DIGIT_COUNT * CASES_COUNT;
+    private static final int NUMBER_FRAGMENTS = HUNDREDS + DIGIT_COUNT * CASES_COUNT;
+    //Порядковые слова: 0...19, десятки 20...90, сотни 100...900
+    private static final int ORDINAL_COUNT = 37;
+    //FNV-1a, 64 бита
+    private static final long HASH_OFFSET = 0xcbf29ce484222325L;
+    private static final long HASH_PRIME = 0x100000001b3L;
+
+    private final long version;
+    //Все различные формы слов словаря, остальные массивы хранят номера фрагментов
+    private final FragmentArena fragments;
+    //Цифры без родовых форм записаны одинаково для всех родов
+    private final short[] numberFragments;
+    //Биты цифр с родовыми формами
+    private final int genderedUnits;
+    //[scale]
+    private final String[] scaleNames;
+    //[scale]
+    private final Gender[] scaleGenders;
+    //[scale]
+    private final String[] wordStems;
+    //[scale][forms][cases]
+    private final short[] wordEndFragments;
+    //[scale][forms][cases], основа вместе с окончанием
+    private final short[] wordFragments;
+    //[ordinal][gender][cases], пустой, если в словаре нет порядковых числительных
+    private final short[] ordinalFragments;
+    //[ordinal], слитная форма перед порядковым разрядом: "двух" в "двухтысячный"
+    private final short[] ordinalPrefixFragments;
+    //[scale][gender][cases]
+    private final short[] ordinalScaleFragments;
+    private final NounDictionary nouns;
+    private final Map<String, CurrencyWords> currencies;
+    private final int entryCount;
+    private final long contentHash;
+    private volatile TriadTable triadTable;
+    private volatile OrdinalTable ordinalTable;
+
+    private Dictionary(@Nonnull Builder builder, @Nonnull NounDictionary nouns) {
+        this.version = VERSIONS.incrementAndGet();
+        FragmentArena.Builder arena = new FragmentArena.Builder();
+        this.numberFragments = new short[NUMBER_FRAGMENTS];
+        int genderedUnits = 0;
+        int entryCount = 0;
+        for (int digit = 1; digit < DIGIT_COUNT; digit++) {
+            String[][] genders = builder.unitsWithGender[digit];
+            if (genders != null) {
+                genderedUnits |= 1 << digit;
+            }
+            for (int c = 0; c < CASES_COUNT; c++) {
+                for (int g = 0; g < GENDER_COUNT; g++) {
+                    String unit = genders != null ? genders[g][c] : builder.units[digit][c];
+                    numberFragments[(digit * GENDER_COUNT + g) * CASES_COUNT + c] = add(arena, unit);
+                    if (unit != null && (genders != null || g == 0)) {
+                        entryCount++;
+                    }
+                }
+                entryCount += addNumber(arena, NUMBERS + digit * CASES_COUNT + c, builder.numbers[10 + digit][c])
+                        + addNumber(arena, DECADES + digit * CASES_COUNT + c, builder.decades[digit][c])
+                        + addNumber(arena, HUNDREDS + digit * CASES_COUNT + c, builder.hundreds[digit][c]);
+            }
+        }
+        this.genderedUnits = genderedUnits;
+        int scaleCount = builder.getMaxScale() + 1;
+        this.scaleNames = Arrays.copyOf(builder.scaleNames, scaleCount);
+        this.scaleGenders = Arrays.copyOf(builder.scaleGenders, scaleCount);
+        this.wordStems = Arrays.copyOf(builder.wordStems, scaleCount);
+        this.wordEndFragments = new short[scaleCount * DIGIT_COUNT * CASES_COUNT];
+        this.wordFragments = new short[scaleCount * DIGIT_COUNT * CASES_COUNT];
+        for (int scale = 1; scale < scaleCount; scale++) {
+            String[][] ends = builder.wordEnds[scale];
+            for (int forms = 1; ends != null && forms < DIGIT_COUNT; forms++) {
+                for (int c = 0; c < CASES_COUNT; c++) {
+                    String end = ends[forms][c];
+                    if (end != null) {
+                        int slot = (scale * DIGIT_COUNT + forms) * CASES_COUNT + c;
+                        wordEndFragments[slot] = add(arena, end);
+                        wordFragments[slot] = add(arena, wordStems[scale] + end);
+                        entryCount++;
+                    }
+                }
+            }
+        }
+        boolean ordinals = builder.hasOrdinals();
+        this.ordinalFragments = new short[ordinals ? ORDINAL_COUNT * GENDER_COUNT * CASES_COUNT : 0];
+        this.ordinalPrefixFragments = new short[ordinals ? ORDINAL_COUNT : 0];
+        this.ordinalScaleFragments = new short[ordinals ? scaleCount * GENDER_COUNT * CASES_COUNT : 0];
+        for (int ordinal = 0; ordinals && ordinal < ORDINAL_COUNT; ordinal++) {
+            ordinalPrefixFragments[ordinal] = add(arena, builder.ordinalPrefixes[ordinal]);
+            entryCount += addOrdinal(arena, ordinalFragments, ordinal, builder.ordinals[ordinal]);
+        }
+        for (int scale = 1; ordinals && scale < scaleCount; scale++) {
+            String[][] forms = scale < builder.ordinalScales.length ? builder.ordinalScales[scale] : null;
+            entryCount += addOrdinal(arena, ordinalScaleFragments, scale, forms);
+        }
+        this.fragments = arena.build();
+        Map<String, CurrencyWords> currencies = new LinkedHashMap<>();
+        for (Map.Entry<String, CurrencyEntry> currency : builder.currencies.entrySet()) {
+            CurrencyEntry entry = currency.getValue();
+            currencies.put(currency.getKey(), new CurrencyWords(currency.getKey(),
+                    nouns.findNoun(entry.major), nouns.findNoun(entry.minor), entry.minorDigits));
+        }
+        this.nouns = nouns;
+        this.currencies = Collections.unmodifiableMap(currencies);
+        this.entryCount = entryCount + nouns.getNames().size() * (DIGIT_COUNT - 1) * CASES_COUNT + currencies.size();
+        this.contentHash = computeContentHash();
+    }
+
+    private Dictionary(@Nonnull ByteBuffer image) {
+        this.version = VERSIONS.incrementAndGet();
+        this.entryCount = image.getInt();
+        this.fragments = FragmentArena.read(image);
+        this.numberFragments = readFragments(image, NUMBER_FRAGMENTS);
+        this.genderedUnits = image.getInt();
+        int scaleCount = image.getInt();
+        if (scaleCount < 1 || scaleCount > MAX_SCALE + 1) {
+            throw new IllegalStateException("Invalid number of scales " + scaleCount);
+        }
+        this.scaleNames = new String[scaleCount];
+        this.scaleGenders = new Gender[scaleCount];
+        this.wordStems = new String[scaleCount];
+        for (int scale = 1; scale < scaleCount; scale++) {
+            scaleNames[scale] = readString(image);
+            scaleGenders[scale] = readGender(image);
+            wordStems[scale] = readString(image);
+        }
+        int words = scaleCount * DIGIT_COUNT * CASES_COUNT;
+        this.wordEndFragments = readFragments(image, words);
+        this.wordFragments = readFragments(image, words);
+        boolean ordinals = image.get() != 0;
+        this.ordinalFragments = readFragments(image, ordinals ? ORDINAL_COUNT * GENDER_COUNT * CASES_COUNT : 0);
+        this.ordinalPrefixFragments = readFragments(image, ordinals ? ORDINAL_COUNT : 0);
+        this.ordinalScaleFragments = readFragments(image, ordinals ? scaleCount * GENDER_COUNT * CASES_COUNT : 0);
+        NounDictionary.Builder nouns = new NounDictionary.Builder();
+        for (int count = image.getInt(); count > 0; count--) {
+            String name = readString(image);
+            Gender gender = readGender(image);
+            String stem = readString(image);
+            for (int forms = 1; forms < DIGIT_COUNT; forms++) {
+                for (Cases caseType : Cases.values()) {
+                    String end = readString(image);
+                    if (end != null) {
+                        nouns.addNoun(name, gender, stem, forms, caseType, end);
+                    }
+                }
+            }
+        }
+        this.nouns = nouns.buildPartial();
+        Map<String, CurrencyWords> currencies = new LinkedHashMap<>();
+        for (int count = image.getInt(); count > 0; count--) {
+            String code = readString(image);
+            Noun major = this.nouns.findNoun(readString(image));
+            Noun minor = this.nouns.findNoun(readString(image));
+            currencies.put(code, new CurrencyWords(code, major, minor, image.getInt()));
+        }
+        this.currencies = Collections.unmodifiableMap(currencies);
+        this.contentHash = computeContentHash();
+    }
+
+    /**
+     * Reads the dictionary from an image written by {@link #writeImage}.
+     * The fragments remain in the image, other parts are read to the heap
+     *
+     * @param image image, the position is moved past the dictionary
+     * @return the dictionary
+     * @throws IllegalStateException if the image is corrupt
+     */
+    @Nonnull
+    static Dictionary readImage(@Nonnull ByteBuffer image) {
+        return new Dictionary(image);
+    }
+
+    /**
+     * Writes the dictionary image: the fragments and the references to them, names, nouns and currencies
+     *
+     * @param output image
+     * @throws IOException if the image can not be written
+     */
+    void writeImage(@Nonnull DataOutputStream output) throws IOException {
+        output.writeInt(entryCount);
+        fragments.write(output);
+        writeFragments(output, numberFragments);
+        output.writeInt(genderedUnits);
+        output.writeInt(scaleNames.length);
+        for (int scale = 1; scale < scaleNames.length; scale++) {
+            writeString(output, scaleNames[scale]);
+            writeGender(output, scaleGenders[scale]);
+            writeString(output, wordStems[scale]);
+        }
+        writeFragments(output, wordEndFragments);
+        writeFragments(output, wordFragments);
+        output.writeBoolean(hasOrdinals());
+        writeFragments(output, ordinalFragments);
+        writeFragments(output, ordinalPrefixFragments);
+        writeFragments(output, ordinalScaleFragments);
+        output.writeInt(nouns.getNames().size());
+        for (Noun noun : nouns.getNouns()) {
+            writeString(output, noun.getName());
+            writeGender(output, noun.getGender());
+            writeString(output, noun.getStem());
+            for (int forms = 1; forms < DIGIT_COUNT; forms++) {
+                for (Cases caseType : Cases.values()) {
+                    writeString(output, noun.getEnd(forms, caseType));
+                }
+            }
+        }
+        output.writeInt(currencies.size());
+        for (CurrencyWords currency : currencies.values()) {
+            writeString(output, currency.getCode());
+            writeString(output, currency.getMajor().getName());
+            writeString(output, currency.getMinor().getName());
+            output.writeInt(currency.getMinorDigits());
+        }
+    }
+
+    /**
+     * Returns the version of the dictionary, unique for every built dictionary
+     *
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the hash of the number words of the dictionary. Unlike {@link #getVersion()}, dictionaries with the same
+     * words have the same hash in any process, so the hash identifies conversion results across restarts
+     *
+     * @return hash of the number and ordinal words
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Returns the number of entries of the dictionary: declensions of numbers, ordinals, scale words and nouns, and currencies
+     *
+     * @return the number of entries
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Returns a string representation for units
+     *
+     * @param unit     unit [1...9]
+     * @param caseType case type
+     * @param gender   gender
+     * @return a string representation for unit
+     */
+    public String getStringUnit(int unit, @Nonnull Cases caseType, @Nonnull Gender gender) {
+        if (unit < 1 || unit > 9) {
+            throw new IllegalArgumentException();
+        }
+        return fragments.get(getUnitFragment(unit, caseType, gender));
+    }
+
+    /**
+     * Returns a string representation for decades
+     *
+     * @param decade   decade [1...9] or number [11...19]
+     * @param caseType case type
+     * @return a string representation for decades
+     */
+    public String getStringDecade(int decade, @Nonnull Cases caseType) {
+        return fragments.get(getDecadeFragment(decade, caseType));
+    }
+
+    /**
+     * Returns a string representation for hundreds
+     *
+     * @param hundred  hundred [1...9]
+     * @param caseType case type
+     * @return a string representation for hundreds
+     */
+    public String getStringHundred(int hundred, @Nonnull Cases caseType) {
+        return fragments.get(getHundredFragment(hundred, caseType));
+    }
+
+    /**
+     * Returns the word in the desired declension
+     *
+     * @param word     word
+     * @param caseType case type
+     * @param forms    forms [0...9], 0 is the same as 1
+     * @return the word in the desired declension
+     */
+    public String getWord(@Nonnull Word word, @Nonnull Cases caseType, int forms) {
+        requireNonNull(word, "word");
+        return getScaleWord(word.getScale(), caseType, forms);
+    }
+
+    /**
+     * Returns the largest scale defined in the dictionary.
+     * The dictionary spells numbers below 1000^(max scale + 1)
+     *
+     * @return the largest scale, 0 if the dictionary has no scale words
+     */
+    public int getMaxScale() {
+        return scaleNames.length - 1;
+    }
+
+    /**
+     * Returns the name of the scale, e.g. {@code TRILLION}
+     *
+     * @param scale scale [1...max scale]
+     * @return the name
+     */
+    public String getScaleName(int scale) {
+        checkScale(scale);
+        return scaleNames[scale];
+    }
+
+    /**
+     * Returns the gender with which the triad before the scale word agrees
+     *
+     * @param scale scale [1...max scale]
+     * @return gender
+     */
+    public Gender getScaleGender(int scale) {
+        checkScale(scale);
+        return scaleGenders[scale];
+    }
+
+    /**
+     * Returns the scale word in the desired declension
+     *
+     * @param scale    scale [1...max scale], the power of 1000
+     * @param caseType case type
+     * @param forms    forms [0...9], 0 is the same as 1
+     * @return the word in the desired declension
+     */
+    public String getScaleWord(int scale, @Nonnull Cases caseType, int forms) {
+        if (forms < 0 || forms > 9) {
+            throw new IllegalArgumentException();
+        }
+        checkScale(scale);
+        requireNonNull(caseType, "caseType");
+        if (forms == 0) {
+            forms = 1;
+        }
+        return fragments.get(wordFragments[(scale * DIGIT_COUNT + forms) * CASES_COUNT + caseType.ordinal()]);
+    }
+
+    /**
+     * Returns the number of distinct word forms and word ends the dictionary stores
+     *
+     * @return the number of fragments
+     */
+    public int getFragmentCount() {
+        return fragments.getCount();
+    }
+
+    /**
+     * Checks whether the dictionary defines ordinal numerals
+     *
+     * @return {@code true} if the dictionary spells ordinals
+     */
+    public boolean hasOrdinals() {
+        return ordinalFragments.length > 0;
+    }
+
+    /**
+     * Returns the ordinal word in the desired declension, e.g. "пятого"
+     *
+     * @param number   number [0...19], decade [20, 30...90] or hundred [100, 200...900]
+     * @param caseType case type
+     * @param gender   gender
+     * @return the ordinal word or {@code null} if the dictionary has no ordinals
+     */
+    public String getOrdinal(int number, @Nonnull Cases caseType, @Nonnull Gender gender) {
+        int ordinal = getOrdinalIndex(number);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException();
+        }
+        requireNonNull(caseType, "caseType");
+        requireNonNull(gender, "gender");
+        if (!hasOrdinals()) {
+            return null;
+        }
+        return fragments.get(ordinalFragments[(ordinal * GENDER_COUNT + gender.ordinal()) * CASES_COUNT + caseType.ordinal()]);
+    }
+
+    /**
+     * Returns the form of the number joined to an ordinal scale word, e.g. "двух" in "двухтысячный"
+     *
+     * @param number number [1...19], decade [20, 30...90] or hundred [100, 200...900]
+     * @return the prefix or {@code null} if the dictionary has no ordinals
+     */
+    public String getOrdinalPrefix(int number) {
+        int ordinal = getOrdinalIndex(number);
+        if (ordinal < 1) {
+            throw new IllegalArgumentException();
+        }
+        return hasOrdinals() ? fragments.get(ordinalPrefixFragments[ordinal]) : null;
+    }
+
+    /**
+     * Returns the ordinal scale word in the desired declension, e.g. "тысячного"
+     *
+     * @param scale    scale [1...max scale]
+     * @param caseType case type
+     * @param gender   gender
+     * @return the ordinal word or {@code null} if the dictionary has no ordinals
+     */
+    public String getOrdinalScale(int scale, @Nonnull Cases caseType, @Nonnull Gender gender) {
+        checkScale(scale);
+        requireNonNull(caseType, "caseType");
+        requireNonNull(gender, "gender");
+        if (!hasOrdinals()) {
+            return null;
+        }
+        return fragments.get(ordinalScaleFragments[(scale * GENDER_COUNT + gender.ordinal()) * CASES_COUNT + caseType.ordinal()]);
+    }
+
+    /**
+     * Returns the noun
+     *
+     * @param name name of the noun, e.g. {@code RUBLE}
+     * @return the noun
+     * @throws IllegalArgumentException if the dictionary has no such noun
+     */
+    @Nonnull
+    public Noun getNoun(@Nonnull String name) {
+        return nouns.getNoun(name);
+    }
+
+    /**
+     * Returns the names of all nouns in the order of the dictionary
+     *
+     * @return names
+     */
+    @Nonnull
+    public Set<String> getNounNames() {
+        return nouns.getNames();
+    }
+
+    /**
+     * Returns the nouns of the dictionary
+     *
+     * @return nouns
+     */
+    @Nonnull
+    public NounDictionary getNouns() {
+        return nouns;
+    }
+
+    /**
+     * Returns the nouns of the currency
+     *
+     * @param code code of the currency, e.g. {@code RUB}
+     * @return the nouns of the currency
+     * @throws IllegalArgumentException if the dictionary has no such currency
+     */
+    @Nonnull
+    public CurrencyWords getCurrency(@Nonnull String code) {
+        requireNonNull(code, "code");
+        CurrencyWords currency = currencies.get(code);
+        if (currency == null) {
+            throw new IllegalArgumentException("Unknown currency " + code);
+        }
+        return currency;
+    }
+
+    /**
+     * Returns the codes of all currencies in the order of the dictionary
+     *
+     * @return codes
+     */
+    @Nonnull
+    public Set<String> getCurrencyCodes() {
+        return currencies.keySet();
+    }
+
+    /**
+     * Returns the table of all triads spelled with this dictionary.
+     * The table is built on first use, {@link DeclineData#setDictionary} builds it before publishing the dictionary
+     *
+     * @return the table
+     */
+    @Nonnull
+    public TriadTable getTriadTable() {
+        TriadTable table = triadTable;
+        if (table == null) {
+            //Таблица неизменяема, поэтому повторное построение в гонке безопасно и не требует блокировок
+            table = TriadTable.build(this);
+            triadTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Returns the table of ordinals of all triads spelled with this dictionary.
+     * The table is built on first use, {@link DeclineData#setDictionary} builds it before publishing the dictionary
+     *
+     * @return the table
+     * @throws IllegalStateException if the dictionary has no ordinals
+     */
+    @Nonnull
+    public OrdinalTable getOrdinalTable() {
+        if (!hasOrdinals()) {
+            throw new IllegalStateException("The dictionary has no ordinals");
+        }
+        OrdinalTable table = ordinalTable;
+        if (table == null) {
+            table = OrdinalTable.build(this);
+            ordinalTable = table;
+        }
+        return table;
+    }
+
+    @Nonnull
+    FragmentArena getFragments() {
+        return fragments;
+    }
+
+    int getUnitFragment(int unit, @Nonnull Cases caseType, @Nonnull Gender gender) {
+        if (unit < 1 || unit > 9) {
+            throw new IllegalArgumentException();
+        }
+        requireNonNull(caseType, "caseType");
+        requireNonNull(gender, "gender");
+        return numberFragments[(unit * GENDER_COUNT + gender.ordinal()) * CASES_COUNT + caseType.ordinal()];
+    }
+
+    int getDecadeFragment(int decade, @Nonnull Cases caseType) {
+        requireNonNull(caseType, "caseType");
+        if (decade > 10 && decade < 20) {
+            return numberFragments[NUMBERS + (decade - 10) * CASES_COUNT + caseType.ordinal()];
+        }
+        if (decade < 1 || decade > 9) {
+            throw new IllegalArgumentException();
+        }
+        return numberFragments[DECADES + decade * CASES_COUNT + caseType.ordinal()];
+    }
+
+    int getHundredFragment(int hundred, @Nonnull Cases caseType) {
+        if (hundred < 1 || hundred > 9) {
+            throw new IllegalArgumentException();
+        }
+        requireNonNull(caseType, "caseType");
+        return numberFragments[HUNDREDS + hundred * CASES_COUNT + caseType.ordinal()];
+    }
+
+    @Nonnull
+    Builder toBuilder() {
+        Builder builder = new Builder();
+        for (int digit = 1; digit < DIGIT_COUNT; digit++) {
+            if ((genderedUnits & 1 << digit) != 0) {
+                builder.unitsWithGender[digit] = new String[GENDER_COUNT][CASES_COUNT];
+            }
+            for (int c = 0; c < CASES_COUNT; c++) {
+                for (int g = 0; g < GENDER_COUNT; g++) {
+                    String unit = fragments.get(numberFragments[(digit * GENDER_COUNT + g) * CASES_COUNT + c]);
+                    if (builder.unitsWithGender[digit] != null) {
+                        builder.unitsWithGender[digit][g][c] = unit;
+                    } else {
+                        builder.units[digit][c] = unit;
+                    }
+                }
+                builder.numbers[10 + digit][c] = fragments.get(numberFragments[NUMBERS + digit * CASES_COUNT + c]);
+                builder.decades[digit][c] = fragments.get(numberFragments[DECADES + digit * CASES_COUNT + c]);
+                builder.hundreds[digit][c] = fragments.get(numberFragments[HUNDREDS + digit * CASES_COUNT + c]);
+            }
+        }
+        builder.scaleNames = scaleNames.clone();
+        builder.scaleGenders = scaleGenders.clone();
+        builder.wordStems = wordStems.clone();
+        builder.wordEnds = new String[scaleNames.length][][];
+        for (int scale = 1; scale < scaleNames.length; scale++) {
+            if (wordStems[scale] == null) continue;
+            builder.wordEnds[scale] = new String[DIGIT_COUNT][CASES_COUNT];
+            for (int forms = 1; forms < DIGIT_COUNT; forms++) {
+                for (int c = 0; c < CASES_COUNT; c++) {
+                    builder.wordEnds[scale][forms][c] =
+                            fragments.get(wordEndFragments[(scale * DIGIT_COUNT + forms) * CASES_COUNT + c]);
+                }
+            }
+        }
+        for (int ordinal = 0; hasOrdinals() && ordinal < ORDINAL_COUNT; ordinal++) {
+            builder.ordinalPrefixes[ordinal] = fragments.get(ordinalPrefixFragments[ordinal]);
+            builder.ordinals[ordinal] = getOrdinalForms(ordinalFragments, ordinal);
+        }
+        builder.ordinalScales = new String[scaleNames.length][][];
+        for (int scale = 1; hasOrdinals() && scale < scaleNames.length; scale++) {
+            builder.ordinalScales[scale] = getOrdinalForms(ordinalScaleFragments, scale);
+        }
+        builder.nouns.addNouns(nouns);
+        for (CurrencyWords currency : currencies.values()) {
+            builder.addCurrency(currency.getCode(), currency.getMajor().getName(), currency.getMinor().getName(),
+                    currency.getMinorDigits());
+        }
+        return builder;
+    }
+
+    private void checkScale(int scale) {
+        if (scale < 1 || scale >= scaleNames.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    //Возвращает 1, если форма есть, для подсчета записей словаря
+    private int addNumber(@Nonnull FragmentArena.Builder arena, int slot, String value) {
+        numberFragments[slot] = add(arena, value);
+        return value == null ? 0 : 1;
+    }
+
+    //[gender][cases] в срез [index][gender][cases], возвращает число форм
+    private static int addOrdinal(@Nonnull FragmentArena.Builder arena, @Nonnull short[] destination, int index,
+                                  String[][] forms) {
+        int count = 0;
+        for (int g = 0; forms != null && g < GENDER_COUNT; g++) {
+            for (int c = 0; c < CASES_COUNT; c++) {
+                destination[(index * GENDER_COUNT + g) * CASES_COUNT + c] = add(arena, forms[g][c]);
+                count += forms[g][c] == null ? 0 : 1;
+            }
+        }
+        return count;
+    }
+
+    @Nonnull
+    private String[][] getOrdinalForms(@Nonnull short[] source, int index) {
+        String[][] forms = new String[GENDER_COUNT][CASES_COUNT];
+        for (int g = 0; g < GENDER_COUNT; g++) {
+            for (int c = 0; c < CASES_COUNT; c++) {
+                forms[g][c] = fragments.get(source[(index * GENDER_COUNT + g) * CASES_COUNT + c]);
+            }
+        }
+        return forms;
+    }
+
+    //Номер порядкового слова или -1
+    private static int getOrdinalIndex(int number) {
+        if (number >= 0 && number < NUMBER_COUNT) {
+            return number;
+        }
+        if (number >= 20 && number < 100 && number % 10 == 0) {
+            return 18 + number / 10;
+        }
+        if (number >= 100 && number < 1000 && number % 100 == 0) {
+            return 27 + number / 100;
+        }
+        return -1;
+    }
+
+    //Хэш фрагментов и ссылок на них, от которых зависит запись чисел
+    private long computeContentHash() {
+        long hash = HASH_OFFSET;
+        for (int fragment = 1; fragment <= fragments.getCount(); fragment++) {
+            int length = fragments.getLength(fragment);
+            hash = hash(hash, length);
+            for (int i = 0; i < length; i++) {
+                hash = hash(hash, fragments.getChar(fragment, i));
+            }
+        }
+        hash = hash(hash, genderedUnits);
+        for (Gender gender : scaleGenders) {
+            hash = hash(hash, gender == null ? -1 : gender.ordinal());
+        }
+        for (short[] references : new short[][]{numberFragments, wordEndFragments, wordFragments,
+                ordinalFragments, ordinalPrefixFragments, ordinalScaleFragments}) {
+            hash = hash(hash, references.length);
+            for (short reference : references) {
+                hash = hash(hash, reference);
+            }
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * HASH_PRIME;
+        }
+        return hash;
+    }
+
+    //Ссылки на фрагменты: длина и номера
+    private static void writeFragments(@Nonnull DataOutputStream output, @Nonnull short[] references) throws IOException {
+        output.writeInt(references.length);
+        for (short reference : references) {
+            output.writeShort(reference);
+        }
+    }
+
+    @Nonnull
+    private short[] readFragments(@Nonnull ByteBuffer image, int length) {
+        if (image.getInt() != length) {
+            throw new IllegalStateException("Invalid number of references, expected " + length);
+        }
+        short[] references = new short[length];
+        for (int i = 0; i < length; i++) {
+            references[i] = image.getShort();
+            if (references[i] < 0 || references[i] > fragments.getCount()) {
+                throw new IllegalStateException("Invalid fragment " + references[i]);
+            }
+        }
+        return references;
+    }
+
+    //Строка: длина или -1 для null и символы
+    private static void writeString(@Nonnull DataOutputStream output, @Nullable String value) throws IOException {
+        output.writeInt(value == null ? -1 : value.length());
+        if (value != null) {
+            output.writeChars(value);
+        }
+    }
+
+    @Nullable
+    private static String readString(@Nonnull ByteBuffer image) {
+        int length = image.getInt();
+        if (length < -1 || length > image.remaining() / Character.BYTES) {
+            throw new IllegalStateException("Invalid string length " + length);
+        }
+        if (length < 0) {
+            return null;
+        }
+        char[] value = new char[length];
+        image.asCharBuffer().get(value);
+        image.position(image.position() + length * Character.BYTES);
+        return new String(value);
+    }
+
+    private static void writeGender(@Nonnull DataOutputStream output, @Nullable Gender gender) throws IOException {
+        output.writeByte(gender == null ? -1 : gender.ordinal());
+    }
+
+    @Nullable
+    private static Gender readGender(@Nonnull ByteBuffer image) {
+        int gender = image.get();
+        if (gender < -1 || gender >= GENDER_COUNT) {
+            throw new IllegalStateException("Invalid gender " + gender);
+        }
+        return gender < 0 ? null : Gender.values()[gender];
+    }
+
+    private static short add(@Nonnull FragmentArena.Builder arena, String fragment) {
+        return (short) arena.add(fragment);
+    }
+
+    private static final class CurrencyEntry {
+        private final String major;
+        private final String minor;
+        private final int minorDigits;
+
+        private CurrencyEntry(@Nonnull String major, @Nonnull String minor, int minorDigits) {
+            this.major = major;
+            this.minor = minor;
+            this.minorDigits = minorDigits;
+        }
+    }
+
+    /**
+     * Builder of dictionary, not thread-safe
+     */
+    public static final class Builder {
+        private String[][][] unitsWithGender = new String[DIGIT_COUNT][][];
+        private String[][] units = new String[DIGIT_COUNT][CASES_COUNT];
+        private String[][] numbers = new String[NUMBER_COUNT][CASES_COUNT];
+        private String[][] decades = new String[DIGIT_COUNT][CASES_COUNT];
+        private String[][] hundreds = new String[DIGIT_COUNT][CASES_COUNT];
+        private String[] scaleNames = new String[1];
+        private Gender[] scaleGenders = new Gender[1];
+        private String[] wordStems = new String[1];
+        private String[][][] wordEnds = new String[1][][];
+        private final String[][][] ordinals = new String[ORDINAL_COUNT][][];
+        private final String[] ordinalPrefixes = new String[ORDINAL_COUNT];
+        private String[][][] ordinalScales = new String[1][][];
+        private final NounDictionary.Builder nouns = new NounDictionary.Builder();
+        private final Map<String, CurrencyEntry> currencies = new LinkedHashMap<>();
+
+        /**
+         * Added word to container.
+         * If the scale of the word is not added yet, it is added with the name and the gender of the word
+         *
+         * @param wordType wordType
+         * @param word     word stem
+         * @param number   the last digit of the number agreeing with the word end [1...9]
+         * @param caseType caseType
+         * @param wordEnd  word end
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addWord(@Nonnull Word wordType, @Nonnull String word, int number, @Nonnull Cases caseType,
+                               @Nonnull String wordEnd) {
+            requireNonNull(wordType, "wordType");
+            int scale = wordType.getScale();
+            ensureScale(scale);
+            if (scaleNames[scale] == null) {
+                addScale(scale, wordType.name(), wordType.getGender());
+            }
+            return addWord(scale, word, number, caseType, wordEnd);
+        }
+
+        /**
+         * Adds a scale
+         *
+         * @param scale  scale [1...100], the power of 1000
+         * @param name   name of the scale, e.g. {@code TRILLION}
+         * @param gender the gender with which the triad before the scale word agrees
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addScale(int scale, @Nonnull String name, @Nonnull Gender gender) {
+            requireNonNull(name, "name");
+            requireNonNull(gender, "gender");
+            ensureScale(scale);
+            scaleNames[scale] = name;
+            scaleGenders[scale] = gender;
+            return this;
+        }
+
+        /**
+         * Adds the scale word
+         *
+         * @param scale    scale [1...100], the power of 1000
+         * @param word     word stem
+         * @param number   the last digit of the number agreeing with the word end [1...9]
+         * @param caseType caseType
+         * @param wordEnd  word end
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addWord(int scale, @Nonnull String word, int number, @Nonnull Cases caseType,
+                               @Nonnull String wordEnd) {
+            requireNonNull(word, "word");
+            requireNonNull(caseType, "caseType");
+            requireNonNull(wordEnd, "wordEnd");
+            checkDigit(number);
+            ensureScale(scale);
+            if (wordEnds[scale] == null) {
+                wordEnds[scale] = new String[DIGIT_COUNT][CASES_COUNT];
+            }
+            wordStems[scale] = word;
+            wordEnds[scale][number][caseType.ordinal()] = wordEnd;
+            return this;
+        }
+
+        /**
+         * Adds the noun agreeing with numbers
+         *
+         * @param name     name of the noun, e.g. {@code RUBLE}
+         * @param gender   the gender with which the number before the noun agrees
+         * @param word     word stem
+         * @param number   the last digit of the number agreeing with the word end [1...9]
+         * @param caseType caseType
+         * @param wordEnd  word end
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addNoun(@Nonnull String name, @Nonnull Gender gender, @Nonnull String word, int number,
+                               @Nonnull Cases caseType, @Nonnull String wordEnd) {
+            nouns.addNoun(name, gender, word, number, caseType, wordEnd);
+            return this;
+        }
+
+        /**
+         * Adds all nouns of the noun dictionary
+         *
+         * @param dictionary noun dictionary
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addNouns(@Nonnull NounDictionary dictionary) {
+            nouns.addNouns(dictionary);
+            return this;
+        }
+
+        /**
+         * Adds the currency
+         *
+         * @param code        code of the currency, e.g. {@code RUB}
+         * @param major       name of the noun of the major unit
+         * @param minor       name of the noun of the minor unit
+         * @param minorDigits the number of decimal digits of the minor unit [1...9]
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addCurrency(@Nonnull String code, @Nonnull String major, @Nonnull String minor, int minorDigits) {
+            requireNonNull(code, "code");
+            requireNonNull(major, "major");
+            requireNonNull(minor, "minor");
+            checkDigit(minorDigits);
+            currencies.put(code, new CurrencyEntry(major, minor, minorDigits));
+            return this;
+        }
+
+        /**
+         * Added decade to container
+         *
+         * @param decade      decades [1,2...,9]
+         * @param caseType    caseType
+         * @param declineWord word
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addDecade(int decade, @Nonnull Cases caseType, @Nonnull String declineWord) {
+            requireNonNull(declineWord, "declineWord");
+            requireNonNull(caseType, "caseType");
+            checkDigit(decade);
+            decades[decade][caseType.ordinal()] = declineWord;
+            return this;
+        }
+
+        /**
+         * Added hundred to container
+         *
+         * @param hundred     hundred [1,2...,9]
+         * @param caseType    caseType
+         * @param declineWord word
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addHundred(int hundred, @Nonnull Cases caseType, @Nonnull String declineWord) {
+            requireNonNull(caseType, "caseType");
+            requireNonNull(declineWord, "declineWord");
+            checkDigit(hundred);
+            hundreds[hundred][caseType.ordinal()] = declineWord;
+            return this;
+        }
+
+        /**
+         * Adds numbers with different cases in different faces
+         *
+         * @param digit        digit [1...9]
+         * @param gender       gender
+         * @param caseType     caseType
+         * @param declineDigit decline digit
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addDigitWithGender(int digit, @Nonnull Gender gender, @Nonnull Cases caseType,
+                                          @Nonnull String declineDigit) {
+            requireNonNull(gender, "gender");
+            requireNonNull(caseType, "caseType");
+            requireNonNull(declineDigit, "declineDigit");
+            checkDigit(digit);
+            if (unitsWithGender[digit] == null) {
+                unitsWithGender[digit] = new String[GENDER_COUNT][CASES_COUNT];
+            }
+            unitsWithGender[digit][gender.ordinal()][caseType.ordinal()] = declineDigit;
+            return this;
+        }
+
+        /**
+         * Added digit to container
+         *
+         * @param digit        digit [1...9]
+         * @param caseType     caseType
+         * @param declineDigit decline digit
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addDigits(int digit, @Nonnull Cases caseType, @Nonnull String declineDigit) {
+            requireNonNull(caseType, "caseType");
+            requireNonNull(declineDigit, "declineDigit");
+            checkDigit(digit);
+            units[digit][caseType.ordinal()] = declineDigit;
+            return this;
+        }
+
+        /**
+         * Added number to container
+         *
+         * @param number       number [11...19]
+         * @param caseType     caseType
+         * @param declineDigit decline number
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addNumber(int number, @Nonnull Cases caseType, @Nonnull String declineDigit) {
+            requireNonNull(caseType, "caseType");
+            requireNonNull(declineDigit, "declineDigit");
+            if (number < 11 || number > 19) {
+                throw new IllegalArgumentException("The number must be in range [11;19]: " + number);
+            }
+            numbers[number][caseType.ordinal()] = declineDigit;
+            return this;
+        }
+
+        /**
+         * Adds the ordinal word
+         *
+         * @param number   number [0...19], decade [20, 30...90] or hundred [100, 200...900]
+         * @param gender   gender
+         * @param caseType caseType
+         * @param ordinal  ordinal word, e.g. "пятого"
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addOrdinal(int number, @Nonnull Gender gender, @Nonnull Cases caseType, @Nonnull String ordinal) {
+            requireNonNull(gender, "gender");
+            requireNonNull(caseType, "caseType");
+            requireNonNull(ordinal, "ordinal");
+            int index = getOrdinalIndex(number);
+            if (index < 0) {
+                throw new IllegalArgumentException("Not an ordinal number: " + number);
+            }
+            if (ordinals[index] == null) {
+                ordinals[index] = new String[GENDER_COUNT][CASES_COUNT];
+            }
+            ordinals[index][gender.ordinal()][caseType.ordinal()] = ordinal;
+            return this;
+        }
+
+        /**
+         * Adds the form of the number joined to an ordinal scale word
+         *
+         * @param number number [1...19], decade [20, 30...90] or hundred [100, 200...900]
+         * @param prefix prefix, e.g. "двух" for "двухтысячный"
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addOrdinalPrefix(int number, @Nonnull String prefix) {
+            requireNonNull(prefix, "prefix");
+            int index = getOrdinalIndex(number);
+            if (index < 1) {
+                throw new IllegalArgumentException("Not an ordinal prefix number: " + number);
+            }
+            ordinalPrefixes[index] = prefix;
+            return this;
+        }
+
+        /**
+         * Adds the ordinal scale word
+         *
+         * @param scale    scale [1...100], the power of 1000
+         * @param gender   gender
+         * @param caseType caseType
+         * @param ordinal  ordinal word, e.g. "тысячного"
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addOrdinalScale(int scale, @Nonnull Gender gender, @Nonnull Cases caseType,
+                                       @Nonnull String ordinal) {
+            requireNonNull(gender, "gender");
+            requireNonNull(caseType, "caseType");
+            requireNonNull(ordinal, "ordinal");
+            ensureScale(scale);
+            if (ordinalScales[scale] == null) {
+                ordinalScales[scale] = new String[GENDER_COUNT][CASES_COUNT];
+            }
+            ordinalScales[scale][gender.ordinal()][caseType.ordinal()] = ordinal;
+            return this;
+        }
+
+        /**
+         * Builds the dictionary
+         *
+         * @return the dictionary
+         * @throws IllegalStateException if some declension is missing
+         */
+        @Nonnull
+        public Dictionary build() {
+            for (Cases caseType : Cases.values()) {
+                int c = caseType.ordinal();
+                for (int i = 1; i < DIGIT_COUNT; i++) {
+                    if (unitsWithGender[i] != null) {
+                        for (Gender gender : Gender.values()) {
+                            checkPresent(unitsWithGender[i][gender.ordinal()][c], "digit", i, gender + " " + caseType);
+                        }
+                    } else {
+                        checkPresent(units[i][c], "digit", i, caseType.name());
+                    }
+                    checkPresent(numbers[10 + i][c], "number", 10 + i, caseType.name());
+                    checkPresent(decades[i][c], "decade", i, caseType.name());
+                    checkPresent(hundreds[i][c], "hundred", i, caseType.name());
+                }
+            }
+            int maxScale = getMaxScale();
+            for (int scale = 1; scale <= maxScale; scale++) {
+                if (scaleNames[scale] == null || wordEnds[scale] == null) {
+                    throw new IllegalStateException("Missing scale " + scale);
+                }
+                for (Cases caseType : Cases.values()) {
+                    for (int i = 1; i < DIGIT_COUNT; i++) {
+                        checkPresent(wordEnds[scale][i][caseType.ordinal()], scaleNames[scale], i, caseType.name());
+                    }
+                }
+            }
+            if (hasOrdinals()) {
+                checkOrdinals(maxScale);
+            }
+            NounDictionary nounDictionary = nouns.build();
+            for (Map.Entry<String, CurrencyEntry> currency : currencies.entrySet()) {
+                CurrencyEntry entry = currency.getValue();
+                if (!nouns.hasNoun(entry.major) || !nouns.hasNoun(entry.minor)) {
+                    throw new IllegalStateException("Missing nouns " + entry.major + ", " + entry.minor
+                            + " of currency " + currency.getKey());
+                }
+            }
+            return new Dictionary(this, nounDictionary);
+        }
+
+        /**
+         * Builds the dictionary even if some declensions are missing
+         *
+         * @return the dictionary
+         */
+        @Nonnull
+        Dictionary buildPartial() {
+            return new Dictionary(this, nouns.buildPartial());
+        }
+
+        //Порядковые числительные необязательны, но если они есть, то все
+        private void checkOrdinals(int maxScale) {
+            for (int number = 0; number < 1000; number++) {
+                int index = getOrdinalIndex(number);
+                if (index < 0) continue;
+                for (Gender gender : Gender.values()) {
+                    for (Cases caseType : Cases.values()) {
+                        checkPresent(ordinals[index] == null ? null : ordinals[index][gender.ordinal()][caseType.ordinal()],
+                                "ordinal", number, gender + " " + caseType);
+                    }
+                }
+                if (index > 0 && ordinalPrefixes[index] == null) {
+                    throw new IllegalStateException("Missing prefix of ordinal " + number);
+                }
+            }
+            for (int scale = 1; scale <= maxScale; scale++) {
+                for (Gender gender : Gender.values()) {
+                    for (Cases caseType : Cases.values()) {
+                        String[][] forms = scale < ordinalScales.length ? ordinalScales[scale] : null;
+                        checkPresent(forms == null ? null : forms[gender.ordinal()][caseType.ordinal()],
+                                "ordinal " + scaleNames[scale], scale, gender + " " + caseType);
+                    }
+                }
+            }
+        }
+
+        private boolean hasOrdinals() {
+            for (String[][] forms : ordinals) {
+                if (forms != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int getMaxScale() {
+            int maxScale = scaleNames.length - 1;
+            while (maxScale > 0 && scaleNames[maxScale] == null && wordStems[maxScale] == null) {
+                maxScale--;
+            }
+            return maxScale;
+        }
+
+        private void ensureScale(int scale) {
+            if (scale < 1 || scale > MAX_SCALE) {
+                throw new IllegalArgumentException("The scale must be in range [1;" + MAX_SCALE + "]: " + scale);
+            }
+            if (scale >= scaleNames.length) {
+                scaleNames = Arrays.copyOf(scaleNames, scale + 1);
+                scaleGenders = Arrays.copyOf(scaleGenders, scale + 1);
+                wordStems = Arrays.copyOf(wordStems, scale + 1);
+                wordEnds = Arrays.copyOf(wordEnds, scale + 1);
+            }
+            if (scale >= ordinalScales.length) {
+                ordinalScales = Arrays.copyOf(ordinalScales, scale + 1);
+            }
+        }
+
+        private static void checkDigit(int digit) {
+            if (digit < 1 || digit > 9) {
+                throw new IllegalArgumentException("The digit must be in range [1;9]: " + digit);
+            }
+        }
+
+        private static void checkPresent(String value, @Nonnull String kind, int number, @Nonnull String form) {
+            if (value == null) {
+                throw new IllegalStateException("Missing declension of " + kind + " " + number + " " + form);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.alexsanderyurevich.data;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Binary image of a dictionary. The image is read without parsing and validating XML, and the word fragments are
+ * not copied: the dictionary reads them from the image buffer. Names, nouns and currencies are copied,
+ * and the triad and ordinal tables are built from the image as from any other dictionary, so the image speeds up
+ * the load but is not shared memory.
+ * The image starts with {@link #MAGIC}, {@link #FORMAT_VERSION}, {@link Dictionary#getContentHash()},
+ * the length and the CRC32 of the rest of the image. Both the CRC and the hash are checked while reading
+ */
+public final class DictionaryImage {
+    /**
+     * The first 4 bytes of an image, "DCLB"
+     */
+    public static final int MAGIC = 0x44434C42;
+    public static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 2 + Integer.BYTES;
+
+    private DictionaryImage() {
+    }
+
+    /**
+     * Writes the image of the dictionary
+     *
+     * @param dictionary dictionary
+     * @param output     stream, is not closed
+     * @throws IOException if the stream fails
+     */
+    public static void write(@Nonnull Dictionary dictionary, @Nonnull OutputStream output) throws IOException {
+        requireNonNull(dictionary, "dictionary");
+        requireNonNull(output, "output");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        dictionary.writeImage(new DataOutputStream(body));
+        CRC32 crc = new CRC32();
+        crc.update(body.toByteArray());
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeLong(dictionary.getContentHash());
+        data.writeLong(crc.getValue());
+        data.writeInt(body.size());
+        body.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Checks whether the buffer starts with an image
+     *
+     * @param image buffer, the position is not changed
+     * @return {@code true} if the buffer starts with {@link #MAGIC}
+     */
+    public static boolean isImage(@Nonnull ByteBuffer image) {
+        return image.remaining() >= Integer.BYTES && image.getInt(image.position()) == MAGIC;
+    }
+
+    /**
+     * Reads the dictionary from the image. The dictionary keeps a reference to the buffer
+     *
+     * @param image buffer, must not be changed afterwards
+     * @return the dictionary
+     * @throws IllegalStateException if the buffer is not an image of a supported version or is corrupt
+     */
+    @Nonnull
+    public static Dictionary read(@Nonnull ByteBuffer image) {
+        requireNonNull(image, "image");
+        //Буфер читается отдельным представлением, позиция исходного буфера не меняется
+        ByteBuffer buffer = image.duplicate();
+        if (!isImage(buffer)) {
+            throw new IllegalStateException("Not a dictionary image");
+        }
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new IllegalStateException("The image is truncated");
+        }
+        buffer.getInt();
+        int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported image version " + version);
+        }
+        long hash = buffer.getLong();
+        long checksum = buffer.getLong();
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("The image is truncated");
+        }
+        buffer.limit(buffer.position() + length);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if (crc.getValue() != checksum) {
+            throw new IllegalStateException("The image is corrupt, checksum mismatch");
+        }
+        try {
+            Dictionary dictionary = Dictionary.readImage(buffer);
+            if (dictionary.getContentHash() != hash) {
+                throw new IllegalStateException("The image is corrupt, content hash mismatch");
+            }
+            return dictionary;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalStateException("The image is truncated", e);
+        }
+    }
+}
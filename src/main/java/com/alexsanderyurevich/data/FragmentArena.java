@@ -0,0 +1,197 @@
+package com.alexsanderyurevich.data;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distinct word fragments of a dictionary packed one after another into a single char buffer.
+ * A fragment is referred to by its number, the number 0 means a missing fragment.
+ * The buffer of an arena read from a dictionary image is a view of the image, not a copy
+ */
+final class FragmentArena {
+    //Номера фрагментов хранятся в short
+    static final int MAX_FRAGMENTS = Short.MAX_VALUE;
+
+    private final CharBuffer chars;
+    //[fragment], конец фрагмента - начало следующего
+    private final int[] offsets;
+    //[fragment], строки создаются один раз, чтобы чтение не выделяло память
+    private final String[] strings;
+
+    private FragmentArena(@Nonnull CharBuffer chars, @Nonnull int[] offsets, @Nonnull String[] strings) {
+        this.chars = chars;
+        this.offsets = offsets;
+        this.strings = strings;
+    }
+
+    /**
+     * Returns the number of fragments
+     *
+     * @return the number of fragments without the missing one
+     */
+    int getCount() {
+        return strings.length - 1;
+    }
+
+    /**
+     * Returns the fragment
+     *
+     * @param fragment number of the fragment
+     * @return the fragment or {@code null} if it is missing
+     */
+    @Nullable
+    String get(int fragment) {
+        String string = strings[fragment];
+        if (string == null && fragment != 0) {
+            //Строки словаря из образа создаются при первом обращении, повторное создание в гонке безопасно
+            char[] value = new char[getLength(fragment)];
+            for (int i = 0; i < value.length; i++) {
+                value[i] = chars.get(offsets[fragment] + i);
+            }
+            string = new String(value);
+            strings[fragment] = string;
+        }
+        return string;
+    }
+
+    /**
+     * Returns the length of the fragment
+     *
+     * @param fragment number of the fragment
+     * @return the number of chars, 0 for the missing fragment
+     */
+    int getLength(int fragment) {
+        return offsets[fragment + 1] - offsets[fragment];
+    }
+
+    /**
+     * Returns a char of the fragment without creating the string
+     *
+     * @param fragment number of the fragment
+     * @param index    index of the char
+     * @return the char
+     */
+    char getChar(int fragment, int index) {
+        return chars.get(offsets[fragment] + index);
+    }
+
+    /**
+     * Appends the fragment to the builder
+     *
+     * @param fragment    number of the fragment
+     * @param destination builder
+     */
+    void appendTo(int fragment, @Nonnull StringBuilder destination) {
+        if (chars.hasArray()) {
+            destination.append(chars.array(), offsets[fragment], getLength(fragment));
+        } else {
+            destination.append(chars, offsets[fragment], offsets[fragment + 1]);
+        }
+    }
+
+    /**
+     * Writes the arena to a dictionary image: the number of fragments with the missing one, the offsets and the chars
+     *
+     * @param output image
+     * @throws IOException if the image can not be written
+     */
+    void write(@Nonnull DataOutputStream output) throws IOException {
+        output.writeInt(strings.length);
+        for (int offset : offsets) {
+            output.writeInt(offset);
+        }
+        for (int i = 0; i < offsets[strings.length]; i++) {
+            output.writeChar(chars.get(i));
+        }
+    }
+
+    /**
+     * Reads the arena from a dictionary image, the chars remain in the image
+     *
+     * @param image image, the position is moved past the arena
+     * @return the arena
+     * @throws IllegalStateException if the image is corrupt
+     */
+    @Nonnull
+    static FragmentArena read(@Nonnull ByteBuffer image) {
+        int count = image.getInt();
+        if (count < 1 || count > MAX_FRAGMENTS + 1) {
+            throw new IllegalStateException("Invalid number of fragments " + count);
+        }
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = image.getInt();
+            if (i > 0 && offsets[i] < offsets[i - 1]) {
+                throw new IllegalStateException("Invalid offset of fragment " + i);
+            }
+        }
+        int length = offsets[count];
+        if (offsets[0] != 0 || offsets[1] != 0 || length > image.remaining() / Character.BYTES) {
+            throw new IllegalStateException("Invalid length of fragments " + length);
+        }
+        ByteBuffer slice = image.slice();
+        slice.limit(length * Character.BYTES);
+        image.position(image.position() + length * Character.BYTES);
+        return new FragmentArena(slice.asCharBuffer(), offsets, new String[count]);
+    }
+
+    /**
+     * Builder of arena, each distinct fragment is added once
+     */
+    static final class Builder {
+        private final Map<String, Integer> numbers = new HashMap<>();
+        private final List<String> fragments = new ArrayList<>();
+        private int length;
+
+        Builder() {
+            fragments.add(null);
+        }
+
+        /**
+         * Adds the fragment unless it is already added
+         *
+         * @param fragment fragment
+         * @return number of the fragment, 0 for {@code null}
+         * @throws IllegalStateException if there are more than {@value #MAX_FRAGMENTS} fragments
+         */
+        int add(@Nullable String fragment) {
+            if (fragment == null) {
+                return 0;
+            }
+            Integer number = numbers.get(fragment);
+            if (number == null) {
+                if (fragments.size() > MAX_FRAGMENTS) {
+                    throw new IllegalStateException("More than " + MAX_FRAGMENTS + " fragments");
+                }
+                number = fragments.size();
+                numbers.put(fragment, number);
+                fragments.add(fragment);
+                length += fragment.length();
+            }
+            return number;
+        }
+
+        @Nonnull
+        FragmentArena build() {
+            char[] chars = new char[length];
+            int[] offsets = new int[fragments.size() + 1];
+            int offset = 0;
+            for (int i = 1; i < fragments.size(); i++) {
+                String fragment = fragments.get(i);
+                fragment.getChars(0, fragment.length(), chars, offset);
+                offsets[i] = offset;
+                offset += fragment.length();
+            }
+            offsets[fragments.size()] = offset;
+            return new FragmentArena(CharBuffer.wrap(chars), offsets, fragments.toArray(new String[0]));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.alexsanderyurevich.data;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Noun agreeing with numbers, e.g. a currency unit or "день".
+ * Every form of the noun is precomputed, also in UTF-8, and the form for a number is found in a table
+ * by the case and the last two digits of the number
+ */
+public final class Noun {
+    private static final int CASES_COUNT = Cases.values().length;
+    //Формы слова по последней цифре числа [1...9]
+    private static final int FORMS_COUNT = 10;
+    //Форма зависит только от двух последних цифр числа
+    private static final int TAIL_COUNT = 100;
+
+    private final String name;
+    private final Gender gender;
+    private final String stem;
+    //[forms][cases]
+    private final String[][] ends;
+    //Различные формы слова, у существительного их обычно не больше 12
+    private final String[] forms;
+    private final byte[][] formBytes;
+    //[cases * 100 + последние две цифры] -> индекс в forms
+    private final byte[] formIndexes;
+
+    Noun(@Nonnull String name, @Nonnull Gender gender, @Nonnull String stem, @Nonnull String[][] ends) {
+        this.name = name;
+        this.gender = gender;
+        this.stem = stem;
+        this.ends = ends;
+        List<String> distinct = new ArrayList<>();
+        //Индексы форм по последней цифре [cases][forms]
+        int[][] indexes = new int[CASES_COUNT][FORMS_COUNT];
+        for (int c = 0; c < CASES_COUNT; c++) {
+            for (int f = 1; f < FORMS_COUNT; f++) {
+                String end = ends[f][c];
+                String form = end == null ? null : end.isEmpty() ? stem : stem + end;
+                int index = distinct.indexOf(form);
+                if (index < 0) {
+                    index = distinct.size();
+                    distinct.add(form);
+                }
+                indexes[c][f] = index;
+            }
+        }
+        this.forms = distinct.toArray(new String[0]);
+        this.formBytes = new byte[forms.length][];
+        for (int i = 0; i < forms.length; i++) {
+            formBytes[i] = forms[i] == null ? null : forms[i].getBytes(StandardCharsets.UTF_8);
+        }
+        this.formIndexes = new byte[CASES_COUNT * TAIL_COUNT];
+        for (int c = 0; c < CASES_COUNT; c++) {
+            for (int tail = 0; tail < TAIL_COUNT; tail++) {
+                formIndexes[c * TAIL_COUNT + tail] = (byte) indexes[c][getForms(tail)];
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the noun in the dictionary, e.g. {@code RUBLE}
+     *
+     * @return name
+     */
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the gender with which the number before the noun agrees
+     *
+     * @return gender
+     */
+    @Nonnull
+    public Gender getGender() {
+        return gender;
+    }
+
+    /**
+     * Returns the form of the noun agreeing with the number
+     *
+     * @param cases  cases
+     * @param number number, only its last two digits matter
+     * @return the noun in the desired declension
+     */
+    @Nonnull
+    public String getForm(@Nonnull Cases cases, long number) {
+        return forms[getFormIndex(cases, number)];
+    }
+
+    /**
+     * Returns the length in bytes of the UTF-8 form of the noun agreeing with the number
+     *
+     * @param cases  cases
+     * @param number number, only its last two digits matter
+     * @return the number of bytes
+     */
+    public int getUtf8Length(@Nonnull Cases cases, long number) {
+        return formBytes[getFormIndex(cases, number)].length;
+    }
+
+    /**
+     * Writes the UTF-8 form of the noun agreeing with the number to the buffer
+     *
+     * @param cases       cases
+     * @param number      number, only its last two digits matter
+     * @param destination buffer
+     */
+    public void writeUtf8(@Nonnull Cases cases, long number, @Nonnull ByteBuffer destination) {
+        destination.put(formBytes[getFormIndex(cases, number)]);
+    }
+
+    /**
+     * Returns the forms of a noun agreeing with the number: the last digit that selects the word end.
+     * Numbers ending in 0 and in 11...19 take the forms of 5. Scale words agree with their triads by the same rule
+     *
+     * @param number number
+     * @return forms [1...9]
+     */
+    public static int getForms(long number) {
+        int lastTwo = (int) Math.abs(number % 100);
+        if (lastTwo > 10 && lastTwo < 20) {
+            return 5;
+        }
+        int last = lastTwo % 10;
+        return last == 0 ? 5 : last;
+    }
+
+    private int getFormIndex(@Nonnull Cases cases, long number) {
+        //Остаток от деления отрицательного числа отрицателен
+        return formIndexes[cases.ordinal() * TAIL_COUNT + (int) Math.abs(number % TAIL_COUNT)];
+    }
+
+    @Nonnull
+    String getStem() {
+        return stem;
+    }
+
+    @Nonnull
+    String getEnd(int forms, @Nonnull Cases cases) {
+        requireNonNull(cases, "cases");
+        return ends[forms][cases.ordinal()];
+    }
+}
@@ -0,0 +1,208 @@
+package com.alexsanderyurevich.data;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable set of nouns agreeing with numbers, e.g. "день", "рубль".
+ * Nouns of a report or a form are collected with {@link Builder} or loaded from the {@code NOUNS} type of an xml dictionary
+ */
+public final class NounDictionary {
+    private static final int CASES_COUNT = Cases.values().length;
+    //Формы слова по последней цифре числа [1...9]
+    private static final int DIGIT_COUNT = 10;
+
+    private final Map<String, Noun> nouns;
+
+    private NounDictionary(@Nonnull Builder builder) {
+        Map<String, Noun> nouns = new LinkedHashMap<>();
+        for (Map.Entry<String, String[][]> ends : builder.nounEnds.entrySet()) {
+            String name = ends.getKey();
+            String[][] copy = new String[DIGIT_COUNT][];
+            for (int i = 0; i < DIGIT_COUNT; i++) {
+                copy[i] = ends.getValue()[i].clone();
+            }
+            nouns.put(name, new Noun(name, builder.nounGenders.get(name), builder.nounStems.get(name), copy));
+        }
+        this.nouns = Collections.unmodifiableMap(nouns);
+    }
+
+    /**
+     * Returns the noun
+     *
+     * @param name name of the noun, e.g. {@code DAY}
+     * @return the noun
+     * @throws IllegalArgumentException if the dictionary has no such noun
+     */
+    @Nonnull
+    public Noun getNoun(@Nonnull String name) {
+        Noun noun = findNoun(name);
+        if (noun == null) {
+            throw new IllegalArgumentException("Unknown noun " + name);
+        }
+        return noun;
+    }
+
+    /**
+     * Returns the noun
+     *
+     * @param name name of the noun, e.g. {@code DAY}
+     * @return the noun or {@code null} if the dictionary has no such noun
+     */
+    @Nullable
+    public Noun findNoun(@Nonnull String name) {
+        requireNonNull(name, "name");
+        return nouns.get(name);
+    }
+
+    /**
+     * Returns the names of all nouns in the order of the dictionary
+     *
+     * @return names
+     */
+    @Nonnull
+    public Set<String> getNames() {
+        return nouns.keySet();
+    }
+
+    @Nonnull
+    Iterable<Noun> getNouns() {
+        return nouns.values();
+    }
+
+    /**
+     * Builder of noun dictionary, not thread-safe
+     */
+    public static final class Builder {
+        private final Map<String, Gender> nounGenders = new LinkedHashMap<>();
+        private final Map<String, String> nounStems = new LinkedHashMap<>();
+        //[forms][cases]
+        private final Map<String, String[][]> nounEnds = new LinkedHashMap<>();
+
+        /**
+         * Adds the end of the noun
+         *
+         * @param name     name of the noun, e.g. {@code DAY}
+         * @param gender   the gender with which the number before the noun agrees
+         * @param word     word stem
+         * @param number   the last digit of the number agreeing with the word end [1...9]
+         * @param caseType caseType
+         * @param wordEnd  word end
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addNoun(@Nonnull String name, @Nonnull Gender gender, @Nonnull String word, int number,
+                               @Nonnull Cases caseType, @Nonnull String wordEnd) {
+            requireNonNull(name, "name");
+            requireNonNull(gender, "gender");
+            requireNonNull(word, "word");
+            requireNonNull(caseType, "caseType");
+            requireNonNull(wordEnd, "wordEnd");
+            if (number < 1 || number > 9) {
+                throw new IllegalArgumentException("The number must be in range [1;9]: " + number);
+            }
+            nounGenders.put(name, gender);
+            nounStems.put(name, word);
+            nounEnds.computeIfAbsent(name, n -> new String[DIGIT_COUNT][CASES_COUNT])[number][caseType.ordinal()] = wordEnd;
+            return this;
+        }
+
+        /**
+         * Adds the forms of the noun in one case, e.g. "день", "дня", "дней".
+         * Forms are whole words, do not mix them with stems and ends of the same noun
+         *
+         * @param name     name of the noun, e.g. {@code DAY}
+         * @param gender   the gender with which the number before the noun agrees
+         * @param caseType caseType
+         * @param one      the form after 1, 21, 101...
+         * @param few      the form after 2, 3, 4, 22...
+         * @param many     the form after 0, 5...20, 25...
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addNoun(@Nonnull String name, @Nonnull Gender gender, @Nonnull Cases caseType,
+                               @Nonnull String one, @Nonnull String few, @Nonnull String many) {
+            requireNonNull(few, "few");
+            requireNonNull(many, "many");
+            addNoun(name, gender, "", 1, caseType, one);
+            for (int i = 2; i <= 4; i++) {
+                addNoun(name, gender, "", i, caseType, few);
+            }
+            for (int i = 5; i <= 9; i++) {
+                addNoun(name, gender, "", i, caseType, many);
+            }
+            return this;
+        }
+
+        /**
+         * Adds all nouns of the dictionary
+         *
+         * @param dictionary dictionary
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addNouns(@Nonnull NounDictionary dictionary) {
+            requireNonNull(dictionary, "dictionary");
+            for (Noun noun : dictionary.getNouns()) {
+                for (int forms = 1; forms < DIGIT_COUNT; forms++) {
+                    for (Cases caseType : Cases.values()) {
+                        addNoun(noun.getName(), noun.getGender(), noun.getStem(), forms, caseType,
+                                noun.getEnd(forms, caseType));
+                    }
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Checks whether the noun is added
+         *
+         * @param name name of the noun
+         * @return {@code true} if the noun is added
+         */
+        public boolean hasNoun(@Nonnull String name) {
+            requireNonNull(name, "name");
+            return nounEnds.containsKey(name);
+        }
+
+        /**
+         * Builds the dictionary
+         *
+         * @return the dictionary
+         * @throws IllegalStateException if some form of a noun is missing
+         */
+        @Nonnull
+        public NounDictionary build() {
+            for (Map.Entry<String, String[][]> ends : nounEnds.entrySet()) {
+                for (Cases caseType : Cases.values()) {
+                    for (int i = 1; i < DIGIT_COUNT; i++) {
+                        if (ends.getValue()[i][caseType.ordinal()] == null) {
+                            throw new IllegalStateException("Missing declension of " + ends.getKey() + " " + i + " "
+                                    + caseType);
+                        }
+                    }
+                }
+            }
+            return new NounDictionary(this);
+        }
+
+        /**
+         * Builds the dictionary even if some forms are missing
+         *
+         * @return the dictionary
+         */
+        @Nonnull
+        NounDictionary buildPartial() {
+            return new NounDictionary(this);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.alexsanderyurevich.data;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Precomputed ordinal forms of all triads [1...999] for every case and gender.
+ * Only the last word of an ordinal numeral is ordinal: "двадцать пятого", "две тысячи первом".
+ * If the number ends with a scale, the last triad is joined to the ordinal scale word: "двадцатиоднотысячный"
+ */
+public final class OrdinalTable {
+    //[cases][gender][triad], триада в конце числа: "сто двадцать пятого"
+    private final String[][][] triads;
+    //[triad], триада перед порядковым разрядом: "двадцатиодно", для 1 пустая строка - "тысячный"
+    private final String[] prefixes;
+    //[scale][cases][gender], null для разряда единиц
+    private final String[][][] scaleWords;
+    //[cases][gender]
+    private final String[][] zero;
+
+    private OrdinalTable(@Nonnull String[][][] triads, @Nonnull String[] prefixes,
+                         @Nonnull String[][][] scaleWords, @Nonnull String[][] zero) {
+        this.triads = triads;
+        this.prefixes = prefixes;
+        this.scaleWords = scaleWords;
+        this.zero = zero;
+    }
+
+    /**
+     * Returns the ordinal representation for triad at the end of a number
+     *
+     * @param cases  cases
+     * @param gender gender
+     * @param triad  triad [1...999]
+     * @return the ordinal representation, e.g. "сто двадцать пятого"
+     */
+    @Nonnull
+    public String getTriad(@Nonnull Cases cases, @Nonnull Gender gender, int triad) {
+        return triads[cases.ordinal()][gender.ordinal()][triad];
+    }
+
+    /**
+     * Returns the form of triad joined to the ordinal scale word
+     *
+     * @param triad triad [1...999]
+     * @return the prefix, e.g. "двадцатиодно", empty for 1
+     */
+    @Nonnull
+    public String getPrefix(int triad) {
+        return prefixes[triad];
+    }
+
+    /**
+     * Returns the ordinal scale word
+     *
+     * @param scale  scale [1...scale count - 1]
+     * @param cases  cases
+     * @param gender gender
+     * @return the ordinal word, e.g. "тысячного"
+     */
+    @Nonnull
+    public String getScaleWord(int scale, @Nonnull Cases cases, @Nonnull Gender gender) {
+        return scaleWords[scale][cases.ordinal()][gender.ordinal()];
+    }
+
+    /**
+     * Returns the ordinal of zero
+     *
+     * @param cases  cases
+     * @param gender gender
+     * @return the ordinal word, e.g. "нулевого"
+     */
+    @Nonnull
+    public String getZero(@Nonnull Cases cases, @Nonnull Gender gender) {
+        return zero[cases.ordinal()][gender.ordinal()];
+    }
+
+    @Nonnull
+    static OrdinalTable build(@Nonnull Dictionary dictionary) {
+        Cases[] cases = Cases.values();
+        Gender[] genders = Gender.values();
+        int scaleCount = dictionary.getMaxScale() + 1;
+        String[][][] triads = new String[cases.length][genders.length][TriadTable.TRIAD_COUNT];
+        String[] prefixes = new String[TriadTable.TRIAD_COUNT];
+        String[][][] scaleWords = new String[scaleCount][][];
+        String[][] zero = new String[cases.length][genders.length];
+        for (int scale = 1; scale < scaleCount; scale++) {
+            scaleWords[scale] = new String[cases.length][genders.length];
+            for (Cases caseType : cases) {
+                for (Gender gender : genders) {
+                    scaleWords[scale][caseType.ordinal()][gender.ordinal()] = dictionary.getOrdinalScale(scale, caseType, gender);
+                }
+            }
+        }
+        for (Cases caseType : cases) {
+            for (Gender gender : genders) {
+                zero[caseType.ordinal()][gender.ordinal()] = dictionary.getOrdinal(0, caseType, gender);
+            }
+        }
+        StringBuilder represent = new StringBuilder();
+        for (int triad = 1; triad < TriadTable.TRIAD_COUNT; triad++) {
+            int hundreds = triad / 100 * 100;
+            int step = triad % 100;
+            //11...19 - одно слово, как и в количественных числительных
+            int decades = (step > 10 && step < 20) ? step : step / 10 * 10;
+            int units = decades > 10 && decades < 20 ? 0 : step % 10;
+            //Порядковым становится последнее слово триады, предыдущие остаются в именительном падеже
+            int last = units != 0 ? units : decades != 0 ? decades : hundreds;
+            represent.setLength(0);
+            if (hundreds != 0 && hundreds != last) {
+                represent.append(dictionary.getStringHundred(hundreds / 100, Cases.NOMINATIVE)).append(' ');
+            }
+            //Перед единицами стоят только десятки 20...90
+            if (decades != 0 && decades != last) {
+                represent.append(dictionary.getStringDecade(decades / 10, Cases.NOMINATIVE)).append(' ');
+            }
+            int length = represent.length();
+            for (Cases caseType : cases) {
+                for (Gender gender : genders) {
+                    represent.setLength(length);
+                    represent.append(dictionary.getOrdinal(last, caseType, gender));
+                    triads[caseType.ordinal()][gender.ordinal()][triad] = represent.toString();
+                }
+            }
+            represent.setLength(0);
+            if (triad != 1) {
+                if (hundreds != 0) represent.append(dictionary.getOrdinalPrefix(hundreds));
+                if (decades != 0) represent.append(dictionary.getOrdinalPrefix(decades));
+                if (units != 0) represent.append(dictionary.getOrdinalPrefix(units));
+            }
+            prefixes[triad] = represent.toString();
+        }
+        return new OrdinalTable(triads, prefixes, scaleWords, zero);
+    }
+}
@@ -0,0 +1,242 @@
+package com.alexsanderyurevich.data;
+
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Precomputed string representations of all triads [1...999] for every case and gender,
+ * together with the agreeing form of every scale word of the dictionary for each triad.
+ * Every fragment is also kept pre-encoded in UTF-8
+ */
+public final class TriadTable {
+    public static final int TRIAD_COUNT = 1_000;
+    private static final int FORMS_COUNT = 10;
+
+    //[cases][gender][triad]
+    private final String[][][] triads;
+    //[scale][cases][triad], null для разряда единиц
+    private final String[][][] words;
+    //[cases][gender][triad] в UTF-8
+    private final byte[][][][] triadBytes;
+    //[scale][cases][triad] в UTF-8
+    private final byte[][][][] wordBytes;
+    //[scale], для разряда единиц null
+    private final Gender[] scaleGenders;
+
+    private TriadTable(@Nonnull String[][][] triads, @Nonnull String[][][] words,
+                       @Nonnull byte[][][][] triadBytes, @Nonnull byte[][][][] wordBytes,
+                       @Nonnull Gender[] scaleGenders) {
+        this.triads = triads;
+        this.words = words;
+        this.triadBytes = triadBytes;
+        this.wordBytes = wordBytes;
+        this.scaleGenders = scaleGenders;
+    }
+
+    /**
+     * Returns the number of triads the table spells, including the units triad
+     *
+     * @return the largest scale of the dictionary plus one
+     */
+    public int getScaleCount() {
+        return scaleGenders.length;
+    }
+
+    /**
+     * Returns the gender with which the triad before the scale word agrees
+     *
+     * @param scale scale [1...scale count - 1]
+     * @return gender
+     */
+    @Nonnull
+    public Gender getScaleGender(int scale) {
+        return scaleGenders[scale];
+    }
+
+    /**
+     * Returns a string representation for triad
+     *
+     * @param cases  cases
+     * @param gender gender
+     * @param triad  triad [1...999]
+     * @return a string representation for triad
+     */
+    @Nonnull
+    public String getTriad(@Nonnull Cases cases, @Nonnull Gender gender, int triad) {
+        return triads[cases.ordinal()][gender.ordinal()][triad];
+    }
+
+    /**
+     * Returns the word in the form agreeing with triad
+     *
+     * @param scale scale [1...scale count - 1]
+     * @param cases cases
+     * @param triad triad [1...999]
+     * @return the word in the desired declension
+     */
+    @Nonnull
+    public String getWord(int scale, @Nonnull Cases cases, int triad) {
+        return words[scale][cases.ordinal()][triad];
+    }
+
+    /**
+     * Returns the length in bytes of the UTF-8 representation for triad
+     *
+     * @param cases  cases
+     * @param gender gender
+     * @param triad  triad [1...999]
+     * @return the number of bytes
+     */
+    public int getTriadUtf8Length(@Nonnull Cases cases, @Nonnull Gender gender, int triad) {
+        return triadBytes[cases.ordinal()][gender.ordinal()][triad].length;
+    }
+
+    /**
+     * Returns the length in bytes of the UTF-8 word in the form agreeing with triad
+     *
+     * @param scale scale [1...scale count - 1]
+     * @param cases cases
+     * @param triad triad [1...999]
+     * @return the number of bytes
+     */
+    public int getWordUtf8Length(int scale, @Nonnull Cases cases, int triad) {
+        return wordBytes[scale][cases.ordinal()][triad].length;
+    }
+
+    /**
+     * Writes the UTF-8 representation for triad to the buffer
+     *
+     * @param cases       cases
+     * @param gender      gender
+     * @param triad       triad [1...999]
+     * @param destination buffer
+     */
+    public void writeTriad(@Nonnull Cases cases, @Nonnull Gender gender, int triad, @Nonnull ByteBuffer destination) {
+        destination.put(triadBytes[cases.ordinal()][gender.ordinal()][triad]);
+    }
+
+    /**
+     * Writes the UTF-8 representation for triad to the stream
+     *
+     * @param cases       cases
+     * @param gender      gender
+     * @param triad       triad [1...999]
+     * @param destination stream
+     * @throws IOException if the stream fails
+     */
+    public void writeTriad(@Nonnull Cases cases, @Nonnull Gender gender, int triad,
+                           @Nonnull OutputStream destination) throws IOException {
+        destination.write(triadBytes[cases.ordinal()][gender.ordinal()][triad]);
+    }
+
+    /**
+     * Writes the UTF-8 word in the form agreeing with triad to the buffer
+     *
+     * @param scale       scale [1...scale count - 1]
+     * @param cases       cases
+     * @param triad       triad [1...999]
+     * @param destination buffer
+     */
+    public void writeWord(int scale, @Nonnull Cases cases, int triad, @Nonnull ByteBuffer destination) {
+        destination.put(wordBytes[scale][cases.ordinal()][triad]);
+    }
+
+    /**
+     * Writes the UTF-8 word in the form agreeing with triad to the stream
+     *
+     * @param scale       scale [1...scale count - 1]
+     * @param cases       cases
+     * @param triad       triad [1...999]
+     * @param destination stream
+     * @throws IOException if the stream fails
+     */
+    public void writeWord(int scale, @Nonnull Cases cases, int triad,
+                          @Nonnull OutputStream destination) throws IOException {
+        destination.write(wordBytes[scale][cases.ordinal()][triad]);
+    }
+
+    @Nonnull
+    static TriadTable build(@Nonnull Dictionary dictionary) {
+        Cases[] cases = Cases.values();
+        Gender[] genders = Gender.values();
+        int scaleCount = dictionary.getMaxScale() + 1;
+        String[][][] triads = new String[cases.length][genders.length][TRIAD_COUNT];
+        String[][][] words = new String[scaleCount][][];
+        byte[][][][] triadBytes = new byte[cases.length][genders.length][TRIAD_COUNT][];
+        byte[][][][] wordBytes = new byte[scaleCount][][][];
+        Gender[] scaleGenders = new Gender[scaleCount];
+        for (int scale = 1; scale < scaleCount; scale++) {
+            words[scale] = new String[cases.length][TRIAD_COUNT];
+            wordBytes[scale] = new byte[cases.length][TRIAD_COUNT][];
+            scaleGenders[scale] = dictionary.getScaleGender(scale);
+        }
+        StringBuilder represent = new StringBuilder();
+        for (Cases caseType : cases) {
+            //Все формы слова для падежа, чтобы одинаковые формы не создавались заново для каждой триады
+            String[][] wordForms = new String[scaleCount][FORMS_COUNT];
+            byte[][][] wordFormBytes = new byte[scaleCount][FORMS_COUNT][];
+            for (int scale = 1; scale < scaleCount; scale++) {
+                for (int forms = 0; forms < FORMS_COUNT; forms++) {
+                    String wordForm = dictionary.getScaleWord(scale, caseType, forms);
+                    wordForms[scale][forms] = wordForm;
+                    wordFormBytes[scale][forms] = wordForm.getBytes(StandardCharsets.UTF_8);
+                }
+            }
+            for (int triad = 1; triad < TRIAD_COUNT; triad++) {
+                int hundreds = triad / 100;
+                int step = triad % 100;
+                //Числа с 11..19 имеют свои названия, не составные как например 21 (двадцать + один)
+                //поэтому если получили число от 11 до 19, то запишем его полностью в разряд десяток, а в разряд единиц запишем 0
+                int decades = (step > 10 && step < 20) ? step : step / 10;
+                int units = decades < 10 ? step % 10 : 0;
+                for (Gender gender : genders) {
+                    String triadForm = getStringRepresent(dictionary, represent, hundreds, decades, units, caseType, gender);
+                    //Роды различаются только в единицах, одинаковые формы делят одну строку и одни байты
+                    int same = 0;
+                    while (same < gender.ordinal() && !triads[caseType.ordinal()][same][triad].equals(triadForm)) {
+                        same++;
+                    }
+                    if (same < gender.ordinal()) {
+                        triads[caseType.ordinal()][gender.ordinal()][triad] = triads[caseType.ordinal()][same][triad];
+                        triadBytes[caseType.ordinal()][gender.ordinal()][triad] = triadBytes[caseType.ordinal()][same][triad];
+                    } else {
+                        triads[caseType.ordinal()][gender.ordinal()][triad] = triadForm;
+                        triadBytes[caseType.ordinal()][gender.ordinal()][triad] = triadForm.getBytes(StandardCharsets.UTF_8);
+                    }
+                }
+                //Разряд согласуется с триадой по тому же правилу, что и существительные
+                int forms = Noun.getForms(triad);
+                for (int scale = 1; scale < scaleCount; scale++) {
+                    words[scale][caseType.ordinal()][triad] = wordForms[scale][forms];
+                    wordBytes[scale][caseType.ordinal()][triad] = wordFormBytes[scale][forms];
+                }
+            }
+        }
+        return new TriadTable(triads, words, triadBytes, wordBytes, scaleGenders);
+    }
+
+    private static String getStringRepresent(@Nonnull Dictionary dictionary, @Nonnull StringBuilder represent,
+                                             int hundreds, int decades, int units,
+                                             @Nonnull Cases cases, @Nonnull Gender gender) {
+        FragmentArena fragments = dictionary.getFragments();
+        represent.setLength(0);
+        if (hundreds != 0) {
+            fragments.appendTo(dictionary.getHundredFragment(hundreds, cases), represent);
+        }
+        if (decades != 0) {
+            if (represent.length() > 0) represent.append(' ');
+            fragments.appendTo(dictionary.getDecadeFragment(decades, cases), represent);
+        }
+        if (units != 0) {
+            if (represent.length() > 0) represent.append(' ');
+            fragments.appendTo(dictionary.getUnitFragment(units, cases, gender), represent);
+        }
+        return represent.toString();
+    }
+}
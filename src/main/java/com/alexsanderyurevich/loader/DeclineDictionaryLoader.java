@@ -0,0 +1,78 @@
+package com.alexsanderyurevich.loader;
+
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.data.Dictionary;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Loads the declension dictionary compiled from decline.xml at build time, without parsing XML
+ */
+public final class DeclineDictionaryLoader {
+
+    private DeclineDictionaryLoader() { }
+
+    /**
+     * Loads the compiled dictionary and makes it current
+     */
+    public static void loadDeclineData() {
+        DeclineData.setDictionary(loadDictionary());
+    }
+
+    /**
+     * Loads the compiled dictionary
+     *
+     * @return the dictionary
+     */
+    @Nonnull
+    public static Dictionary loadDictionary() {
+        Dictionary.Builder builder = new Dictionary.Builder();
+        for (String[] row : DeclineDictionary.DIGITS_WITH_GENDER) {
+            builder.addDigitWithGender(Integer.parseInt(row[0]), Gender.valueOf(row[1]), Cases.valueOf(row[2]), row[3]);
+        }
+        for (String[] row : DeclineDictionary.DIGITS) {
+            builder.addDigits(Integer.parseInt(row[0]), Cases.valueOf(row[1]), row[2]);
+        }
+        for (String[] row : DeclineDictionary.NUMBERS) {
+            builder.addNumber(Integer.parseInt(row[0]), Cases.valueOf(row[1]), row[2]);
+        }
+        for (String[] row : DeclineDictionary.DECADES) {
+            builder.addDecade(Integer.parseInt(row[0]), Cases.valueOf(row[1]), row[2]);
+        }
+        for (String[] row : DeclineDictionary.HUNDREDS) {
+            builder.addHundred(Integer.parseInt(row[0]), Cases.valueOf(row[1]), row[2]);
+        }
+        for (String[] row : DeclineDictionary.SCALES) {
+            builder.addScale(Integer.parseInt(row[0]), row[1], Gender.valueOf(row[2]));
+        }
+        for (String[] row : DeclineDictionary.WORDS) {
+            int scale = Integer.parseInt(row[0]);
+            Cases caseType = Cases.valueOf(row[3]);
+            for (String number : row[2].split(",")) {
+                builder.addWord(scale, row[1], Integer.parseInt(number), caseType, row[4]);
+            }
+        }
+        for (String[] row : DeclineDictionary.ORDINALS) {
+            builder.addOrdinal(Integer.parseInt(row[0]), Gender.valueOf(row[1]), Cases.valueOf(row[2]), row[3]);
+        }
+        for (String[] row : DeclineDictionary.ORDINAL_SCALES) {
+            builder.addOrdinalScale(Integer.parseInt(row[0]), Gender.valueOf(row[1]), Cases.valueOf(row[2]), row[3]);
+        }
+        for (String[] row : DeclineDictionary.ORDINAL_PREFIXES) {
+            builder.addOrdinalPrefix(Integer.parseInt(row[0]), row[1]);
+        }
+        for (String[] row : DeclineDictionary.NOUNS) {
+            Gender gender = Gender.valueOf(row[1]);
+            Cases caseType = Cases.valueOf(row[4]);
+            for (String number : row[3].split(",")) {
+                builder.addNoun(row[0], gender, row[2], Integer.parseInt(number), caseType, row[5]);
+            }
+        }
+        for (String[] row : DeclineDictionary.CURRENCIES) {
+            builder.addCurrency(row[0], row[1], row[2], Integer.parseInt(row[3]));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.alexsanderyurevich.loader;
+
+import com.alexsanderyurevich.data.Dictionary;
+import com.alexsanderyurevich.data.DictionaryImage;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Loads dictionaries from binary images written by {@link DictionaryImage}.
+ * The image file is memory-mapped read-only and read without copying the word fragments
+ */
+public final class DeclineImageLoader {
+
+    private DeclineImageLoader() { }
+
+    /**
+     * Loads the dictionary from an image file
+     *
+     * @param file image file
+     * @return the dictionary
+     * @throws DeclineLoadException if the file can not be read or is not a valid image
+     */
+    @Nonnull
+    public static Dictionary loadDictionary(@Nonnull Path file) {
+        Objects.requireNonNull(file, "file");
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            //Отображение остается действительным после закрытия канала
+            MappedByteBuffer image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return DictionaryImage.read(image);
+        } catch (IOException | IllegalStateException e) {
+            throw new DeclineLoadException(file.toString(), -1, -1, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads the dictionary from an image file or, if the file is not an image, from an XML file
+     *
+     * @param file image or XML file
+     * @return the dictionary
+     * @throws DeclineLoadException if the file can not be read or is invalid
+     */
+    @Nonnull
+    public static Dictionary loadDictionaryFile(@Nonnull Path file) {
+        return isImage(file) ? loadDictionary(file) : DeclineXmlLoader.loadDictionary(file);
+    }
+
+    /**
+     * Writes the image of the dictionary to file
+     *
+     * @param dictionary dictionary
+     * @param file       image file, is overwritten
+     * @throws IOException if the file can not be written
+     */
+    public static void writeImage(@Nonnull Dictionary dictionary, @Nonnull Path file) throws IOException {
+        Objects.requireNonNull(file, "file");
+        try (OutputStream output = Files.newOutputStream(file)) {
+            DictionaryImage.write(dictionary, output);
+        }
+    }
+
+    private static boolean isImage(@Nonnull Path file) {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                //Заголовок может прийти частями
+            }
+        } catch (IOException e) {
+            //Ошибку чтения сообщит загрузчик XML
+            return false;
+        }
+        header.flip();
+        return DictionaryImage.isImage(header);
+    }
+}
@@ -0,0 +1,45 @@
+package com.alexsanderyurevich.loader;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The dictionary could not be loaded. The message starts with the location of the error
+ */
+public final class DeclineLoadException extends RuntimeException {
+    private final String source;
+    private final int line;
+    private final int column;
+
+    public DeclineLoadException(@Nonnull String source, int line, int column, @Nonnull String message) {
+        this(source, line, column, message, null);
+    }
+
+    public DeclineLoadException(@Nonnull String source, int line, int column, @Nonnull String message, Throwable cause) {
+        super(source + (line > 0 ? ":" + line + ":" + column : "") + ": " + message, cause);
+        this.source = source;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * @return the name of the dictionary
+     */
+    @Nonnull
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return the line of the error, or -1 if it is unknown
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return the column of the error, or -1 if it is unknown
+     */
+    public int getColumn() {
+        return column;
+    }
+}
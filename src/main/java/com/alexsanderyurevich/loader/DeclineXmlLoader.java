@@ -4,217 +4,540 @@ import com.alexsanderyurevich.data.DeclineData;
 import com.alexsanderyurevich.data.DeclineData.Cases;
 import com.alexsanderyurevich.data.DeclineData.Gender;
 import com.alexsanderyurevich.data.DeclineData.Word;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import com.alexsanderyurevich.data.Dictionary;
+import com.alexsanderyurevich.data.NounDictionary;
 
 import javax.annotation.Nonnull;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.annotation.Nullable;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.EnumMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+/**
+ * Loads the declension dictionary from XML in a single pass, adding declensions to {@link Dictionary.Builder} as they are read
+ */
 public final class DeclineXmlLoader {
     private static final String DECLINE_DATA_FILE_NAME = "decline.xml";
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
 
     private DeclineXmlLoader() { }
 
+    /**
+     * Loads the dictionary bundled with the application and makes it current
+     *
+     * @throws DeclineLoadException if the dictionary is not found or is invalid
+     */
     public static void loadDeclineData() {
+        DeclineData.setDictionary(loadDictionary());
+    }
+
+    /**
+     * Loads the dictionary from file and makes it current
+     *
+     * @param file file
+     * @throws DeclineLoadException if the file can not be read or is invalid
+     */
+    public static void loadDeclineData(@Nonnull Path file) {
+        DeclineData.setDictionary(loadDictionary(file));
+    }
+
+    /**
+     * Loads the dictionary from stream and makes it current
+     *
+     * @param input  stream, is not closed
+     * @param source the name of the dictionary for error messages
+     * @throws DeclineLoadException if the dictionary is invalid
+     */
+    public static void loadDeclineData(@Nonnull InputStream input, @Nonnull String source) {
+        DeclineData.setDictionary(loadDictionary(input, source));
+    }
+
+    /**
+     * Loads the dictionary bundled with the application
+     *
+     * @return the dictionary
+     * @throws DeclineLoadException if the dictionary is not found or is invalid
+     */
+    @Nonnull
+    public static Dictionary loadDictionary() {
+        InputStream resource = DeclineXmlLoader.class.getClassLoader().getResourceAsStream(DECLINE_DATA_FILE_NAME);
+        if (resource == null) {
+            throw new DeclineLoadException(DECLINE_DATA_FILE_NAME, -1, -1, "Not found resource");
+        }
+        try (InputStream input = resource) {
+            return loadDictionary(input, DECLINE_DATA_FILE_NAME);
+        } catch (IOException e) {
+            throw new DeclineLoadException(DECLINE_DATA_FILE_NAME, -1, -1, e.toString(), e);
+        }
+    }
+
+    /**
+     * Loads the dictionary from file
+     *
+     * @param file file
+     * @return the dictionary
+     * @throws DeclineLoadException if the file can not be read or is invalid
+     */
+    @Nonnull
+    public static Dictionary loadDictionary(@Nonnull Path file) {
+        Objects.requireNonNull(file, "file");
+        try (InputStream input = Files.newInputStream(file)) {
+            return loadDictionary(input, file.toString());
+        } catch (IOException e) {
+            throw new DeclineLoadException(file.toString(), -1, -1, e.toString(), e);
+        }
+    }
+
+    /**
+     * Loads the dictionary from stream
+     *
+     * @param input  stream, is not closed
+     * @param source the name of the dictionary for error messages
+     * @return the dictionary
+     * @throws DeclineLoadException if the dictionary is invalid or incomplete
+     */
+    @Nonnull
+    public static Dictionary loadDictionary(@Nonnull InputStream input, @Nonnull String source) {
+        Dictionary.Builder builder = new Dictionary.Builder();
+        NounDictionary.Builder nouns = new NounDictionary.Builder();
+        parse(input, source, builder, nouns);
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            InputStream resource = Objects.requireNonNull(DeclineXmlLoader.class.getClassLoader().getResourceAsStream(DECLINE_DATA_FILE_NAME), "Not found resource");
+            return builder.addNouns(nouns.build()).build();
+        } catch (IllegalStateException e) {
+            throw new DeclineLoadException(source, -1, -1, e.getMessage(), e);
+        }
+    }
 
-            Document document = builder.parse(resource);
-            document.getDocumentElement().normalize();
+    /**
+     * Loads nouns from file, it may contain only the type {@code NOUNS} of the dictionary format
+     *
+     * @param file file
+     * @return nouns
+     * @throws DeclineLoadException if the file can not be read or is invalid
+     */
+    @Nonnull
+    public static NounDictionary loadNouns(@Nonnull Path file) {
+        Objects.requireNonNull(file, "file");
+        try (InputStream input = Files.newInputStream(file)) {
+            return loadNouns(input, file.toString());
+        } catch (IOException e) {
+            throw new DeclineLoadException(file.toString(), -1, -1, e.toString(), e);
+        }
+    }
+
+    /**
+     * Loads nouns from stream, it may contain only the type {@code NOUNS} of the dictionary format
+     *
+     * @param input  stream, is not closed
+     * @param source the name of the dictionary for error messages
+     * @return nouns
+     * @throws DeclineLoadException if the dictionary is invalid or incomplete
+     */
+    @Nonnull
+    public static NounDictionary loadNouns(@Nonnull InputStream input, @Nonnull String source) {
+        NounDictionary.Builder nouns = new NounDictionary.Builder();
+        parse(input, source, null, nouns);
+        try {
+            return nouns.build();
+        } catch (IllegalStateException e) {
+            throw new DeclineLoadException(source, -1, -1, e.getMessage(), e);
+        }
+    }
+
+    private static void parse(@Nonnull InputStream input, @Nonnull String source,
+                              @Nullable Dictionary.Builder builder, @Nonnull NounDictionary.Builder nouns) {
+        Objects.requireNonNull(input, "input");
+        Objects.requireNonNull(source, "source");
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            new Parser(reader, source, builder, nouns).parse();
+        } catch (XMLStreamException e) {
+            Location location = e.getLocation();
+            throw new DeclineLoadException(source, location == null ? -1 : location.getLineNumber(),
+                    location == null ? -1 : location.getColumnNumber(), e.getMessage(), e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    private static void close(@Nullable XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignored) {
+                //Ошибка уже обработана или данные уже прочитаны
+            }
+        }
+    }
 
-            NodeList types = document.getElementsByTagName("type");
-            for (int i = 0; i < types.getLength(); i++) {
-                Node node = types.item(i);
-                Types type = Enum.valueOf(Types.class, ((Element) node).getAttribute("value"));
+    @Nonnull
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    @Nullable
+    private static <E extends Enum<E>> E find(@Nonnull E[] values, @Nonnull String name) {
+        for (E value : values) {
+            if (value.name().equals(name)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parser state. Elements are handled as they are read:
+     * {@code type} selects the kind of declensions, {@code digit/number/decade/hundred/word} the value,
+     * {@code male/female/neuter} the gender, and every case element adds one declension.
+     * Ordinals are declined by patterns: {@code declension} defines the ends, {@code ordinal} adds a stem with them
+     */
+    private static final class Parser {
+        private static final Types[] TYPES = Types.values();
+        private static final Cases[] CASES = Cases.values();
+        private static final Word[] WORDS = Word.values();
+        private static final Gender[] GENDERS = Gender.values();
+
+        private final XMLStreamReader reader;
+        private final String source;
+        //null, если загружаются только существительные
+        private final Dictionary.Builder builder;
+        private final NounDictionary.Builder nouns;
+        private Types type;
+        private int value;
+        private Gender gender;
+        private int scale;
+        private String noun;
+        private Gender nounGender;
+        private String stem;
+        private int[] wordNumbers;
+        //Окончания порядковых числительных по имени склонения: [gender][cases]
+        private final Map<String, String[][]> declensions = new HashMap<>();
+        private String[][] declension;
+        private String declensionName;
+
+        private Parser(@Nonnull XMLStreamReader reader, @Nonnull String source,
+                       @Nullable Dictionary.Builder builder, @Nonnull NounDictionary.Builder nouns) {
+            this.reader = reader;
+            this.source = source;
+            this.builder = builder;
+            this.nouns = nouns;
+        }
+
+        private void parse() throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    startElement(reader.getLocalName());
+                } else if (event == XMLStreamConstants.END_ELEMENT && "gender".equals(reader.getLocalName())) {
+                    gender = null;
+                }
+            }
+        }
+
+        private void startElement(@Nonnull String name) {
+            switch (name) {
+                case "types":
+                case "cases":
+                case "end":
+                case "gender": {
+                    break;
+                }
+                case "type": {
+                    String typeName = getAttribute("value");
+                    type = find(TYPES, typeName);
+                    if (type == null) {
+                        throw error("Unknown type " + typeName);
+                    }
+                    if (builder == null && type != Types.NOUNS) {
+                        throw error("Type " + typeName + " is not allowed in a noun dictionary");
+                    }
+                    break;
+                }
+                case "digit": {
+                    checkType(name, Types.DIGITS);
+                    value = getIntAttribute("value");
+                    gender = null;
+                    break;
+                }
+                case "number": {
+                    if (type == Types.WORDS || type == Types.NOUNS) {
+                        wordNumbers = getIntsAttribute("value");
+                    } else {
+                        checkType(name, Types.NUMBERS);
+                        value = getIntAttribute("value");
+                    }
+                    break;
+                }
+                case "decade": {
+                    checkType(name, Types.DECADES);
+                    value = getIntAttribute("value");
+                    break;
+                }
+                case "hundred": {
+                    checkType(name, Types.HUNDREDS);
+                    value = getIntAttribute("value");
+                    break;
+                }
+                case "word": {
+                    checkType(name, Types.WORDS);
+                    startWord(getAttribute("value"));
+                    break;
+                }
+                case "noun": {
+                    checkType(name, Types.NOUNS);
+                    noun = getAttribute("value");
+                    nounGender = getGenderAttribute("gender");
+                    stem = getAttribute("word");
+                    wordNumbers = null;
+                    break;
+                }
+                case "declension": {
+                    checkType(name, Types.ORDINALS);
+                    declension = new String[GENDERS.length][CASES.length];
+                    declensionName = getAttribute("value");
+                    declensions.put(declensionName, declension);
+                    gender = null;
+                    break;
+                }
+                case "ordinal": {
+                    checkType(name, Types.ORDINALS);
+                    addOrdinal();
+                    break;
+                }
+                case "currency": {
+                    checkType(name, Types.CURRENCIES);
+                    String code = getAttribute("value");
+                    try {
+                        builder.addCurrency(code, getAttribute("major"), getAttribute("minor"), getIntAttribute("digits"));
+                    } catch (IllegalArgumentException e) {
+                        throw error("Invalid digits of currency " + code);
+                    }
+                    break;
+                }
+                case "male": {
+                    gender = Gender.MALE;
+                    break;
+                }
+                case "female": {
+                    gender = Gender.FEMALE;
+                    break;
+                }
+                case "neuter": {
+                    gender = Gender.NEUTER;
+                    break;
+                }
+                default: {
+                    Cases caseType = find(CASES, name);
+                    if (caseType == null) {
+                        throw error("Unknown element " + name);
+                    }
+                    addDecline(caseType, getAttribute("value"));
+                }
+            }
+        }
+
+        private void addDecline(@Nonnull Cases caseType, @Nonnull String decline) {
+            if (type == null) {
+                throw error("Case " + caseType + " outside of type");
+            }
+            try {
                 switch (type) {
                     case DIGITS: {
-                        parseDigits(node);
+                        if (gender != null) {
+                            builder.addDigitWithGender(value, gender, caseType, decline);
+                        } else {
+                            builder.addDigits(value, caseType, decline);
+                        }
                         break;
                     }
                     case NUMBERS: {
-                        parseNumbers(node);
+                        builder.addNumber(value, caseType, decline);
                         break;
                     }
                     case DECADES: {
-                        parseDecades(node);
+                        builder.addDecade(value, caseType, decline);
                         break;
                     }
                     case HUNDREDS: {
-                        parseHundreds(node);
+                        builder.addHundred(value, caseType, decline);
                         break;
                     }
                     case WORDS: {
-                        parseWords(node);
+                        if (scale == 0 || wordNumbers == null) {
+                            throw error("Case " + caseType + " outside of word number");
+                        }
+                        for (int number : wordNumbers) {
+                            builder.addWord(scale, stem, number, caseType, decline);
+                        }
+                        break;
+                    }
+                    case NOUNS: {
+                        if (noun == null || wordNumbers == null) {
+                            throw error("Case " + caseType + " outside of noun number");
+                        }
+                        for (int number : wordNumbers) {
+                            nouns.addNoun(noun, nounGender, stem, number, caseType, decline);
+                        }
+                        break;
+                    }
+                    case ORDINALS: {
+                        if (declension == null || gender == null) {
+                            throw error("Case " + caseType + " outside of declension gender");
+                        }
+                        declension[gender.ordinal()][caseType.ordinal()] = decline;
                         break;
                     }
+                    case CURRENCIES: {
+                        throw error("Case " + caseType + " is not allowed in type " + type);
+                    }
                 }
+            } catch (IllegalArgumentException e) {
+                throw error("Invalid " + caseType + " of " + getElementName() + " in type " + type + ": " + e.getMessage());
             }
-        } catch (SAXException | ParserConfigurationException | IOException e) {
-            e.printStackTrace();
         }
-    }
 
-    private static void parseWords(@Nonnull Node node) {
-        Element element = ((Element) node);
-        NodeList words = element.getElementsByTagName("word");
-        for (int i = 0; i < words.getLength(); i++) {
-            element = (Element) words.item(i);
-            Word wordType = Enum.valueOf(Word.class, element.getAttribute("value"));
-            String word = element.getAttribute("word");
-            NodeList numbers = element.getElementsByTagName("number");
-
-            for (int j = 0; j < numbers.getLength(); j++) {
-                element = (Element) numbers.item(j);
-                String values = element.getAttribute("value");
-                String[] digits = values.split(",");
-                EnumMap<Cases, String> cases = parseCases(element);
-                for (String digit : digits) {
-                    addedWordsToContainer(wordType, word, Integer.valueOf(digit), cases);
+        //Элемент, к которому относится падеж: значение цифры или имя слова, существительного, склонения
+        @Nonnull
+        private String getElementName() {
+            switch (type) {
+                case WORDS: {
+                    return "word " + stem + " of scale " + scale;
+                }
+                case NOUNS: {
+                    return "noun " + noun;
+                }
+                case ORDINALS: {
+                    return "declension " + declensionName;
+                }
+                default: {
+                    return "value " + value;
                 }
             }
         }
-    }
-
-    private static void addedWordsToContainer(@Nonnull Word wordType, @Nonnull String word, int number, @Nonnull EnumMap<Cases, String> cases) {
-        for (Cases caseType : cases.keySet()) {
-            DeclineData.addWord(wordType, word, number, caseType, cases.get(caseType));
-        }
-    }
-
-    private static void parseHundreds(@Nonnull Node node) {
-        Element element = ((Element) node);
-        NodeList hundreds = element.getElementsByTagName("hundred");
-        Map<Integer, EnumMap<Cases, String>> numberCases = getCases(hundreds);
-        for (Map.Entry<Integer, EnumMap<Cases, String>> entry : numberCases.entrySet()) {
-            addedHundredToContainer(entry.getKey(), entry.getValue());
-        }
-    }
-
-    private static void addedHundredToContainer(int hundred, @Nonnull EnumMap<Cases, String> cases) {
-        for (Cases caseType : cases.keySet()) {
-            String decline = cases.get(caseType);
-            DeclineData.addHundred(hundred, caseType, decline);
-        }
-    }
 
-    private static void parseDecades(@Nonnull Node node) {
-        Element element = ((Element) node);
-        NodeList decades = element.getElementsByTagName("decade");
-        Map<Integer, EnumMap<Cases, String>> numberCases = getCases(decades);
-        for (Map.Entry<Integer, EnumMap<Cases, String>> entry : numberCases.entrySet()) {
-            addedDecadeToContainer(entry.getKey(), entry.getValue());
-        }
-    }
-
-    private static void addedDecadeToContainer(int decade, @Nonnull EnumMap<Cases, String> cases) {
-        for (Cases caseType : cases.keySet()) {
-            String decline = cases.get(caseType);
-            DeclineData.addDecade(decade, caseType, decline);
+        //Атрибуты scale и gender необязательны для слов THOUSAND, MILLION и BILLION, их значения известны
+        private void startWord(@Nonnull String wordName) {
+            Word word = find(WORDS, wordName);
+            String scaleName = reader.getAttributeValue(null, "scale");
+            if (scaleName == null && word == null) {
+                throw error("Missing attribute scale of word " + wordName);
+            }
+            scale = scaleName == null ? word.getScale() : getIntAttribute("scale");
+            String genderName = reader.getAttributeValue(null, "gender");
+            Gender wordGender = genderName == null ? null : find(GENDERS, genderName);
+            if (genderName != null && wordGender == null) {
+                throw error("Unknown gender " + genderName);
+            }
+            if (wordGender == null) {
+                wordGender = word == null ? Gender.MALE : word.getGender();
+            }
+            try {
+                builder.addScale(scale, wordName, wordGender);
+            } catch (IllegalArgumentException e) {
+                throw error("Invalid scale " + scale + " of word " + wordName);
+            }
+            stem = getAttribute("word");
+            wordNumbers = null;
         }
-    }
 
-    private static void parseNumbers(@Nonnull Node node) {
-        Element element = ((Element) node);
-        NodeList numbers = element.getElementsByTagName("number");
-        Map<Integer, EnumMap<Cases, String>> numberCases = getCases(numbers);
-        for (Map.Entry<Integer, EnumMap<Cases, String>> entry : numberCases.entrySet()) {
-            addedNumberToContainer(entry.getKey(), entry.getValue());
+        private void addOrdinal() {
+            String declensionName = getAttribute("declension");
+            String[][] ends = declensions.get(declensionName);
+            if (ends == null) {
+                throw error("Unknown declension " + declensionName);
+            }
+            String word = getAttribute("word");
+            String scaleName = reader.getAttributeValue(null, "scale");
+            int number = scaleName == null ? getIntAttribute("value") : getIntAttribute("scale");
+            try {
+                for (Gender ordinalGender : GENDERS) {
+                    for (Cases caseType : CASES) {
+                        String end = ends[ordinalGender.ordinal()][caseType.ordinal()];
+                        if (end == null) continue;
+                        if (scaleName == null) {
+                            builder.addOrdinal(number, ordinalGender, caseType, word + end);
+                        } else {
+                            builder.addOrdinalScale(number, ordinalGender, caseType, word + end);
+                        }
+                    }
+                }
+                String prefix = reader.getAttributeValue(null, "prefix");
+                if (prefix != null) {
+                    builder.addOrdinalPrefix(number, prefix);
+                }
+            } catch (IllegalArgumentException e) {
+                throw error("Invalid " + (scaleName == null ? "value " : "scale ") + number + " of ordinal " + word);
+            }
         }
-    }
 
-    private static Map<Integer, EnumMap<Cases, String>> getCases(NodeList numbers) {
-        Map<Integer, EnumMap<Cases, String>> digitCases = new HashMap<>();
-        Element element;
-        for (int i = 0; i < numbers.getLength(); i++) {
-            element = (Element) numbers.item(i);
-            int number = Integer.valueOf(element.getAttribute("value"));
-            EnumMap<Cases, String> cases = parseCases(element);
-            digitCases.put(number, cases);
+        private void checkType(@Nonnull String name, @Nonnull Types expected) {
+            if (type != expected) {
+                throw error("Element " + name + " is allowed only in type " + expected);
+            }
         }
-        return digitCases;
-    }
 
-    private static void addedNumberToContainer(int number, @Nonnull EnumMap<Cases, String> cases) {
-        for (Cases caseType : cases.keySet()) {
-            String decline = cases.get(caseType);
-            DeclineData.addNumber(number, caseType, decline);
+        @Nonnull
+        private String getAttribute(@Nonnull String name) {
+            String attribute = reader.getAttributeValue(null, name);
+            if (attribute == null) {
+                throw error("Missing attribute " + name + " of " + reader.getLocalName());
+            }
+            return attribute;
         }
-    }
 
-    private static void parseDigits(@Nonnull Node node) {
-        Element element = ((Element) node);
-        NodeList digits = element.getElementsByTagName("digit");
-        for (int i = 0; i < digits.getLength(); i++) {
-            element = (Element) digits.item(i);
-            int number = Integer.valueOf(element.getAttribute("value"));
-            NodeList gender = element.getElementsByTagName("gender");
-            if (gender.getLength() > 0) {
-                EnumMap<Gender, EnumMap<Cases, String>> declineGender = parseGender(gender.item(0));
-                addedDigitWithGenderToContainer(number, declineGender);
-            } else {
-                EnumMap<Cases, String> cases = parseCases(element);
-                addedDigitToContainer(cases, number);
+        @Nonnull
+        private Gender getGenderAttribute(@Nonnull String name) {
+            String attribute = getAttribute(name);
+            Gender result = find(GENDERS, attribute);
+            if (result == null) {
+                throw error("Unknown gender " + attribute);
             }
+            return result;
         }
-    }
 
-    private static void addedDigitToContainer(@Nonnull EnumMap<Cases, String> cases, int number) {
-        for (Cases caseType : cases.keySet()) {
-            String decline = cases.get(caseType);
-            DeclineData.addDigits(number, caseType, decline);
+        private int getIntAttribute(@Nonnull String name) {
+            String attribute = getAttribute(name);
+            try {
+                return Integer.parseInt(attribute.trim());
+            } catch (NumberFormatException e) {
+                throw error("Attribute " + name + " is not a number: " + attribute);
+            }
         }
-    }
 
-    private static void addedDigitWithGenderToContainer(int number, @Nonnull EnumMap<Gender, EnumMap<Cases, String>> declineGenders) {
-        for (Gender gender : declineGenders.keySet()) {
-            EnumMap<Cases, String> declines = declineGenders.get(gender);
-            for (Cases caseType : declines.keySet()) {
-                String decline = declines.get(caseType);
-                DeclineData.addDigitWithGender(number, gender, caseType, decline);
+        @Nonnull
+        private int[] getIntsAttribute(@Nonnull String name) {
+            String attribute = getAttribute(name);
+            String[] values = attribute.split(",");
+            int[] numbers = new int[values.length];
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    numbers[i] = Integer.parseInt(values[i].trim());
+                }
+            } catch (NumberFormatException e) {
+                throw error("Attribute " + name + " is not a list of numbers: " + attribute);
             }
+            return numbers;
         }
 
-    }
-
-    private static EnumMap<Gender, EnumMap<Cases, String>> parseGender(@Nonnull Node node) {
-        EnumMap<Gender, EnumMap<Cases, String>> declineGender = new EnumMap<>(Gender.class);
-        Element element = (Element) node;
-        Node male = element.getElementsByTagName("male").item(0);
-        Node female = element.getElementsByTagName("female").item(0);
-        Node neuter = element.getElementsByTagName("neuter").item(0);
-
-        EnumMap<Cases, String> maleCases = parseCases((Element) male);
-        EnumMap<Cases, String> femaleCases = parseCases((Element) female);
-        EnumMap<Cases, String> neuterCases = parseCases((Element) neuter);
-
-        declineGender.put(Gender.MALE, maleCases);
-        declineGender.put(Gender.FEMALE, femaleCases);
-        declineGender.put(Gender.NEUTER, neuterCases);
-        return declineGender;
-    }
-
-    private static EnumMap<Cases, String> parseCases(@Nonnull Element node) {
-        EnumMap<Cases, String> cases = new EnumMap<>(Cases.class);
-        Node casesNode = node.getElementsByTagName("cases").item(0);
-        for (Cases enumCase : Cases.values()) {
-            NodeList caseElement = ((Element) casesNode).getElementsByTagName(enumCase.name());
-            String caseWord = ((Element) caseElement.item(0)).getAttribute("value");
-            cases.put(enumCase, caseWord);
+        @Nonnull
+        private DeclineLoadException error(@Nonnull String message) {
+            Location location = reader.getLocation();
+            return new DeclineLoadException(source, location.getLineNumber(), location.getColumnNumber(), message);
         }
-        return cases;
     }
 
     private enum Types {
@@ -222,6 +545,9 @@ public final class DeclineXmlLoader {
         NUMBERS,
         DECADES,
         HUNDREDS,
-        WORDS
+        WORDS,
+        ORDINALS,
+        NOUNS,
+        CURRENCIES
     }
 }
@@ -0,0 +1,504 @@
+package com.alexsanderyurevich.server;
+
+import com.alexsanderyurevich.converter.ConversionError;
+import com.alexsanderyurevich.converter.ConversionInput;
+import com.alexsanderyurevich.converter.NumberSpeller;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Conversion server with a line protocol, without the web application.
+ * Every request line is "number case gender", e.g. "21000 GENITIVE MALE", the number may have digit groups
+ * as in {@link ConversionInput}. For every request the server writes a response line in UTF-8 in the same order:
+ * the number in words or "ERROR " and a {@link ConversionError} name.
+ * Clients may send many requests without waiting for responses. Connections are served by a fixed number of
+ * worker threads with a selector each, the buffers of closed connections are reused
+ */
+public final class LineServer implements Closeable {
+    /**
+     * The first command line argument that selects this mode
+     */
+    public static final String COMMAND = "serve";
+    public static final int DEFAULT_PORT = 7070;
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_ERROR = 2;
+
+    private static final String USAGE = "Usage: serve [--port=7070] [--host=0.0.0.0] [--threads=<processors>]";
+    //Число из 19 цифр с разделителями, падеж и род с запасом
+    private static final int MAX_REQUEST_BYTES = 256;
+    private static final int INPUT_BUFFER_SIZE = 16 * 1_024;
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1_024;
+    private static final int MAX_POOLED_CONNECTIONS = 64;
+    private static final byte[][] ERRORS = new byte[ConversionError.values().length][];
+
+    static {
+        for (ConversionError error : ConversionError.values()) {
+            ERRORS[error.ordinal()] = ("ERROR " + error.name()).getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final ServerSocketChannel server;
+    private final Worker[] workers;
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    private LineServer(@Nonnull ServerSocketChannel server, int threads) throws IOException {
+        this.server = server;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(Selector.open());
+        }
+        this.acceptor = new Thread(this::accept, "line-server-acceptor");
+    }
+
+    /**
+     * Starts the server
+     *
+     * @param address address to listen, the port 0 selects a free port
+     * @param threads the number of worker threads
+     * @return the started server
+     * @throws IOException if the address can not be bound
+     */
+    @Nonnull
+    public static LineServer start(@Nonnull InetSocketAddress address, int threads) throws IOException {
+        Objects.requireNonNull(address, "address");
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive");
+        }
+        ServerSocketChannel server = ServerSocketChannel.open();
+        try {
+            server.bind(address);
+            LineServer lineServer = new LineServer(server, threads);
+            for (int i = 0; i < threads; i++) {
+                new Thread(lineServer.workers[i], "line-server-" + i).start();
+            }
+            lineServer.acceptor.start();
+            return lineServer;
+        } catch (IOException | RuntimeException e) {
+            server.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the server with command line arguments until the process is stopped
+     *
+     * @param args arguments after {@link #COMMAND}
+     * @return exit code
+     */
+    public static int run(@Nonnull String[] args) {
+        String host = null;
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--port=")) {
+                    port = Integer.parseInt(getOptionValue(arg));
+                } else if (arg.startsWith("--host=")) {
+                    host = getOptionValue(arg);
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(getOptionValue(arg));
+                } else {
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_ERROR;
+        }
+
+        try {
+            InetSocketAddress address = host == null ? new InetSocketAddress(port) : new InetSocketAddress(host, port);
+            LineServer server = start(address, threads);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            System.out.println("Listening on port " + server.getPort() + " with " + threads + " threads");
+            server.await();
+            return EXIT_OK;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Server failed: " + e);
+            return EXIT_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT_ERROR;
+        }
+    }
+
+    /**
+     * @return the local port of the server
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Waits until the server is closed
+     *
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public void await() throws InterruptedException {
+        acceptor.join();
+    }
+
+    /**
+     * Stops accepting connections and closes open connections
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException e) {
+            //Закрытие сервера не может завершиться ошибкой, которую можно обработать
+        }
+        for (Worker worker : workers) {
+            worker.selector.wakeup();
+        }
+    }
+
+    private void accept() {
+        int next = 0;
+        while (!closed) {
+            try {
+                SocketChannel channel = server.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                //Соединения распределяются между потоками по кругу, остановившиеся потоки пропускаются
+                Worker worker = null;
+                for (int i = 0; i < workers.length && worker == null; i++) {
+                    Worker candidate = workers[next];
+                    next = (next + 1) % workers.length;
+                    if (!candidate.stopped) {
+                        worker = candidate;
+                    }
+                }
+                if (worker == null) {
+                    System.err.println("All workers failed, the server is closed");
+                    closeQuietly(channel);
+                    close();
+                    return;
+                }
+                worker.accepted.add(channel);
+                //Поток мог остановиться после проверки и уже не заберет соединение
+                if (worker.stopped && worker.accepted.remove(channel)) {
+                    closeQuietly(channel);
+                    continue;
+                }
+                worker.selector.wakeup();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (closed) return;
+                System.err.println("Accept failed: " + e);
+            }
+        }
+    }
+
+    @Nonnull
+    private static String getOptionValue(@Nonnull String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    private static void closeQuietly(@Nonnull Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            //Соединение уже не используется
+        }
+    }
+
+    /**
+     * State of a connection, reused for a next connection after close
+     */
+    private static final class Connection {
+        //Режим записи: полученные байты, начиная с неразобранной строки
+        private final ByteBuffer input = ByteBuffer.allocate(INPUT_BUFFER_SIZE);
+        //Режим записи: ответы, еще не отправленные клиенту
+        private final ByteBuffer output = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+        private SocketChannel channel;
+        private boolean finished;
+        //Ответ на слишком длинную строку уже записан, ее байты до перевода строки пропускаются
+        private boolean discarding;
+
+        private void reset(@Nonnull SocketChannel channel) {
+            this.channel = channel;
+            this.finished = false;
+            this.discarding = false;
+            input.clear();
+            output.clear();
+        }
+    }
+
+    /**
+     * Event loop of one thread, serves its connections
+     */
+    private final class Worker implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        private final ArrayDeque<Connection> pool = new ArrayDeque<>();
+        private final ConversionInput conversion = new ConversionInput();
+        //Строка запроса в виде символов и поля строки без копирования
+        private final char[] line = new char[MAX_REQUEST_BYTES];
+        private final CharBuffer number = CharBuffer.wrap(line);
+        private final CharBuffer cases = CharBuffer.wrap(line);
+        private final CharBuffer gender = CharBuffer.wrap(line);
+        private final int[] tokens = new int[MAX_REQUEST_BYTES + 2];
+        //Поток больше не принимает соединения
+        private volatile boolean stopped;
+
+        private Worker(@Nonnull Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    selector.select();
+                    register();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        serve(key);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Worker failed: " + e);
+            } finally {
+                stopped = true;
+                for (SelectionKey key : selector.keys()) {
+                    closeQuietly(key.channel());
+                }
+                for (SocketChannel channel : accepted) {
+                    closeQuietly(channel);
+                }
+                closeQuietly(selector);
+            }
+        }
+
+        private void register() {
+            SocketChannel channel;
+            while ((channel = accepted.poll()) != null) {
+                Connection connection = pool.isEmpty() ? new Connection() : pool.pop();
+                connection.reset(channel);
+                try {
+                    channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    release(connection);
+                }
+            }
+        }
+
+        private void serve(@Nonnull SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isValid() && key.isReadable()) {
+                    if (connection.channel.read(connection.input) < 0) {
+                        connection.finished = true;
+                    }
+                }
+                //Ответы пишутся, пока клиент их принимает, затем разбираются следующие строки
+                boolean full;
+                while ((full = respond(connection)) && write(connection)) {
+                    //Буфер ответов освободился, строки еще есть
+                }
+                write(connection);
+                boolean pending = connection.output.position() > 0;
+                //Соединение закрывается, когда на все строки отправлены ответы
+                if (connection.finished && !pending && connection.input.position() == 0) {
+                    key.cancel();
+                    release(connection);
+                    return;
+                }
+                //Пока ответ не помещается в буфер, новые запросы не читаются
+                boolean readable = !connection.finished && connection.input.hasRemaining() && !full;
+                key.interestOps((readable ? SelectionKey.OP_READ : 0) | (pending ? SelectionKey.OP_WRITE : 0));
+            } catch (IOException e) {
+                key.cancel();
+                release(connection);
+            } catch (RuntimeException e) {
+                //Ошибка одного соединения закрывает только его, поток продолжает обслуживать остальные
+                System.err.println("Connection failed: " + e);
+                key.cancel();
+                release(connection);
+            }
+        }
+
+        /**
+         * Converts the complete request lines while there is room for responses
+         *
+         * @return {@code true} if it stopped because the output buffer is full
+         */
+        private boolean respond(@Nonnull Connection connection) {
+            ByteBuffer input = connection.input;
+            ByteBuffer output = connection.output;
+            byte[] bytes = input.array();
+            int start = 0;
+            int end = input.position();
+            boolean full = false;
+            if (connection.discarding) {
+                while (start < end && bytes[start] != '\n') start++;
+                if (start == end) {
+                    input.position(0);
+                    return false;
+                }
+                connection.discarding = false;
+                start++;
+            }
+            for (int i = start; i < end; i++) {
+                if (bytes[i] != '\n') continue;
+                if (!respond(bytes, start, i, output)) {
+                    full = true;
+                    break;
+                }
+                start = i + 1;
+            }
+            int rest = end - start;
+            if (!full && rest > 0) {
+                if (rest > MAX_REQUEST_BYTES) {
+                    //Строка длиннее любого запроса получает ответ сразу, остаток строки пропускается,
+                    //как если бы она пришла целиком
+                    if (respond(bytes, start, end, output)) {
+                        connection.discarding = !connection.finished;
+                        rest = 0;
+                    } else {
+                        full = true;
+                    }
+                } else if (connection.finished) {
+                    //Последняя строка без перевода строки, ждет места в буфере ответов, как и остальные
+                    if (respond(bytes, start, end, output)) {
+                        rest = 0;
+                    } else {
+                        full = true;
+                    }
+                }
+            }
+            System.arraycopy(bytes, start, bytes, 0, rest);
+            input.position(rest);
+            return full;
+        }
+
+        /**
+         * Writes the response to the request line, if it fits into the output buffer
+         *
+         * @return {@code false} if there is no room for the response, nothing is written then
+         */
+        private boolean respond(@Nonnull byte[] bytes, int from, int to, @Nonnull ByteBuffer output) {
+            if (to > from && bytes[to - 1] == '\r') {
+                to--;
+            }
+            NumberSpeller speller = NumberSpeller.current();
+            byte[] error;
+            int length;
+            if (to - from > MAX_REQUEST_BYTES) {
+                error = ERRORS[ConversionError.INVALID_NUMBER.ordinal()];
+                length = error.length;
+            } else if (read(bytes, from, to, speller)) {
+                //Длина зависит от слов словаря, ответ пишется, только если помещается целиком
+                error = null;
+                length = speller.utf8Length(conversion.getNumber(), conversion.getCases(), conversion.getGender());
+            } else {
+                error = ERRORS[conversion.getError().ordinal()];
+                length = error.length;
+            }
+            if (length + 1 > output.capacity()) {
+                throw new IllegalStateException("The response of " + length + " bytes exceeds the output buffer");
+            }
+            if (output.remaining() < length + 1) {
+                return false;
+            }
+            if (error == null) {
+                speller.writeUtf8(conversion.getNumber(), conversion.getCases(), conversion.getGender(), output);
+            } else {
+                output.put(error);
+            }
+            output.put((byte) '\n');
+            return true;
+        }
+
+        private boolean read(@Nonnull byte[] bytes, int from, int to, @Nonnull NumberSpeller speller) {
+            int length = to - from;
+            for (int i = 0; i < length; i++) {
+                //Запрос в ASCII, остальные байты дают ошибку числа или имени
+                line[i] = (char) (bytes[from + i] & 0xFF);
+            }
+            //[word * 2] - начало слова, [word * 2 + 1] - конец
+            int words = 0;
+            int i = 0;
+            while (i < length) {
+                while (i < length && isBlank(line[i])) i++;
+                if (i == length) break;
+                tokens[2 * words] = i;
+                while (i < length && !isBlank(line[i])) i++;
+                tokens[2 * words + 1] = i;
+                words++;
+            }
+            //Два последних слова - падеж и род, остальное - число, в котором могут быть пробелы между разрядами
+            int numberWords = words >= 3 ? words - 2 : Math.min(words, 1);
+            slice(number, numberWords > 0 ? tokens[0] : 0, numberWords > 0 ? tokens[2 * numberWords - 1] : 0);
+            sliceWord(cases, numberWords, words);
+            sliceWord(gender, numberWords + 1, words);
+            return conversion.read(number, cases, gender, speller);
+        }
+
+        private boolean isBlank(char c) {
+            return c == ' ' || c == '\t';
+        }
+
+        private void sliceWord(@Nonnull CharBuffer buffer, int word, int words) {
+            if (word < words) {
+                slice(buffer, tokens[2 * word], tokens[2 * word + 1]);
+            } else {
+                slice(buffer, 0, 0);
+            }
+        }
+
+        private void slice(@Nonnull CharBuffer buffer, int from, int to) {
+            buffer.clear();
+            buffer.limit(to);
+            buffer.position(from);
+        }
+
+        /**
+         * Writes the responses to the client
+         *
+         * @return {@code true} if all responses are written
+         */
+        private boolean write(@Nonnull Connection connection) throws IOException {
+            ByteBuffer output = connection.output;
+            if (output.position() == 0) {
+                return true;
+            }
+            output.flip();
+            connection.channel.write(output);
+            output.compact();
+            return output.position() == 0;
+        }
+
+        private void release(@Nonnull Connection connection) {
+            closeQuietly(connection.channel);
+            connection.channel = null;
+            if (pool.size() < MAX_POOLED_CONNECTIONS) {
+                pool.push(connection);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.alexsanderyurevich.web.config;
+
+import com.alexsanderyurevich.web.filter.AdmissionFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers {@link AdmissionFilter} for conversion requests if the property {@value #MAX_CONCURRENT_PROPERTY} is set.
+ * The queue is set with {@code decline.admission.max-queued} (by default as many as the limit),
+ * {@code decline.admission.max-wait} in milliseconds and {@code decline.admission.retry-after} in seconds.
+ * The filter is published as {@code decline.admission.active}, {@code decline.admission.queued}
+ * and {@code decline.admission.rejected} by {@code reason}
+ */
+@Configuration
+public class AdmissionConfiguration {
+    public static final String MAX_CONCURRENT_PROPERTY = "decline.admission.max-concurrent";
+
+    @Bean
+    @ConditionalOnProperty(MAX_CONCURRENT_PROPERTY)
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(
+            @Value("${" + MAX_CONCURRENT_PROPERTY + "}") int maxConcurrent,
+            @Value("${decline.admission.max-queued:${" + MAX_CONCURRENT_PROPERTY + "}}") int maxQueued,
+            @Value("${decline.admission.max-wait:100}") long maxWait,
+            @Value("${decline.admission.retry-after:1}") int retryAfter,
+            MeterRegistry registry) {
+        AdmissionFilter filter = new AdmissionFilter(maxConcurrent, maxQueued, maxWait, retryAfter);
+        Gauge.builder("decline.admission.active", filter, AdmissionFilter::getActive)
+                .description("Conversion requests being processed").register(registry);
+        Gauge.builder("decline.admission.queued", filter, AdmissionFilter::getQueued)
+                .description("Conversion requests waiting for processing").register(registry);
+        FunctionCounter.builder("decline.admission.rejected", filter, AdmissionFilter::getRejectedQueueFull)
+                .tag("reason", "queue_full").register(registry);
+        FunctionCounter.builder("decline.admission.rejected", filter, AdmissionFilter::getRejectedTimeout)
+                .tag("reason", "timeout").register(registry);
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(filter);
+        //Отказ до разбора запроса и до остальных фильтров
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,33 @@
+package com.alexsanderyurevich.web.config;
+
+import com.alexsanderyurevich.converter.ConversionCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Creates {@link ConversionCache} for the current dictionary if the property {@value #CAPACITY_PROPERTY} is set.
+ * Without the property numbers are converted on every request.
+ * The counters of the cache are published as {@code decline.cache.gets} by {@code result} and {@code decline.cache.evictions}
+ */
+@Configuration
+public class CacheConfiguration {
+    public static final String CAPACITY_PROPERTY = "decline.cache.capacity";
+
+    @Bean
+    @ConditionalOnProperty(CAPACITY_PROPERTY)
+    public ConversionCache conversionCache(@Value("${" + CAPACITY_PROPERTY + "}") int capacity, MeterRegistry registry) {
+        ConversionCache cache = new ConversionCache(capacity);
+        FunctionCounter.builder("decline.cache.gets", cache, ConversionCache::getHits)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("decline.cache.gets", cache, ConversionCache::getMisses)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("decline.cache.evictions", cache, ConversionCache::getEvictions).register(registry);
+        Gauge.builder("decline.cache.capacity", cache, ConversionCache::getCapacity).register(registry);
+        return cache;
+    }
+}
@@ -0,0 +1,62 @@
+package com.alexsanderyurevich.web.config;
+
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.loader.DeclineDictionaryLoader;
+import com.alexsanderyurevich.loader.DeclineImageLoader;
+import com.alexsanderyurevich.loader.DeclineLoadException;
+import com.alexsanderyurevich.web.controller.DictionaryAdminController;
+import com.alexsanderyurevich.web.metrics.ConversionMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import java.nio.file.Paths;
+
+/**
+ * Loads the dictionary of the application when the application context starts, before requests are served.
+ * If the property {@value #IMAGE_PROPERTY} is set, the dictionary is loaded from that binary image
+ * and an invalid image fails the startup. Otherwise the bundled dictionary is loaded, unless a dictionary
+ * is already published, e.g. from {@code decline.dictionary.path}. The image and the path can not be set together.
+ * The load is recorded in {@value ConversionMetrics#LOAD}
+ */
+@Configuration
+public class DictionaryConfiguration {
+    public static final String IMAGE_PROPERTY = "decline.dictionary.image";
+
+    private final String image;
+    private final ConversionMetrics metrics;
+
+    public DictionaryConfiguration(@Value("${" + IMAGE_PROPERTY + ":}") @Nonnull String image,
+                                   @Value("${" + DictionaryAdminController.PATH_PROPERTY + ":}") @Nonnull String path,
+                                   @Nonnull ConversionMetrics metrics) {
+        //Иначе словарь из файла молча заменил бы образ
+        if (!image.isEmpty() && !path.isEmpty()) {
+            throw new IllegalStateException("Set either " + IMAGE_PROPERTY + " or "
+                    + DictionaryAdminController.PATH_PROPERTY + ", not both");
+        }
+        this.image = image;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Loads the dictionary of the application
+     *
+     * @throws DeclineLoadException if the image can not be read or is not a valid image
+     */
+    @PostConstruct
+    public void loadDictionary() {
+        if (image.isEmpty() && DeclineData.isLoaded()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            DeclineData.setDictionary(image.isEmpty() ? DeclineDictionaryLoader.loadDictionary()
+                    : DeclineImageLoader.loadDictionary(Paths.get(image)));
+            metrics.recordLoad(true, System.nanoTime() - start);
+        } catch (DeclineLoadException e) {
+            metrics.recordLoad(false, System.nanoTime() - start);
+            throw e;
+        }
+    }
+}
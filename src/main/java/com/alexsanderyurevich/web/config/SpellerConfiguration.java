@@ -0,0 +1,56 @@
+package com.alexsanderyurevich.web.config;
+
+import com.alexsanderyurevich.converter.SpellerRegistry;
+import com.alexsanderyurevich.data.Dictionary;
+import com.alexsanderyurevich.loader.DeclineImageLoader;
+import com.alexsanderyurevich.loader.DeclineLoadException;
+import com.alexsanderyurevich.web.metrics.ConversionMetrics;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Registers dictionaries in {@link SpellerRegistry}.
+ * The dictionary of the application is registered as {@value #DEFAULT_DICTIONARY},
+ * additional dictionaries are XML or image files set with properties {@code decline.dictionaries.<name>=<path>}
+ * and are loaded on first use
+ */
+@Configuration
+public class SpellerConfiguration {
+    public static final String DEFAULT_DICTIONARY = "ru";
+    private static final String DICTIONARIES_PROPERTY = "decline.dictionaries";
+
+    @Bean
+    public SpellerRegistry spellerRegistry(Environment environment, ConversionMetrics metrics) {
+        SpellerRegistry registry = new SpellerRegistry().registerCurrent(DEFAULT_DICTIONARY);
+        Map<String, String> files = Binder.get(environment)
+                .bind(DICTIONARIES_PROPERTY, Bindable.mapOf(String.class, String.class))
+                .orElse(Collections.emptyMap());
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            Path path = Paths.get(file.getValue());
+            registry.register(file.getKey(), () -> load(path, metrics));
+        }
+        return registry;
+    }
+
+    @Nonnull
+    private static Dictionary load(@Nonnull Path path, @Nonnull ConversionMetrics metrics) {
+        long start = System.nanoTime();
+        try {
+            Dictionary dictionary = DeclineImageLoader.loadDictionaryFile(path);
+            metrics.recordLoad(true, System.nanoTime() - start);
+            return dictionary;
+        } catch (DeclineLoadException e) {
+            metrics.recordLoad(false, System.nanoTime() - start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.alexsanderyurevich.web.controller;
+
+import com.alexsanderyurevich.converter.ConversionError;
+import com.alexsanderyurevich.converter.ConversionInput;
+import com.alexsanderyurevich.converter.NumberSpeller;
+import com.alexsanderyurevich.converter.SpellerRegistry;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.web.metrics.ConversionMetrics;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletResponse;
+import java.io.FilterInputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts a stream of records {@code {"number":..., "caseType":..., "gender":...}}.
+ * The request is a JSON array or NDJSON, the response is NDJSON with one line per record in the same order.
+ * Records are read, converted and written one by one, neither the request nor the response is buffered whole:
+ * the response is flushed whenever the next record has not arrived yet.
+ * The optional parameter {@code dictionary} selects a dictionary of {@link SpellerRegistry}.
+ * A request converts at most {@value #MAX_RECORDS_PROPERTY} records, {@value #DEFAULT_MAX_RECORDS} by default,
+ * the rest of it is not read and the last line of the response is the error {@code TOO_MANY_RECORDS}.
+ * The cap bounds the work, and the admission permit, of one batch request; 0 removes it
+ */
+@RestController
+public final class ConversionApiController {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String MAX_RECORDS_PROPERTY = "decline.api.max-records";
+    public static final int DEFAULT_MAX_RECORDS = 10_000;
+    private static final Cases[] CASES = Cases.values();
+    private static final Gender[] GENDERS = Gender.values();
+    //Буфер результата на запрос; результат длиннее получает отдельный буфер
+    private static final int RESULT_BUFFER_SIZE = 1_024;
+
+    private final JsonFactory jsonFactory;
+    private final SpellerRegistry spellerRegistry;
+    private final ConversionMetrics metrics;
+    //0 - без ограничения
+    private final int maxRecords;
+
+    public ConversionApiController(@Nonnull ObjectMapper objectMapper, @Nonnull SpellerRegistry spellerRegistry,
+                                   @Nonnull ConversionMetrics metrics,
+                                   @Value("${" + MAX_RECORDS_PROPERTY + ":" + DEFAULT_MAX_RECORDS + "}") int maxRecords) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.spellerRegistry = spellerRegistry;
+        this.metrics = metrics;
+        this.maxRecords = maxRecords;
+    }
+
+    @PostMapping(value = "/api/convert",
+            consumes = {APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = APPLICATION_NDJSON_VALUE)
+    public void convert(@RequestParam(value = "dictionary", required = false) String dictionary,
+                        InputStream body, HttpServletResponse response) throws IOException {
+        NumberSpeller speller;
+        String error = "UNKNOWN_DICTIONARY";
+        String message = "Unknown dictionary " + dictionary;
+        try {
+            speller = dictionary == null ? NumberSpeller.current() : spellerRegistry.findSpeller(dictionary);
+        } catch (IllegalStateException e) {
+            speller = null;
+            error = "DICTIONARY_UNAVAILABLE";
+            message = e.getMessage();
+        }
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        if (speller == null) {
+            metrics.recordError(error);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            try (JsonGenerator generator = jsonFactory.createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                generator.writeStringField("error", error);
+                generator.writeStringField("message", message);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            return;
+        }
+        try (JsonGenerator generator = jsonFactory.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+             JsonParser parser = jsonFactory.createParser(new FlushingInputStream(body, generator))) {
+            //Каждая строка завершается сразу, чтобы ее можно было отправить до следующей записи
+            generator.setRootValueSeparator(null);
+            ByteBuffer buffer = ByteBuffer.allocate(RESULT_BUFFER_SIZE);
+            ConversionRecord record = new ConversionRecord();
+            int index = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new JsonParseException(parser, "Expected a record object");
+                    }
+                    if (index == maxRecords && maxRecords > 0) {
+                        metrics.recordError("TOO_MANY_RECORDS");
+                        generator.writeStartObject();
+                        generator.writeNumberField("index", index);
+                        generator.writeStringField("error", "TOO_MANY_RECORDS");
+                        generator.writeStringField("message", "At most " + maxRecords + " records per request");
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                        break;
+                    }
+                    record.read(parser);
+                    writeResult(generator, speller, index++, record, buffer);
+                    generator.writeRaw('\n');
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                metrics.recordError("MALFORMED_REQUEST");
+                //Ответ уже мог быть частично отправлен, поэтому ошибку пишем последней строкой
+                generator.writeStartObject();
+                generator.writeNumberField("index", index);
+                generator.writeStringField("error", "MALFORMED_REQUEST");
+                generator.writeStringField("message", e.getOriginalMessage());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeResult(@Nonnull JsonGenerator generator, @Nonnull NumberSpeller speller, int index,
+                             @Nonnull ConversionRecord record, @Nonnull ByteBuffer buffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        ConversionError error = record.getError();
+        if (error == null && !speller.isInRange(record.number)) {
+            error = ConversionError.OUT_OF_RANGE;
+        }
+        if (error == null) {
+            generator.writeNumberField("number", record.number);
+            long start = System.nanoTime();
+            int length = speller.utf8Length(record.number, record.cases, record.gender);
+            ByteBuffer result = length <= buffer.capacity() ? buffer : ByteBuffer.allocate(length);
+            result.clear();
+            speller.writeUtf8(record.number, record.cases, record.gender, result);
+            metrics.recordConversion(record.number, record.cases, record.gender, System.nanoTime() - start);
+            generator.writeFieldName("result");
+            generator.writeUTF8String(result.array(), 0, length);
+        } else {
+            metrics.recordError(error);
+            generator.writeStringField("error", error.name());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Request stream that flushes the response before a read that would block.
+     * The parser reads the request in large chunks, so the response is flushed only when the parsed records
+     * are used up and the next ones have not arrived yet, not after every record
+     */
+    private static final class FlushingInputStream extends FilterInputStream {
+        private final Flushable response;
+
+        private FlushingInputStream(@Nonnull InputStream in, @Nonnull Flushable response) {
+            super(in);
+            this.response = response;
+        }
+
+        @Override
+        public int read() throws IOException {
+            flushIfBlocking();
+            return super.read();
+        }
+
+        @Override
+        public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+            flushIfBlocking();
+            return super.read(b, off, len);
+        }
+
+        private void flushIfBlocking() throws IOException {
+            if (in.available() == 0) {
+                response.flush();
+            }
+        }
+    }
+
+    /**
+     * Record of the request, reused for every record of a stream
+     */
+    private static final class ConversionRecord {
+        private long number;
+        private Cases cases;
+        private Gender gender;
+        private ConversionError numberError;
+        private ConversionError casesError;
+        private ConversionError genderError;
+
+        private void read(@Nonnull JsonParser parser) throws IOException {
+            numberError = casesError = genderError = ConversionError.MISSING_ARGUMENT;
+            cases = null;
+            gender = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "number": {
+                        readNumber(parser, value);
+                        break;
+                    }
+                    case "caseType": {
+                        cases = value == JsonToken.VALUE_STRING ? ConversionInput.find(CASES, parser.getText()) : null;
+                        casesError = cases != null ? null
+                                : value == JsonToken.VALUE_NULL ? ConversionError.MISSING_ARGUMENT : ConversionError.INVALID_CASE;
+                        break;
+                    }
+                    case "gender": {
+                        gender = value == JsonToken.VALUE_STRING ? ConversionInput.find(GENDERS, parser.getText()) : null;
+                        genderError = gender != null ? null
+                                : value == JsonToken.VALUE_NULL ? ConversionError.MISSING_ARGUMENT : ConversionError.INVALID_GENDER;
+                        break;
+                    }
+                    default: {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+
+        private void readNumber(@Nonnull JsonParser parser, @Nonnull JsonToken value) throws IOException {
+            if (value == JsonToken.VALUE_NULL) {
+                numberError = ConversionError.MISSING_ARGUMENT;
+            } else if (value != JsonToken.VALUE_NUMBER_INT) {
+                parser.skipChildren();
+                numberError = ConversionError.INVALID_NUMBER;
+            } else if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                numberError = ConversionError.OUT_OF_RANGE;
+            } else {
+                number = parser.getLongValue();
+                numberError = null;
+            }
+        }
+
+        @Nullable
+        private ConversionError getError() {
+            if (numberError != null) {
+                return numberError;
+            }
+            return casesError != null ? casesError : genderError;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.alexsanderyurevich.web.controller;
+
+import com.alexsanderyurevich.converter.ConversionCache;
+import com.alexsanderyurevich.converter.ConversionError;
+import com.alexsanderyurevich.converter.ConversionInput;
+import com.alexsanderyurevich.converter.NumberSpeller;
+import com.alexsanderyurevich.converter.SpellerRegistry;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.web.metrics.ConversionMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a single number given with query parameters, e.g.
+ * {@code GET /api/convert?number=21000&caseType=GENITIVE&gender=MALE}.
+ * A result depends only on the parameters and the words of the dictionary, so the response has a strong ETag
+ * of the dictionary content and may be cached for {@code decline.http.max-age} seconds.
+ * A request with a matching {@code If-None-Match} gets 304 without conversion
+ */
+@RestController
+public final class ConversionLookupController {
+    public static final String MAX_AGE_PROPERTY = "decline.http.max-age";
+
+    private final SpellerRegistry spellerRegistry;
+    //null, если кэш не настроен
+    private final ConversionCache cache;
+    private final ConversionMetrics metrics;
+    private final CacheControl cacheControl;
+
+    public ConversionLookupController(@Nonnull SpellerRegistry spellerRegistry,
+                                      @Nonnull ObjectProvider<ConversionCache> cache,
+                                      @Nonnull ConversionMetrics metrics,
+                                      @Value("${" + MAX_AGE_PROPERTY + ":86400}") long maxAge) {
+        this.spellerRegistry = spellerRegistry;
+        this.cache = cache.getIfAvailable();
+        this.metrics = metrics;
+        this.cacheControl = CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic();
+    }
+
+    @GetMapping("/api/convert")
+    public ResponseEntity<Map<String, Object>> convert(@RequestParam(value = "number", required = false) String number,
+                                                       @RequestParam(value = "caseType", required = false) String caseType,
+                                                       @RequestParam(value = "gender", required = false) String gender,
+                                                       @RequestParam(value = "dictionary", required = false) String dictionary,
+                                                       WebRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        NumberSpeller speller;
+        try {
+            speller = dictionary == null ? NumberSpeller.current() : spellerRegistry.findSpeller(dictionary);
+        } catch (IllegalStateException e) {
+            metrics.recordError("DICTIONARY_UNAVAILABLE");
+            body.put("error", "DICTIONARY_UNAVAILABLE");
+            body.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(body);
+        }
+        if (speller == null) {
+            metrics.recordError("UNKNOWN_DICTIONARY");
+            body.put("error", "UNKNOWN_DICTIONARY");
+            body.put("message", "Unknown dictionary " + dictionary);
+            return ResponseEntity.badRequest().body(body);
+        }
+        ConversionInput input = new ConversionInput();
+        if (!input.read(number, caseType, gender, speller)) {
+            ConversionError error = input.getError();
+            metrics.recordError(error);
+            body.put("error", error.name());
+            return ResponseEntity.badRequest().body(body);
+        }
+        //Одинаковые формы словаря дают одинаковый результат, ETag не зависит от перезапуска приложения
+        String etag = "\"" + Long.toHexString(speller.getDictionary().getContentHash()) + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        long value = input.getNumber();
+        Cases cases = input.getCases();
+        Gender genderValue = input.getGender();
+        long start = System.nanoTime();
+        //Результат строится тем же словарем, что и ETag, даже если словарь только что заменили
+        String result = cache != null && dictionary == null ? cache.convert(speller, value, cases, genderValue)
+                : speller.convert(value, cases, genderValue);
+        metrics.recordConversion(value, cases, genderValue, System.nanoTime() - start);
+        body.put("number", value);
+        body.put("result", result);
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body);
+    }
+}
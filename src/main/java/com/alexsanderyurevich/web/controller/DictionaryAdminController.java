@@ -0,0 +1,110 @@
+package com.alexsanderyurevich.web.controller;
+
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.data.Dictionary;
+import com.alexsanderyurevich.loader.DeclineImageLoader;
+import com.alexsanderyurevich.loader.DeclineLoadException;
+import com.alexsanderyurevich.web.metrics.ConversionMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Loads the declension dictionary from the file {@code decline.dictionary.path}, XML or a binary image,
+ * at startup and reloads it without restarting the application.
+ * An invalid file fails the startup. The new dictionary of a reload is loaded off to the side and replaces the current one at once,
+ * an invalid file leaves the current dictionary in place.
+ * A reload must present the token {@value #RELOAD_TOKEN_PROPERTY} in the header {@value #RELOAD_TOKEN_HEADER},
+ * without the property reloads are disabled.
+ * The controller exists only if the path is set
+ */
+@RestController
+@ConditionalOnProperty(DictionaryAdminController.PATH_PROPERTY)
+public final class DictionaryAdminController {
+    public static final String PATH_PROPERTY = "decline.dictionary.path";
+    public static final String RELOAD_TOKEN_PROPERTY = "decline.dictionary.reload-token";
+    public static final String RELOAD_TOKEN_HEADER = "X-Reload-Token";
+
+    private final Path file;
+    //Пустой массив - перезагрузка отключена
+    private final byte[] reloadToken;
+    private final ConversionMetrics metrics;
+
+    public DictionaryAdminController(@Value("${" + PATH_PROPERTY + "}") @Nonnull String file,
+                                     @Value("${" + RELOAD_TOKEN_PROPERTY + ":}") @Nonnull String reloadToken,
+                                     @Nonnull ConversionMetrics metrics) {
+        this.file = Paths.get(file);
+        this.reloadToken = reloadToken.getBytes(StandardCharsets.UTF_8);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Loads the dictionary from the file before the application starts serving requests
+     *
+     * @throws DeclineLoadException if the file can not be read or is invalid
+     */
+    @PostConstruct
+    public synchronized void load() {
+        DeclineData.setDictionary(loadFile());
+    }
+
+    @GetMapping("/admin/dictionary")
+    public Map<String, Object> getDictionary() {
+        return describe(DeclineData.getDictionary());
+    }
+
+    @PostMapping("/admin/dictionary/reload")
+    public synchronized ResponseEntity<Map<String, Object>> reload(
+            @RequestHeader(value = RELOAD_TOKEN_HEADER, required = false) String token) {
+        //Сравнение за постоянное время, чтобы время ответа не выдавало совпавший префикс
+        if (reloadToken.length == 0 || token == null
+                || !MessageDigest.isEqual(reloadToken, token.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Dictionary dictionary;
+        try {
+            dictionary = loadFile();
+        } catch (DeclineLoadException e) {
+            Map<String, Object> body = describe(DeclineData.getDictionary());
+            body.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(body);
+        }
+        DeclineData.setDictionary(dictionary);
+        return ResponseEntity.ok(describe(dictionary));
+    }
+
+    @Nonnull
+    private Dictionary loadFile() {
+        long start = System.nanoTime();
+        try {
+            Dictionary dictionary = DeclineImageLoader.loadDictionaryFile(file);
+            metrics.recordLoad(true, System.nanoTime() - start);
+            return dictionary;
+        } catch (DeclineLoadException e) {
+            metrics.recordLoad(false, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Nonnull
+    private Map<String, Object> describe(@Nonnull Dictionary dictionary) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("file", file.toString());
+        body.put("version", dictionary.getVersion());
+        return body;
+    }
+}
@@ -1,8 +1,14 @@
 package com.alexsanderyurevich.web.controller;
 
+import com.alexsanderyurevich.converter.ConversionCache;
+import com.alexsanderyurevich.converter.ConversionError;
+import com.alexsanderyurevich.converter.ConversionInput;
 import com.alexsanderyurevich.converter.Converter;
+import com.alexsanderyurevich.converter.NumberSpeller;
 import com.alexsanderyurevich.data.DeclineData;
 import com.alexsanderyurevich.web.forms.NumberForm;
+import com.alexsanderyurevich.web.metrics.ConversionMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +17,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 
 @Controller
 public final class MainPageController {
+    //null, если кэш не настроен
+    private final ConversionCache cache;
+    private final ConversionMetrics metrics;
+
+    public MainPageController(ObjectProvider<ConversionCache> cache, ConversionMetrics metrics) {
+        this.cache = cache.getIfAvailable();
+        this.metrics = metrics;
+    }
 
     @GetMapping(value = {"/", "/index"})
     public String showPage(Model model) {
@@ -20,15 +34,24 @@ public final class MainPageController {
 
     @PostMapping(value = {"/", "/index"})
     public String convertNumber(Model model, @ModelAttribute("form") NumberForm numberForm) {
-        try {
-            DeclineData.Cases caseType = Enum.valueOf(DeclineData.Cases.class, numberForm.getCaseType());
-            DeclineData.Gender gender = Enum.valueOf(DeclineData.Gender.class, numberForm.getGender());
-            String result = Converter.convert(Long.valueOf(numberForm.getNumber()), caseType, gender);
-            model.addAttribute("result", result);
-        } catch (Exception e) {
-            e.printStackTrace();
+        //Ошибки ввода возвращаются кодом, без исключений
+        ConversionInput input = new ConversionInput();
+        if (!input.read(numberForm.getNumber(), numberForm.getCaseType(), numberForm.getGender(),
+                NumberSpeller.current())) {
+            ConversionError error = input.getError();
+            metrics.recordError(error);
+            model.addAttribute("error", error.name());
             model.addAttribute("result", "Please, try again");
+            return "index";
         }
+        long number = input.getNumber();
+        DeclineData.Cases caseType = input.getCases();
+        DeclineData.Gender gender = input.getGender();
+        long start = System.nanoTime();
+        String result = cache == null ? Converter.convert(number, caseType, gender)
+                : cache.convert(number, caseType, gender);
+        metrics.recordConversion(number, caseType, gender, System.nanoTime() - start);
+        model.addAttribute("result", result);
         return "index";
     }
 }
@@ -0,0 +1,146 @@
+package com.alexsanderyurevich.web.filter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.Nonnull;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of conversion requests processed at once. A request over the limit waits in a bounded queue
+ * for at most the given time, in the order of arrival. If the queue is full or the wait is over, the request
+ * is rejected at once with 429 and {@code Retry-After}, so a burst does not pile up in the threads of the server
+ */
+public final class AdmissionFilter extends OncePerRequestFilter {
+    /**
+     * Paths of conversion requests, other requests are not limited
+     */
+    public static final Set<String> PATHS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("/", "/index", "/api/convert")));
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final String retryAfter;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder queueFull = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param maxConcurrent     the number of requests processed at once
+     * @param maxQueued         the number of requests waiting for processing, 0 rejects every request over the limit
+     * @param maxWaitMillis     the longest wait in the queue in milliseconds
+     * @param retryAfterSeconds the value of {@code Retry-After} of rejected requests
+     */
+    public AdmissionFilter(int maxConcurrent, int maxQueued, long maxWaitMillis, int retryAfterSeconds) {
+        if (maxConcurrent < 1 || maxQueued < 0 || maxWaitMillis < 0 || retryAfterSeconds < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.retryAfter = Integer.toString(retryAfterSeconds);
+        //Очередь справедливая: ожидающие запросы получают разрешение в порядке прихода
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * @return the number of requests being processed
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * @return the number of requests waiting in the queue
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return the number of requests rejected because the queue was full
+     */
+    public long getRejectedQueueFull() {
+        return queueFull.sum();
+    }
+
+    /**
+     * @return the number of requests rejected because the wait was over
+     */
+    public long getRejectedTimeout() {
+        return timedOut.sum();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!admit(request, response)) {
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean admit(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response)
+            throws IOException {
+        try {
+            //Свободное разрешение берется сразу, но не раньше ожидающих в очереди
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                queueFull.increment();
+                reject(request, response);
+                return false;
+            }
+            try {
+                if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        timedOut.increment();
+        reject(request, response);
+        return false;
+    }
+
+    private void reject(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", retryAfter);
+        if (request.getRequestURI().startsWith(request.getContextPath() + "/api/")) {
+            response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+            response.getWriter().write("{\"error\":\"OVERLOADED\"}\n");
+        } else {
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8");
+            response.getWriter().write("The server is busy, please try again later\n");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.alexsanderyurevich.web.metrics;
+
+import com.alexsanderyurevich.converter.ConversionError;
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of conversions and of the dictionary:
+ * <ul>
+ * <li>{@value #CONVERSION} - latency of a conversion by {@code case}, {@code gender} and {@code magnitude}</li>
+ * <li>{@value #ERRORS} - failed conversions by {@code type}</li>
+ * <li>{@value #LOAD} - loads of dictionaries at startup and from files by {@code result}</li>
+ * <li>{@code decline.dictionary.*} - version, scales, nouns and entries of the current dictionary</li>
+ * </ul>
+ */
+@Component
+public final class ConversionMetrics {
+    public static final String CONVERSION = "decline.conversion";
+    public static final String ERRORS = "decline.conversion.errors";
+    public static final String LOAD = "decline.dictionary.load";
+    //Величина числа по старшему разряду, все значения long укладываются в квинтиллионы
+    private static final String[] MAGNITUDES = {"units", "thousands", "millions", "billions", "trillions",
+            "quadrillions", "quintillions"};
+    private static final long[] MAGNITUDE_BOUNDS = {1_000L, 1_000_000L, 1_000_000_000L, 1_000_000_000_000L,
+            1_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+    private static final Duration MIN_CONVERSION = Duration.ofNanos(100);
+    private static final Duration MAX_CONVERSION = Duration.ofMillis(10);
+    private static final Cases[] CASES = Cases.values();
+    private static final Gender[] GENDERS = Gender.values();
+    private static final ConversionError[] CONVERSION_ERRORS = ConversionError.values();
+    //Ошибки запроса, а не отдельного числа
+    private static final String[] REQUEST_ERRORS = {"UNKNOWN_DICTIONARY", "DICTIONARY_UNAVAILABLE", "TOO_MANY_RECORDS",
+            "MALFORMED_REQUEST"};
+
+    private final MeterRegistry registry;
+    //Таймеры создаются заранее, чтобы запись замера не искала метр по тегам: [cases][gender][magnitude]
+    private final Timer[][][] conversionTimers;
+    //Счетчики ошибок тоже создаются заранее: ошибочный ввод не должен стоить дороже конвертации
+    private final Counter[] conversionErrors;
+    private final Map<String, Counter> requestErrors;
+    private final Timer loadSuccess;
+    private final Timer loadFailure;
+
+    public ConversionMetrics(@Nonnull MeterRegistry registry) {
+        this.registry = registry;
+        this.conversionTimers = new Timer[CASES.length][GENDERS.length][MAGNITUDES.length];
+        for (Cases cases : CASES) {
+            for (Gender gender : GENDERS) {
+                for (int magnitude = 0; magnitude < MAGNITUDES.length; magnitude++) {
+                    conversionTimers[cases.ordinal()][gender.ordinal()][magnitude] = Timer.builder(CONVERSION)
+                            .description("Conversion of a number to words")
+                            .tag("case", cases.name())
+                            .tag("gender", gender.name())
+                            .tag("magnitude", MAGNITUDES[magnitude])
+                            .publishPercentileHistogram()
+                            //Конвертация занимает доли микросекунды, границы по умолчанию (1 мс - 30 с) ее не различают
+                            .minimumExpectedValue(MIN_CONVERSION)
+                            .maximumExpectedValue(MAX_CONVERSION)
+                            .register(registry);
+                }
+            }
+        }
+        this.conversionErrors = new Counter[CONVERSION_ERRORS.length];
+        for (ConversionError error : CONVERSION_ERRORS) {
+            conversionErrors[error.ordinal()] = errorCounter(error.name());
+        }
+        Map<String, Counter> requestErrors = new HashMap<>();
+        for (String error : REQUEST_ERRORS) {
+            requestErrors.put(error, errorCounter(error));
+        }
+        this.requestErrors = requestErrors;
+        this.loadSuccess = loadTimer("success");
+        this.loadFailure = loadTimer("failure");
+        Gauge.builder("decline.dictionary.version", this, m -> DeclineData.getDictionary().getVersion())
+                .description("Version of the current dictionary").register(registry);
+        Gauge.builder("decline.dictionary.scales", this, m -> DeclineData.getDictionary().getMaxScale())
+                .description("The largest scale of the current dictionary").register(registry);
+        Gauge.builder("decline.dictionary.nouns", this, m -> DeclineData.getDictionary().getNounNames().size())
+                .description("Nouns of the current dictionary").register(registry);
+        Gauge.builder("decline.dictionary.entries", this, m -> DeclineData.getDictionary().getEntryCount())
+                .description("Entries of the current dictionary").register(registry);
+    }
+
+    /**
+     * Records a successful conversion
+     *
+     * @param number number
+     * @param cases  cases
+     * @param gender gender
+     * @param nanos  duration of the conversion in nanoseconds
+     */
+    public void recordConversion(long number, @Nonnull Cases cases, @Nonnull Gender gender, long nanos) {
+        conversionTimers[cases.ordinal()][gender.ordinal()][getMagnitude(number)].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a failed conversion
+     *
+     * @param error error of the value
+     */
+    public void recordError(@Nonnull ConversionError error) {
+        conversionErrors[error.ordinal()].increment();
+    }
+
+    /**
+     * Records a failed request
+     *
+     * @param type type of the error, e.g. {@code UNKNOWN_DICTIONARY}
+     */
+    public void recordError(@Nonnull String type) {
+        Counter counter = requestErrors.get(type);
+        (counter != null ? counter : errorCounter(type)).increment();
+    }
+
+    /**
+     * Records a load of a dictionary
+     *
+     * @param success {@code true} if the dictionary is loaded
+     * @param nanos   duration of the load in nanoseconds
+     */
+    public void recordLoad(boolean success, long nanos) {
+        (success ? loadSuccess : loadFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Nonnull
+    private Counter errorCounter(@Nonnull String type) {
+        return Counter.builder(ERRORS)
+                .description("Failed conversions")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    @Nonnull
+    private Timer loadTimer(@Nonnull String result) {
+        return Timer.builder(LOAD)
+                .description("Load of a dictionary at startup or from a file")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static int getMagnitude(long number) {
+        //Модуль Long.MIN_VALUE отрицателен, но это квинтиллионы
+        long value = number == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(number);
+        int magnitude = 0;
+        while (magnitude < MAGNITUDE_BOUNDS.length && value >= MAGNITUDE_BOUNDS[magnitude]) {
+            magnitude++;
+        }
+        return magnitude;
+    }
+}
@@ -0,0 +1,229 @@
+<?xml version="1.0" encoding="UTF-8"?>
+<!-- Генерирует com.alexsanderyurevich.loader.DeclineDictionary из decline.xml -->
+<xsl:stylesheet version="1.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+    <xsl:output method="text" encoding="UTF-8"/>
+
+    <xsl:template match="/types">
+        <xsl:text>package com.alexsanderyurevich.loader;
+
+/**
+ * Declension dictionary generated from decline.xml at build time. Do not edit
+ */
+final class DeclineDictionary {
+    //{digit, gender, case, decline}
+    static final String[][] DIGITS_WITH_GENDER = {
+</xsl:text>
+        <xsl:for-each select="type[@value = 'DIGITS']/digit/gender/*/cases/*">
+            <xsl:call-template name="row">
+                <xsl:with-param name="first" select="ancestor::digit/@value"/>
+                <xsl:with-param name="second" select="translate(name(../..), 'malefntur', 'MALEFNTUR')"/>
+            </xsl:call-template>
+        </xsl:for-each>
+        <xsl:text>    };
+    //{digit, case, decline}
+    static final String[][] DIGITS = {
+</xsl:text>
+        <xsl:apply-templates select="type[@value = 'DIGITS']/digit/cases/*"/>
+        <xsl:text>    };
+    //{number, case, decline}
+    static final String[][] NUMBERS = {
+</xsl:text>
+        <xsl:apply-templates select="type[@value = 'NUMBERS']/number/cases/*"/>
+        <xsl:text>    };
+    //{decade, case, decline}
+    static final String[][] DECADES = {
+</xsl:text>
+        <xsl:apply-templates select="type[@value = 'DECADES']/decade/cases/*"/>
+        <xsl:text>    };
+    //{hundred, case, decline}
+    static final String[][] HUNDREDS = {
+</xsl:text>
+        <xsl:apply-templates select="type[@value = 'HUNDREDS']/hundred/cases/*"/>
+        <xsl:text>    };
+    //{scale, name, gender}
+    static final String[][] SCALES = {
+</xsl:text>
+        <xsl:for-each select="type[@value = 'WORDS']/word">
+            <xsl:text>            {"</xsl:text>
+            <xsl:value-of select="@scale"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="@value"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="@gender"/>
+            <xsl:text>"},
+</xsl:text>
+        </xsl:for-each>
+        <xsl:text>    };
+    //{scale, stem, numbers, case, word end}
+    static final String[][] WORDS = {
+</xsl:text>
+        <xsl:for-each select="type[@value = 'WORDS']/word/end/number/cases/*">
+            <xsl:text>            {"</xsl:text>
+            <xsl:value-of select="ancestor::word/@scale"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:call-template name="escape">
+                <xsl:with-param name="text" select="ancestor::word/@word"/>
+            </xsl:call-template>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="../../@value"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="name()"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:call-template name="escape">
+                <xsl:with-param name="text" select="@value"/>
+            </xsl:call-template>
+            <xsl:text>"},
+</xsl:text>
+        </xsl:for-each>
+        <xsl:text>    };
+    //{number, gender, case, ordinal}
+    static final String[][] ORDINALS = {
+</xsl:text>
+        <xsl:for-each select="type[@value = 'ORDINALS']/ordinal[@value]">
+            <xsl:call-template name="ordinal">
+                <xsl:with-param name="number" select="@value"/>
+            </xsl:call-template>
+        </xsl:for-each>
+        <xsl:text>    };
+    //{scale, gender, case, ordinal}
+    static final String[][] ORDINAL_SCALES = {
+</xsl:text>
+        <xsl:for-each select="type[@value = 'ORDINALS']/ordinal[@scale]">
+            <xsl:call-template name="ordinal">
+                <xsl:with-param name="number" select="@scale"/>
+            </xsl:call-template>
+        </xsl:for-each>
+        <xsl:text>    };
+    //{number, prefix}
+    static final String[][] ORDINAL_PREFIXES = {
+</xsl:text>
+        <xsl:for-each select="type[@value = 'ORDINALS']/ordinal[@prefix]">
+            <xsl:text>            {"</xsl:text>
+            <xsl:value-of select="@value"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:call-template name="escape">
+                <xsl:with-param name="text" select="@prefix"/>
+            </xsl:call-template>
+            <xsl:text>"},
+</xsl:text>
+        </xsl:for-each>
+        <xsl:text>    };
+    //{noun, gender, stem, numbers, case, word end}
+    static final String[][] NOUNS = {
+</xsl:text>
+        <xsl:for-each select="type[@value = 'NOUNS']/noun/end/number/cases/*">
+            <xsl:text>            {"</xsl:text>
+            <xsl:value-of select="ancestor::noun/@value"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="ancestor::noun/@gender"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:call-template name="escape">
+                <xsl:with-param name="text" select="ancestor::noun/@word"/>
+            </xsl:call-template>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="../../@value"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="name()"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:call-template name="escape">
+                <xsl:with-param name="text" select="@value"/>
+            </xsl:call-template>
+            <xsl:text>"},
+</xsl:text>
+        </xsl:for-each>
+        <xsl:text>    };
+    //{currency, major noun, minor noun, minor digits}
+    static final String[][] CURRENCIES = {
+</xsl:text>
+        <xsl:for-each select="type[@value = 'CURRENCIES']/currency">
+            <xsl:text>            {"</xsl:text>
+            <xsl:value-of select="@value"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="@major"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="@minor"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="@digits"/>
+            <xsl:text>"},
+</xsl:text>
+        </xsl:for-each>
+        <xsl:text>    };
+
+    private DeclineDictionary() {
+    }
+}
+</xsl:text>
+    </xsl:template>
+
+    <!-- Падеж числа без рода: {число, падеж, значение} -->
+    <xsl:template match="cases/*">
+        <xsl:call-template name="row">
+            <xsl:with-param name="first" select="../../@value"/>
+        </xsl:call-template>
+    </xsl:template>
+
+    <!-- Формы порядкового слова: основа с окончаниями склонения, {число, род, падеж, значение} -->
+    <xsl:template name="ordinal">
+        <xsl:param name="number"/>
+        <xsl:variable name="word" select="@word"/>
+        <xsl:for-each select="../declension[@value = current()/@declension]/gender/*/cases/*">
+            <xsl:text>            {"</xsl:text>
+            <xsl:value-of select="$number"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="translate(name(../..), 'malefntur', 'MALEFNTUR')"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="name()"/>
+            <xsl:text>", "</xsl:text>
+            <xsl:call-template name="escape">
+                <xsl:with-param name="text" select="concat($word, @value)"/>
+            </xsl:call-template>
+            <xsl:text>"},
+</xsl:text>
+        </xsl:for-each>
+    </xsl:template>
+
+    <xsl:template name="row">
+        <xsl:param name="first"/>
+        <xsl:param name="second"/>
+        <xsl:text>            {"</xsl:text>
+        <xsl:value-of select="$first"/>
+        <xsl:if test="$second">
+            <xsl:text>", "</xsl:text>
+            <xsl:value-of select="$second"/>
+        </xsl:if>
+        <xsl:text>", "</xsl:text>
+        <xsl:value-of select="name()"/>
+        <xsl:text>", "</xsl:text>
+        <xsl:call-template name="escape">
+            <xsl:with-param name="text" select="@value"/>
+        </xsl:call-template>
+        <xsl:text>"},
+</xsl:text>
+    </xsl:template>
+
+    <!-- Экранирует \ и " для строкового литерала Java -->
+    <xsl:template name="escape">
+        <xsl:param name="text"/>
+        <xsl:choose>
+            <xsl:when test="contains($text, '\') or contains($text, '&quot;')">
+                <xsl:variable name="char">
+                    <xsl:choose>
+                        <xsl:when test="not(contains($text, '&quot;'))">\</xsl:when>
+                        <xsl:when test="not(contains($text, '\'))">&quot;</xsl:when>
+                        <xsl:when test="string-length(substring-before($text, '\')) &lt; string-length(substring-before($text, '&quot;'))">\</xsl:when>
+                        <xsl:otherwise>&quot;</xsl:otherwise>
+                    </xsl:choose>
+                </xsl:variable>
+                <xsl:value-of select="substring-before($text, $char)"/>
+                <xsl:text>\</xsl:text>
+                <xsl:value-of select="$char"/>
+                <xsl:call-template name="escape">
+                    <xsl:with-param name="text" select="substring-after($text, $char)"/>
+                </xsl:call-template>
+            </xsl:when>
+            <xsl:otherwise>
+                <xsl:value-of select="$text"/>
+            </xsl:otherwise>
+        </xsl:choose>
+    </xsl:template>
+</xsl:stylesheet>
@@ -1,15 +1,85 @@
 package com.alexsanderyurevich.tests;
 
+import com.alexsanderyurevich.Main;
+import com.alexsanderyurevich.cli.FileConverter;
+import com.alexsanderyurevich.converter.AmountSpeller;
+import com.alexsanderyurevich.converter.BatchConverter;
+import com.alexsanderyurevich.converter.ConversionCache;
+import com.alexsanderyurevich.converter.ConversionError;
+import com.alexsanderyurevich.converter.ConversionInput;
+import com.alexsanderyurevich.converter.Converter;
+import com.alexsanderyurevich.converter.NounAgreement;
+import com.alexsanderyurevich.converter.NumberParser;
+import com.alexsanderyurevich.converter.NumberSpeller;
+import com.alexsanderyurevich.converter.ParseError;
+import com.alexsanderyurevich.converter.ParseResult;
+import com.alexsanderyurevich.converter.SpellerRegistry;
+import com.alexsanderyurevich.data.CurrencyWords;
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.data.DeclineData.Cases;
+import com.alexsanderyurevich.data.DeclineData.Gender;
+import com.alexsanderyurevich.data.DeclineData.Word;
+import com.alexsanderyurevich.data.Dictionary;
+import com.alexsanderyurevich.data.Noun;
+import com.alexsanderyurevich.data.NounDictionary;
+import com.alexsanderyurevich.loader.DeclineDictionaryLoader;
+import com.alexsanderyurevich.loader.DeclineImageLoader;
+import com.alexsanderyurevich.loader.DeclineLoadException;
 import com.alexsanderyurevich.loader.DeclineXmlLoader;
+import com.alexsanderyurevich.server.LineServer;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static com.alexsanderyurevich.converter.Converter.convert;
+import static com.alexsanderyurevich.converter.Converter.convertTo;
+import static com.alexsanderyurevich.converter.Converter.length;
+import static com.alexsanderyurevich.converter.Converter.utf8Length;
+import static com.alexsanderyurevich.converter.Converter.writeUtf8;
+import static com.alexsanderyurevich.converter.ConversionError.MISSING_ARGUMENT;
+import static com.alexsanderyurevich.converter.ConversionError.OUT_OF_RANGE;
 import static com.alexsanderyurevich.data.DeclineData.Cases.*;
 import static com.alexsanderyurevich.data.DeclineData.Gender.*;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public final class Tests {
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     static {
         DeclineXmlLoader.loadDeclineData();
     }
@@ -86,9 +156,753 @@ public final class Tests {
 
         assertEquals("одна тысяча", convert(1_000, NOMINATIVE, MALE));
         assertEquals("сто тысяч", convert(100_000, NOMINATIVE, MALE));
+        assertEquals("десять тысяч", convert(10_000, NOMINATIVE, MALE));
+        assertEquals("ста десяти тысяч", convert(110_000, GENITIVE, MALE));
+        assertEquals("десятью миллионами", convert(10_000_000, INSTRUMENTAL, MALE));
         assertEquals("один миллион", convert(1_000_000, NOMINATIVE, MALE));
         assertEquals("сто миллионов", convert(100_000_000, NOMINATIVE, MALE));
         assertEquals("один миллиард", convert(1_000_000_000, NOMINATIVE, MALE));
         assertEquals("сто миллиардов", convert(100_000_000_000L, NOMINATIVE, MALE));
     }
+
+    @Test
+    public void testConvertCompound() {
+        assertEquals("двадцать одна тысяча", convert(21_000, NOMINATIVE, MALE));
+        assertEquals("двадцати одной тысячи", convert(21_000, GENITIVE, FEMALE));
+        assertEquals("двадцатью одной тысячей", convert(21_000, INSTRUMENTAL, MALE));
+        assertEquals("девятисот девяноста девяти миллиардов девятисот девяноста девяти миллионов " +
+                        "девятисот девяноста девяти тысяч девятисот девяноста девяти",
+                convert(999_999_999_999L, GENITIVE, MALE));
+        assertEquals("минус девяноста трем миллиардам трёмстам двадцати семью миллионам " +
+                        "двумстам пятидесяти девяти тысячам трёмстам семнадцати",
+                convert(-93_327_259_317L, DATIVE, NEUTER));
+    }
+
+    @Test
+    public void testConvertLarge() {
+        assertEquals("одного триллиона", convert(1_000_000_000_000L, GENITIVE, FEMALE));
+        assertEquals("девять квинтиллионов двести двадцать три квадриллиона триста семьдесят два триллиона " +
+                        "тридцать шесть миллиардов восемьсот пятьдесят четыре миллиона " +
+                        "семьсот семьдесят пять тысяч восемьсот семь",
+                convert(Long.MAX_VALUE, NOMINATIVE, MALE));
+        assertEquals("минус девяти квинтиллионов двухсот двадцати трех квадриллионов трёхсот семидесяти двух " +
+                        "триллионов тридцати шести миллиардов восьмисот пятидесяти четырех миллионов " +
+                        "семисот семидесяти пяти тысяч восьмисот восьми",
+                convert(Long.MIN_VALUE, GENITIVE, FEMALE));
+        assertEquals(convert(Long.MIN_VALUE, GENITIVE, FEMALE),
+                convert(BigInteger.valueOf(Long.MIN_VALUE), GENITIVE, FEMALE));
+        assertEquals("минус одним нониллионом двумя",
+                convert(new BigInteger("-1000000000000000000000000000002"), INSTRUMENTAL, FEMALE));
+        assertEquals("одним дециллионом", convert(BigInteger.TEN.pow(33), INSTRUMENTAL, MALE));
+
+        NumberSpeller speller = NumberSpeller.current();
+        BigInteger max = BigInteger.TEN.pow(36).subtract(BigInteger.ONE);
+        assertTrue(speller.isInRange(max));
+        assertFalse(speller.isInRange(max.add(BigInteger.ONE)));
+        assertTrue(speller.convert(max.negate(), NOMINATIVE, MALE).startsWith("минус девятьсот девяносто девять дециллионов "));
+        try {
+            speller.convert(max.add(BigInteger.ONE), NOMINATIVE, MALE);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("The value must be in range[-999,999,"));
+        }
+    }
+
+    @Test
+    public void testScaleRange() throws IOException {
+        NumberSpeller speller = new NumberSpeller(loadDictionary(3));
+        assertEquals(3, speller.getDictionary().getMaxScale());
+        assertTrue(speller.isInRange(-999_999_999_999L));
+        assertFalse(speller.isInRange(1_000_000_000_000L));
+        assertFalse(speller.isInRange(Long.MIN_VALUE));
+        try {
+            speller.convert(1_000_000_000_000L, NOMINATIVE, MALE);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("The value must be in range[-999,999,999,999;999,999,999,999]", e.getMessage());
+        }
+    }
+
+    //Встроенный словарь без разрядов больше maxScale
+    private static Dictionary loadDictionary(int maxScale) throws IOException {
+        String xml = new String(Files.readAllBytes(Paths.get("src/main/resources/decline.xml")), StandardCharsets.UTF_8);
+        StringBuilder limited = new StringBuilder(xml);
+        for (int scale = maxScale + 1; limited.indexOf("scale=\"" + scale + "\"") >= 0; scale++) {
+            int start = limited.lastIndexOf("<word ", limited.indexOf("scale=\"" + scale + "\""));
+            int end = limited.indexOf("</word>", start) + "</word>".length();
+            limited.delete(start, end);
+        }
+        return DeclineXmlLoader.loadDictionary(new ByteArrayInputStream(
+                limited.toString().getBytes(StandardCharsets.UTF_8)), "limited.xml");
+    }
+
+    @Test
+    public void testConvertTo() throws IOException {
+        long[] values = {0, -1, 21_000, 1_000_001, -93_327_259_317L, 999_999_999_999L, Long.MAX_VALUE, Long.MIN_VALUE};
+        char[] chars = new char[512];
+        for (long value : values) {
+            String expected = convert(value, GENITIVE, FEMALE);
+            assertEquals(expected.length(), length(value, GENITIVE, FEMALE));
+            assertEquals(">" + expected, convertTo(value, GENITIVE, FEMALE, new StringBuilder(">")).toString());
+            assertEquals(expected, convertTo(value, GENITIVE, FEMALE, new StringWriter()).toString());
+            int written = convertTo(value, GENITIVE, FEMALE, chars, 3);
+            assertEquals(expected, new String(chars, 3, written));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testConvertToSmallArray() {
+        convertTo(21_000, NOMINATIVE, MALE, new char[10], 0);
+    }
+
+    @Test
+    public void testWriteUtf8() throws IOException {
+        long[] values = {0, -1, 21_000, 1_000_001, -93_327_259_317L, 999_999_999_999L, Long.MAX_VALUE, Long.MIN_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        for (long value : values) {
+            byte[] expected = convert(value, DATIVE, NEUTER).getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, utf8Length(value, DATIVE, NEUTER));
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            writeUtf8(value, DATIVE, NEUTER, stream);
+            assertArrayEquals(expected, stream.toByteArray());
+
+            buffer.clear();
+            assertEquals(expected.length, writeUtf8(value, DATIVE, NEUTER, buffer));
+            buffer.flip();
+            assertEquals(buffer, ByteBuffer.wrap(expected));
+        }
+    }
+
+    @Test
+    public void testBatchConvert() throws IOException {
+        Dictionary current = DeclineData.getDictionary();
+        try {
+            //Словарь до миллиардов, числа от триллиона вне его диапазона
+            DeclineData.setDictionary(loadDictionary(3));
+            long[] numbers = {1, 1_000_000_000_000L, -21_000, Long.MIN_VALUE};
+            String[] results = new String[numbers.length];
+            ConversionError[] errors = new ConversionError[numbers.length];
+            assertEquals(2, BatchConverter.convert(numbers, GENITIVE, FEMALE, results, errors));
+            assertArrayEquals(new String[]{"одной", null, "минус двадцати одной тысячи", null}, results);
+            assertArrayEquals(new ConversionError[]{null, OUT_OF_RANGE, null, OUT_OF_RANGE}, errors);
+
+            Cases[] cases = {NOMINATIVE, null, DATIVE, GENITIVE};
+            Gender[] genders = {NEUTER, MALE, MALE, MALE};
+            assertEquals(2, BatchConverter.convert(numbers, cases, genders, results, errors));
+            assertArrayEquals(new String[]{"одно", null, "минус двадцати одной тысяче", null}, results);
+            assertArrayEquals(new ConversionError[]{null, MISSING_ARGUMENT, null, OUT_OF_RANGE}, errors);
+        } finally {
+            DeclineData.setDictionary(current);
+        }
+    }
+
+    @Test
+    public void testParallelBatchConvert() {
+        long[] numbers = new long[100_000];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = i * 9_999_991L - 300_000_000_000L;
+        }
+        String[] results = new String[numbers.length];
+        assertEquals(0, BatchConverter.convert(numbers, INSTRUMENTAL, FEMALE, results, null));
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(convert(numbers[i], INSTRUMENTAL, FEMALE), results[i]);
+        }
+    }
+
+    @Test
+    public void testFileConvert() throws IOException {
+        Path input = temporaryFolder.newFile("input.csv").toPath();
+        Path output = temporaryFolder.newFile("output.txt").toPath();
+        Files.write(input, Arrays.asList("id;amount", "1; 21000 ", "2;-1", "3;10000000000000000000", "4;\"101\"",
+                "5;-9223372036854775808", "6;9223372036854775808"), StandardCharsets.UTF_8);
+
+        assertEquals(3, FileConverter.convert(input, output, GENITIVE, MALE, 2, ';', null));
+        assertEquals(Arrays.asList("", "двадцати одной тысячи", "минус одного", "", "ста одного",
+                convert(Long.MIN_VALUE, GENITIVE, MALE), ""), Files.readAllLines(output, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLineServer() throws Exception {
+        try (LineServer server = LineServer.start(new InetSocketAddress("localhost", 0), 2);
+             Socket socket = new Socket("localhost", server.getPort())) {
+            //Запросы отправляются без ожидания ответов, больше, чем помещается в буферы сервера
+            int count = 20_000;
+            Thread writer = new Thread(() -> {
+                try {
+                    OutputStream output = socket.getOutputStream();
+                    output.write(("21000 GENITIVE MALE\r\n-1 000 001 NOMINATIVE FEMALE\n12x NOMINATIVE MALE\n"
+                            + "1 GENITIVE\n\n7 DATIVE NEUTER\n").getBytes(StandardCharsets.US_ASCII));
+                    for (int i = 0; i < count; i++) {
+                        output.write((i + " INSTRUMENTAL FEMALE\n").getBytes(StandardCharsets.US_ASCII));
+                    }
+                    output.write("5 ACCUSATIVE MALE".getBytes(StandardCharsets.US_ASCII));
+                    socket.shutdownOutput();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            writer.start();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            assertEquals("двадцати одной тысячи", reader.readLine());
+            assertEquals("минус один миллион одна", reader.readLine());
+            assertEquals("ERROR INVALID_NUMBER", reader.readLine());
+            assertEquals("ERROR MISSING_ARGUMENT", reader.readLine());
+            assertEquals("ERROR MISSING_ARGUMENT", reader.readLine());
+            assertEquals(convert(7, DATIVE, NEUTER), reader.readLine());
+            for (int i = 0; i < count; i++) {
+                assertEquals(convert(i, INSTRUMENTAL, FEMALE), reader.readLine());
+            }
+            assertEquals(convert(5, ACCUSATIVE, MALE), reader.readLine());
+            assertNull(reader.readLine());
+            writer.join();
+        }
+        //Слишком длинная строка получает ошибку, даже если приходит по частям
+        try (LineServer server = LineServer.start(new InetSocketAddress("localhost", 0), 1);
+             Socket socket = new Socket("localhost", server.getPort())) {
+            OutputStream output = socket.getOutputStream();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            output.write("1 NOMINATIVE MALE\n".getBytes(StandardCharsets.US_ASCII));
+            assertEquals("один", reader.readLine());
+            char[] digits = new char[300];
+            Arrays.fill(digits, '1');
+            output.write(new String(digits).getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            assertEquals("ERROR INVALID_NUMBER", reader.readLine());
+            output.write((new String(digits) + " NOMINATIVE MALE\n2 NOMINATIVE MALE\n").getBytes(StandardCharsets.US_ASCII));
+            assertEquals("два", reader.readLine());
+            socket.shutdownOutput();
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    public void testGeneratedDictionary() {
+        List<String> xml = getDeclineData();
+        long version = DeclineData.getVersion();
+        DeclineDictionaryLoader.loadDeclineData();
+        assertNotEquals(version, DeclineData.getVersion());
+        assertEquals(xml, getDeclineData());
+    }
+
+    @Test
+    public void testDictionaryImage() throws IOException {
+        Dictionary current = DeclineData.getDictionary();
+        List<String> xml = getDeclineData();
+        Path file = temporaryFolder.newFile("decline.bin").toPath();
+        DeclineImageLoader.writeImage(current, file);
+        Dictionary image = DeclineImageLoader.loadDictionaryFile(file);
+        assertEquals(current.getContentHash(), image.getContentHash());
+        assertEquals(current.getEntryCount(), image.getEntryCount());
+        assertEquals(current.getFragmentCount(), image.getFragmentCount());
+        try {
+            //Словарь приложения загружается из образа при запуске
+            Main.loadDictionary(file);
+            assertNotSame(current, DeclineData.getDictionary());
+            assertEquals(current.getContentHash(), DeclineData.getDictionary().getContentHash());
+            assertEquals(xml, getDeclineData());
+            assertEquals("двадцати одной тысячи", convert(21_000, GENITIVE, MALE));
+            assertEquals("двадцатиоднотысячного", Converter.convertOrdinal(21_000, GENITIVE, MALE));
+        } finally {
+            DeclineData.setDictionary(current);
+        }
+
+        //Поврежденный образ не загружается
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        try {
+            DeclineImageLoader.loadDictionary(file);
+            fail();
+        } catch (DeclineLoadException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(file.toString()));
+        }
+        Files.write(file, Arrays.copyOf(bytes, 100));
+        try {
+            DeclineImageLoader.loadDictionary(file);
+            fail();
+        } catch (DeclineLoadException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("truncated"));
+        }
+    }
+
+    private static List<String> getDeclineData() {
+        List<String> data = new ArrayList<>();
+        Dictionary dictionary = DeclineData.getDictionary();
+        for (String code : dictionary.getCurrencyCodes()) {
+            CurrencyWords currency = dictionary.getCurrency(code);
+            data.add(code + " " + currency.getMajor().getName() + " " + currency.getMinor().getName()
+                    + " " + currency.getMinorDigits());
+        }
+        for (String name : dictionary.getNounNames()) {
+            Noun noun = dictionary.getNoun(name);
+            data.add(name + " " + noun.getGender());
+            for (Cases caseType : Cases.values()) {
+                for (int i = 1; i <= 9; i++) {
+                    data.add(noun.getForm(caseType, i));
+                }
+            }
+        }
+        for (Cases caseType : Cases.values()) {
+            for (int i = 1; i <= 9; i++) {
+                for (Gender gender : Gender.values()) {
+                    data.add(DeclineData.getStringUnit(i, caseType, gender));
+                }
+                data.add(DeclineData.getStringDecade(i, caseType));
+                data.add(DeclineData.getStringDecade(10 + i, caseType));
+                data.add(DeclineData.getStringHundred(i, caseType));
+                for (Word word : Word.values()) {
+                    data.add(DeclineData.getWord(word, caseType, i));
+                }
+            }
+            for (Gender gender : Gender.values()) {
+                for (int i = 0; i < 1000; i += i < 20 ? 1 : i < 100 ? 10 : 100) {
+                    data.add(dictionary.getOrdinal(i, caseType, gender));
+                }
+                for (int scale = 1; scale <= dictionary.getMaxScale(); scale++) {
+                    data.add(dictionary.getOrdinalScale(scale, caseType, gender));
+                }
+            }
+        }
+        for (int i = 1; i < 1000; i += i < 20 ? 1 : i < 100 ? 10 : 100) {
+            data.add(dictionary.getOrdinalPrefix(i));
+        }
+        return data;
+    }
+
+    @Test
+    public void testConvertAmount() {
+        AmountSpeller rubles = NumberSpeller.current().getAmountSpeller("RUB");
+        assertEquals("сто двадцать три рубля сорок пять копеек", rubles.convert(12345, NOMINATIVE));
+        assertEquals("ноль рублей ноль копеек", rubles.convert(0, NOMINATIVE));
+        assertEquals("один рубль одна копейка", rubles.convert(101, NOMINATIVE));
+        assertEquals("два рубля две копейки", rubles.convert(202, NOMINATIVE));
+        assertEquals("пять рублей пять копеек", rubles.convert(505, NOMINATIVE));
+        assertEquals("одиннадцать рублей одиннадцать копеек", rubles.convert(1111, NOMINATIVE));
+        assertEquals("двадцать один рубль двадцать одна копейка", rubles.convert(2121, NOMINATIVE));
+        assertEquals("двадцати одного рубля двадцати одной копейки", rubles.convert(2121, GENITIVE));
+        assertEquals("двумя рублями двумя копейками", rubles.convert(202, INSTRUMENTAL));
+        assertEquals("минус одна тысяча рублей десять копеек", rubles.convert(-100010, NOMINATIVE));
+        assertEquals("десять тысяч рублей ноль копеек", Converter.convertAmount(10_000_00, "RUB", NOMINATIVE));
+        assertEquals("ста десяти тысяч рублей десяти копеек", rubles.convert(110_000_10, GENITIVE));
+        assertEquals("десять миллионов рублей ноль копеек", rubles.convert(10_000_000_00L, NOMINATIVE));
+        assertEquals(Converter.convertAmount(12345, "RUB", DATIVE), rubles.convert(12345, DATIVE));
+
+        for (long amount : new long[]{0, 1, -99, 12345, 100_000_000_00L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            for (Cases caseType : Cases.values()) {
+                String expected = rubles.convert(amount, caseType);
+                assertEquals(expected.length(), rubles.length(amount, caseType));
+                char[] chars = new char[expected.length() + 2];
+                assertEquals(expected.length(), rubles.convertTo(amount, caseType, chars, 1));
+                assertEquals(expected, new String(chars, 1, expected.length()));
+                ByteBuffer buffer = ByteBuffer.allocate(rubles.utf8Length(amount, caseType));
+                assertEquals(buffer.capacity(), rubles.writeUtf8(amount, caseType, buffer));
+                assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), buffer.array());
+            }
+        }
+        assertTrue(rubles.convert(Long.MIN_VALUE, NOMINATIVE).endsWith(" восемь копеек"));
+
+        assertEquals("сто двадцать три рубля сорок копеек", rubles.convert(new BigDecimal("123.4"), NOMINATIVE));
+        assertEquals(rubles.convert(-12345, NOMINATIVE), rubles.convert(new BigDecimal("-123.450"), NOMINATIVE));
+        assertEquals("двадцать пять квинтиллионов рублей пять копеек",
+                rubles.convert(new BigDecimal("25000000000000000000.05"), NOMINATIVE));
+        try {
+            rubles.convert(new BigDecimal("1.005"), NOMINATIVE);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("The amount 1.005 has more than 2 fraction digits", e.getMessage());
+        }
+        try {
+            NumberSpeller.current().getAmountSpeller("XXX");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown currency XXX", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNounAgreement() {
+        NounDictionary nouns = new NounDictionary.Builder()
+                .addNoun("DAY", MALE, NOMINATIVE, "день", "дня", "дней")
+                .addNoun("DAY", MALE, GENITIVE, "дня", "дней", "дней")
+                .addNoun("DAY", MALE, DATIVE, "дню", "дням", "дням")
+                .addNoun("DAY", MALE, ACCUSATIVE, "день", "дня", "дней")
+                .addNoun("DAY", MALE, INSTRUMENTAL, "днём", "днями", "днями")
+                .addNoun("DAY", MALE, PREPOSITIONAL, "дне", "днях", "днях")
+                .build();
+        Noun day = nouns.getNoun("DAY");
+        NounAgreement agreement = NumberSpeller.current().getNounAgreement();
+        assertEquals("21 день", agreement.agree(21, NOMINATIVE, day));
+        assertEquals("3 дня", agreement.agree(3, NOMINATIVE, day));
+        assertEquals("11 дней", agreement.agree(11, NOMINATIVE, day));
+        assertEquals("112 дней", agreement.agree(112, NOMINATIVE, day));
+        assertEquals("0 дней", agreement.agree(0, NOMINATIVE, day));
+        assertEquals("-1 день", agreement.agree(-1, NOMINATIVE, day));
+        assertEquals("101 дне", agreement.agree(101, PREPOSITIONAL, day));
+        assertEquals("двадцати пяти дней", agreement.convert(25, GENITIVE, day));
+        assertEquals("двадцать один день", convert(21, NOMINATIVE, day));
+        assertEquals("двумя днями", agreement.convert(2, INSTRUMENTAL, day));
+
+        String xml = "<types><type value=\"NOUNS\"><noun value=\"WEEK\" word=\"недел\" gender=\"FEMALE\"><end>"
+                + "<number value=\"1\"><cases><NOMINATIVE value=\"я\"/><GENITIVE value=\"и\"/><DATIVE value=\"е\"/>"
+                + "<ACCUSATIVE value=\"ю\"/><INSTRUMENTAL value=\"ей\"/><PREPOSITIONAL value=\"е\"/></cases></number>"
+                + "<number value=\"2,3,4\"><cases><NOMINATIVE value=\"и\"/><GENITIVE value=\"ь\"/><DATIVE value=\"ям\"/>"
+                + "<ACCUSATIVE value=\"и\"/><INSTRUMENTAL value=\"ями\"/><PREPOSITIONAL value=\"ях\"/></cases></number>"
+                + "<number value=\"5,6,7,8,9\"><cases><NOMINATIVE value=\"ь\"/><GENITIVE value=\"ь\"/><DATIVE value=\"ям\"/>"
+                + "<ACCUSATIVE value=\"ь\"/><INSTRUMENTAL value=\"ями\"/><PREPOSITIONAL value=\"ях\"/></cases></number>"
+                + "</end></noun></type></types>";
+        Noun week = DeclineXmlLoader.loadNouns(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "nouns.xml")
+                .getNoun("WEEK");
+        assertEquals("одну неделю", agreement.convert(1, ACCUSATIVE, week));
+        assertEquals("двадцать две недели", agreement.convert(22, NOMINATIVE, week));
+        assertEquals("15 недель", agreement.agree(15, GENITIVE, week));
+        assertEquals("двух рублей", agreement.convert(2, GENITIVE, DeclineData.getDictionary().getNoun("RUBLE")));
+
+        //Слова разрядов согласуются с триадой по тому же правилу, что и существительные
+        Dictionary dictionary = DeclineData.getDictionary();
+        for (Cases caseType : Cases.values()) {
+            for (int triad = 1; triad < 1_000; triad++) {
+                assertEquals(dictionary.getScaleWord(2, caseType, Noun.getForms(triad)),
+                        dictionary.getTriadTable().getWord(2, caseType, triad));
+            }
+        }
+
+        try {
+            DeclineXmlLoader.loadNouns(new ByteArrayInputStream("<types><type value=\"DIGITS\"/></types>"
+                    .getBytes(StandardCharsets.UTF_8)), "nouns.xml");
+            fail();
+        } catch (DeclineLoadException e) {
+            assertEquals("nouns.xml:1:30: Type DIGITS is not allowed in a noun dictionary", e.getMessage());
+        }
+        try {
+            new NounDictionary.Builder().addNoun("DAY", MALE, NOMINATIVE, "день", "дня", "дней").build();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Missing declension of DAY 1 GENITIVE", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParse() {
+        NumberParser parser = NumberParser.current();
+        ParseResult result = parser.parse("двухсот тридцати одной тысячи");
+        assertTrue(result.isValid());
+        assertEquals(231_000, result.getNumber());
+        assertEquals(GENITIVE, result.getCase());
+        assertEquals(EnumSet.of(GENITIVE), result.getCases());
+
+        result = parser.parse("  Минус   двадцать ОДНА ");
+        assertEquals(-21, result.getNumber());
+        assertEquals(FEMALE, result.getGender());
+        assertFalse(result.isGender(MALE));
+        assertEquals(EnumSet.of(NOMINATIVE), result.getCases());
+        assertEquals(EnumSet.of(GENITIVE, PREPOSITIONAL), parser.parse("двух").getCases());
+        assertEquals(1_000, parser.parse("тысяча").getNumber());
+        assertEquals(0, parser.parse("ноль").getNumber());
+        assertTrue(parser.parse("ноль").isValid());
+
+        assertParseError(parser, "", ParseError.EMPTY, 0);
+        assertParseError(parser, "минус", ParseError.EMPTY, 0);
+        assertParseError(parser, "сто двести", ParseError.UNEXPECTED_WORD, 4);
+        assertParseError(parser, "десять один", ParseError.UNEXPECTED_WORD, 7);
+        assertParseError(parser, "один миллион две тысячи три миллиона", ParseError.UNEXPECTED_WORD, 28);
+        assertParseError(parser, "один ноль", ParseError.UNEXPECTED_WORD, 5);
+        assertParseError(parser, "двадцать одинн", ParseError.UNKNOWN_WORD, 9);
+        assertParseError(parser, "сто 5", ParseError.UNKNOWN_WORD, 4);
+        assertParseError(parser, "десять квинтиллионов", ParseError.OUT_OF_RANGE, 7);
+        assertParseError(parser, "один секстиллион", ParseError.OUT_OF_RANGE, 5);
+        assertParseError(parser, "двух тысяча", ParseError.CASE_MISMATCH, 5);
+        assertParseError(parser, "двадцать двух", ParseError.CASE_MISMATCH, 9);
+        assertParseError(parser, "две тысяч", ParseError.CASE_MISMATCH, 4);
+        assertParseError(parser, "пять тысячи", ParseError.CASE_MISMATCH, 5);
+        assertParseError(parser, "одиннадцать тысяча", ParseError.CASE_MISMATCH, 12);
+        assertParseError(parser, convert(Long.MIN_VALUE, NOMINATIVE, MALE).substring(6), ParseError.OUT_OF_RANGE, 0);
+
+        ParseResult reused = new ParseResult();
+        long[] numbers = {1, 2, 5, 10, 11, 19, 20, 21, 99, 100, 101, 111, 999, 1_000, 2_001, 10_000, 21_000, 999_999,
+                1_000_000, 1_234_567_890, 100_000_000_000L, Long.MAX_VALUE, Long.MIN_VALUE, -1, -12_345};
+        for (long number : numbers) {
+            for (Cases caseType : Cases.values()) {
+                for (Gender gender : Gender.values()) {
+                    String text = "x " + convert(number, caseType, gender) + " x";
+                    assertTrue(text, parser.parse(text, 2, text.length() - 2, reused));
+                    assertEquals(text, number, reused.getNumber());
+                    assertTrue(text, reused.isCase(caseType));
+                    assertTrue(text, reused.isGender(gender));
+                }
+            }
+        }
+    }
+
+    private static void assertParseError(NumberParser parser, String text, ParseError error, int position) {
+        ParseResult result = parser.parse(text);
+        assertFalse(result.isValid());
+        assertEquals(text, error, result.getError());
+        assertEquals(text, position, result.getErrorPosition());
+    }
+
+    @Test
+    public void testConversionInput() {
+        NumberSpeller speller = NumberSpeller.current();
+        ConversionInput input = new ConversionInput();
+        assertTrue(input.read(" 1 000 000 ", "GENITIVE", "FEMALE", speller));
+        assertEquals(1_000_000, input.getNumber());
+        assertEquals(GENITIVE, input.getCases());
+        assertEquals(FEMALE, input.getGender());
+        assertNull(input.getError());
+
+        assertTrue(input.read("-12_345", "NOMINATIVE", "MALE", speller));
+        assertEquals(-12_345, input.getNumber());
+        assertTrue(input.read("+1'000", "NOMINATIVE", "MALE", speller));
+        assertEquals(1_000, input.getNumber());
+        assertTrue(input.read("−9\u00a0223\u00a0372\u00a0036\u00a0854\u00a0775\u00a0808", "NOMINATIVE", "MALE", speller));
+        assertEquals(Long.MIN_VALUE, input.getNumber());
+        assertTrue(input.read("9223372036854775807", "NOMINATIVE", "MALE", speller));
+        assertEquals(Long.MAX_VALUE, input.getNumber());
+
+        assertInputError(input, "9223372036854775808", OUT_OF_RANGE);
+        assertInputError(input, "-99 999 999 999 999 999 999", OUT_OF_RANGE);
+        for (String number : new String[]{"1 00", "1000 000", "1  000", "1,5", "12a", "-", "--1", "_1", "1 000_"}) {
+            assertInputError(input, number, ConversionError.INVALID_NUMBER);
+        }
+        assertInputError(input, "99999999999999999999x", ConversionError.INVALID_NUMBER);
+        assertInputError(input, null, MISSING_ARGUMENT);
+        assertInputError(input, " ", MISSING_ARGUMENT);
+
+        assertFalse(input.read("1", "genitive", "MALE", speller));
+        assertEquals(ConversionError.INVALID_CASE, input.getError());
+        assertFalse(input.read("1", "GENITIVE", "", speller));
+        assertEquals(MISSING_ARGUMENT, input.getError());
+        assertFalse(input.read("1", "GENITIVE", "NEUTRAL", speller));
+        assertEquals(ConversionError.INVALID_GENDER, input.getError());
+        assertNull(ConversionInput.find(Cases.values(), "Genitive"));
+        assertSame(NEUTER, ConversionInput.find(Gender.values(), "NEUTER"));
+    }
+
+    private static void assertInputError(ConversionInput input, String number, ConversionError error) {
+        assertFalse(number, input.read(number, "NOMINATIVE", "MALE", NumberSpeller.current()));
+        assertEquals(number, error, input.getError());
+        assertFalse(input.isValid());
+    }
+
+    @Test
+    public void testXmlLoadErrorLocation() {
+        String xml = "<types>\n    <type value=\"DIGITS\">\n        <digit value=\"x\">\n";
+        try {
+            DeclineXmlLoader.loadDeclineData(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "test.xml");
+            fail();
+        } catch (DeclineLoadException e) {
+            assertEquals("test.xml", e.getSource());
+            assertEquals(3, e.getLine());
+            assertEquals("test.xml:3:26: Attribute value is not a number: x", e.getMessage());
+        }
+        //Ошибка в словах называет слово и причину, а не значение последней цифры
+        xml = "<types>\n<type value=\"DIGITS\"><digit value=\"1\"/></type>\n<type value=\"WORDS\">\n"
+                + "<word value=\"THOUSAND\" word=\"тысяч\"><number value=\"12\"><NOMINATIVE value=\"а\"/>";
+        try {
+            DeclineXmlLoader.loadDeclineData(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "test.xml");
+            fail();
+        } catch (DeclineLoadException e) {
+            assertEquals("test.xml:4:79: Invalid NOMINATIVE of word тысяч of scale 1 in type WORDS: "
+                    + "The digit must be in range [1;9]: 12", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDictionarySwap() throws IOException {
+        Dictionary current = DeclineData.getDictionary();
+        String xml = new String(Files.readAllBytes(Paths.get("src/main/resources/decline.xml")), StandardCharsets.UTF_8);
+        Dictionary changed = DeclineXmlLoader.loadDictionary(new ByteArrayInputStream(
+                xml.replace("\"двадцать\"", "\"два десятка\"").getBytes(StandardCharsets.UTF_8)), "changed.xml");
+        assertEquals("двадцать одна тысяча", convert(21_000, NOMINATIVE, MALE));
+        try {
+            DeclineData.setDictionary(changed);
+            assertEquals(changed.getVersion(), DeclineData.getVersion());
+            assertEquals("два десятка одна тысяча", convert(21_000, NOMINATIVE, MALE));
+        } finally {
+            DeclineData.setDictionary(current);
+        }
+        assertEquals("двадцать одна тысяча", convert(21_000, NOMINATIVE, MALE));
+    }
+
+    @Test
+    public void testConvertOrdinal() throws IOException {
+        assertEquals("нулевой", Converter.convertOrdinal(0, NOMINATIVE, MALE));
+        assertEquals("первый", Converter.convertOrdinal(1, NOMINATIVE, MALE));
+        assertEquals("третья", Converter.convertOrdinal(3, NOMINATIVE, FEMALE));
+        assertEquals("третьего", Converter.convertOrdinal(3, GENITIVE, NEUTER));
+        assertEquals("двенадцатую", Converter.convertOrdinal(12, ACCUSATIVE, FEMALE));
+        assertEquals("двадцать пятого", Converter.convertOrdinal(25, GENITIVE, MALE));
+        assertEquals("сороковым", Converter.convertOrdinal(40, INSTRUMENTAL, NEUTER));
+        assertEquals("сто десятый", Converter.convertOrdinal(110, NOMINATIVE, MALE));
+        assertEquals("сотая", Converter.convertOrdinal(100, NOMINATIVE, FEMALE));
+        assertEquals("тысячный", Converter.convertOrdinal(1_000, NOMINATIVE, MALE));
+        assertEquals("двухтысячном", Converter.convertOrdinal(2_000, PREPOSITIONAL, MALE));
+        assertEquals("две тысячи двадцать первого", Converter.convertOrdinal(2_021, GENITIVE, MALE));
+        assertEquals("двадцатиоднотысячный", Converter.convertOrdinal(21_000, NOMINATIVE, MALE));
+        assertEquals("трёхсоттысячной", Converter.convertOrdinal(300_000, DATIVE, FEMALE));
+        assertEquals("один миллион стотысячный", Converter.convertOrdinal(1_100_000, NOMINATIVE, MALE));
+        assertEquals("миллионному", Converter.convertOrdinal(1_000_000, DATIVE, MALE));
+        assertEquals("минус пятое", Converter.convertOrdinal(-5, NOMINATIVE, NEUTER));
+        assertEquals("девять квинтиллионов двести двадцать три квадриллиона триста семьдесят два триллиона "
+                        + "тридцать шесть миллиардов восемьсот пятьдесят четыре миллиона семьсот семьдесят пять тысяч "
+                        + "восемьсот седьмой",
+                Converter.convertOrdinal(Long.MAX_VALUE, NOMINATIVE, MALE));
+        assertEquals("День: двадцать пятого", Converter.convertOrdinalTo(25, GENITIVE, MALE,
+                new StringBuilder("День: ")).toString());
+
+        String xml = new String(Files.readAllBytes(Paths.get("src/main/resources/decline.xml")), StandardCharsets.UTF_8);
+        Dictionary cardinals = DeclineXmlLoader.loadDictionary(new ByteArrayInputStream(
+                xml.replaceAll("(?s)<type value=\"ORDINALS\">.*?</type>", "").getBytes(StandardCharsets.UTF_8)),
+                "cardinals.xml");
+        assertFalse(cardinals.hasOrdinals());
+        assertNull(cardinals.getOrdinal(5, NOMINATIVE, MALE));
+        try {
+            new NumberSpeller(cardinals).convertOrdinal(5, NOMINATIVE, MALE);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("The dictionary has no ordinals", e.getMessage());
+        }
+        try {
+            DeclineXmlLoader.loadDictionary(new ByteArrayInputStream(
+                    xml.replace("<ordinal value=\"7\"", "<ordinal value=\"70\"").getBytes(StandardCharsets.UTF_8)),
+                    "ordinals.xml");
+            fail();
+        } catch (DeclineLoadException e) {
+            assertEquals("ordinals.xml: Missing declension of ordinal 7 MALE NOMINATIVE", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDictionaryFragments() {
+        Dictionary dictionary = DeclineData.getDictionary();
+        assertTrue(dictionary.getFragmentCount() < dictionary.getEntryCount());
+        assertEquals("двух", dictionary.getStringUnit(2, GENITIVE, MALE));
+        assertSame(dictionary.getStringUnit(2, GENITIVE, MALE), dictionary.getStringUnit(2, PREPOSITIONAL, FEMALE));
+        assertSame(dictionary.getStringUnit(5, DATIVE, MALE), dictionary.getStringUnit(5, DATIVE, NEUTER));
+        assertSame(dictionary.getScaleWord(2, GENITIVE, 5), dictionary.getScaleWord(2, GENITIVE, 5));
+        assertEquals("тысячами", dictionary.getScaleWord(1, INSTRUMENTAL, 7));
+        assertSame(dictionary.getTriadTable().getTriad(DATIVE, MALE, 115),
+                dictionary.getTriadTable().getTriad(DATIVE, FEMALE, 115));
+
+        Dictionary copy = DeclineDictionaryLoader.loadDictionary();
+        assertEquals(dictionary.getEntryCount(), copy.getEntryCount());
+        assertEquals(dictionary.getFragmentCount(), copy.getFragmentCount());
+        assertEquals(dictionary.getScaleWord(6, ACCUSATIVE, 3), copy.getScaleWord(6, ACCUSATIVE, 3));
+    }
+
+    @Test
+    public void testConversionCache() throws IOException {
+        ConversionCache cache = new ConversionCache(1000);
+        assertEquals(1024, cache.getCapacity());
+        assertEquals("двадцать одна тысяча", cache.convert(21_000, NOMINATIVE, MALE));
+        assertSame(cache.convert(21_000, NOMINATIVE, MALE), cache.convert(21_000, NOMINATIVE, MALE));
+        assertEquals("двадцати одной тысячи", cache.convert(21_000, GENITIVE, MALE));
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        for (long number = -2_000; number < 2_000; number++) {
+            assertEquals(convert(number, DATIVE, NEUTER), cache.convert(number, DATIVE, NEUTER));
+        }
+        assertTrue(cache.getEvictions() > 0);
+        assertEquals(4_004, cache.getHits() + cache.getMisses());
+
+        ConversionCache single = new ConversionCache(1);
+        single.convert(1, NOMINATIVE, MALE);
+        single.convert(2, NOMINATIVE, MALE);
+        assertEquals("один", single.convert(1, NOMINATIVE, MALE));
+        assertEquals(0, single.getHits());
+        assertEquals(2, single.getEvictions());
+
+        Dictionary current = DeclineData.getDictionary();
+        String xml = new String(Files.readAllBytes(Paths.get("src/main/resources/decline.xml")), StandardCharsets.UTF_8);
+        Dictionary changed = DeclineXmlLoader.loadDictionary(new ByteArrayInputStream(
+                xml.replace("\"двадцать\"", "\"два десятка\"").getBytes(StandardCharsets.UTF_8)), "changed.xml");
+        NumberSpeller before = NumberSpeller.current();
+        try {
+            DeclineData.setDictionary(changed);
+            assertEquals("два десятка одна тысяча", cache.convert(21_000, NOMINATIVE, MALE));
+            //Вызывающий, взявший словарь до замены, получает результат этого словаря
+            assertEquals("двадцать одна тысяча", cache.convert(before, 21_000, NOMINATIVE, MALE));
+        } finally {
+            DeclineData.setDictionary(current);
+        }
+        ConversionCache fixed = new ConversionCache(new NumberSpeller(changed), 16);
+        assertEquals("два десятка одна тысяча", fixed.convert(21_000, NOMINATIVE, MALE));
+        try {
+            fixed.convert(before, 21_000, NOMINATIVE, MALE);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("The cache is created for another speller", e.getMessage());
+        }
+        cache.clear();
+        assertEquals("двадцать одна тысяча", cache.convert(21_000, NOMINATIVE, MALE));
+    }
+
+    @Test
+    public void testIncompleteDictionary() {
+        long version = DeclineData.getVersion();
+        String xml = "<types>\n    <type value=\"HUNDREDS\">\n        <hundred value=\"1\">\n"
+                + "            <cases><NOMINATIVE value=\"сто\"/></cases>\n        </hundred>\n    </type>\n</types>\n";
+        try {
+            DeclineXmlLoader.loadDeclineData(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "test.xml");
+            fail();
+        } catch (DeclineLoadException e) {
+            assertEquals("test.xml", e.getSource());
+            assertTrue(e.getMessage(), e.getMessage().startsWith("test.xml: Missing declension of "));
+        }
+        assertEquals(version, DeclineData.getVersion());
+    }
+
+    @Test
+    public void testSpellerRegistry() {
+        AtomicInteger loads = new AtomicInteger();
+        SpellerRegistry registry = new SpellerRegistry()
+                .registerCurrent("ru")
+                .register(new Locale("ru", "BY"), () -> {
+                    loads.incrementAndGet();
+                    return DeclineDictionaryLoader.loadDictionary();
+                });
+        assertFalse(registry.isLoaded("ru-BY"));
+        assertEquals(0, loads.get());
+
+        NumberSpeller speller = registry.getSpeller(new Locale("ru", "BY"));
+        assertTrue(registry.isLoaded("ru-BY"));
+        assertEquals("двадцати одной тысячи", speller.convert(21_000, GENITIVE, MALE));
+        assertSame(speller, registry.getSpeller("ru-BY"));
+        assertEquals(1, loads.get());
+
+        assertSame(NumberSpeller.current(), registry.getSpeller(new Locale("ru", "RU")));
+        assertNotSame(DeclineData.getDictionary(), speller.getDictionary());
+        assertNull(registry.findSpeller("en"));
+        try {
+            registry.getSpeller(Locale.ENGLISH);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown dictionary en", e.getMessage());
+        }
+
+        //Ошибка загрузки запоминается, файл не перечитывается до истечения задержки
+        AtomicInteger failures = new AtomicInteger();
+        Supplier<Dictionary> broken = () -> {
+            failures.incrementAndGet();
+            throw new DeclineLoadException("broken.xml", 1, 1, "Unexpected EOF");
+        };
+        registry = new SpellerRegistry().register("broken", broken);
+        SpellerRegistry retrying = new SpellerRegistry(0, TimeUnit.SECONDS).register("broken", broken);
+        for (int i = 0; i < 2; i++) {
+            for (SpellerRegistry r : Arrays.asList(registry, retrying)) {
+                try {
+                    r.findSpeller("broken");
+                    fail();
+                } catch (IllegalStateException e) {
+                    assertEquals("Dictionary broken is not available", e.getMessage());
+                    assertTrue(e.getCause() instanceof DeclineLoadException);
+                }
+            }
+        }
+        assertEquals(3, failures.get());
+        assertFalse(registry.isLoaded("broken"));
+    }
 }
@@ -0,0 +1,441 @@
+package com.alexsanderyurevich.tests;
+
+import com.alexsanderyurevich.converter.ConversionCache;
+import com.alexsanderyurevich.converter.NumberSpeller;
+import com.alexsanderyurevich.converter.SpellerRegistry;
+import com.alexsanderyurevich.data.DeclineData;
+import com.alexsanderyurevich.data.Dictionary;
+import com.alexsanderyurevich.loader.DeclineImageLoader;
+import com.alexsanderyurevich.loader.DeclineLoadException;
+import com.alexsanderyurevich.loader.DeclineXmlLoader;
+import com.alexsanderyurevich.web.config.DictionaryConfiguration;
+import com.alexsanderyurevich.web.controller.ConversionApiController;
+import com.alexsanderyurevich.web.controller.ConversionLookupController;
+import com.alexsanderyurevich.web.controller.DictionaryAdminController;
+import com.alexsanderyurevich.web.filter.AdmissionFilter;
+import com.alexsanderyurevich.web.metrics.ConversionMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.TimeUnit;
+
+import static com.alexsanderyurevich.data.DeclineData.Cases.NOMINATIVE;
+import static com.alexsanderyurevich.data.DeclineData.Gender.MALE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public final class WebTests {
+
+    static {
+        DeclineXmlLoader.loadDeclineData();
+    }
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SpellerRegistry spellerRegistry = new SpellerRegistry()
+            .registerCurrent("ru")
+            .register("ru-x-upper", () -> loadDictionary("ДВАДЦАТЬ"))
+            .register("ru-x-long", () -> loadDictionary(String.join("", Collections.nCopies(300, "двадцать"))))
+            .register("ru-x-broken", () -> DeclineXmlLoader.loadDictionary(
+                    new ByteArrayInputStream("<decline>".getBytes(StandardCharsets.UTF_8)), "broken.xml"));
+
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new ConversionApiController(new ObjectMapper(), spellerRegistry,
+                            new ConversionMetrics(meterRegistry), 5),
+                    new ConversionLookupController(spellerRegistry,
+                            new DefaultListableBeanFactory().getBeanProvider(ConversionCache.class),
+                            new ConversionMetrics(meterRegistry), 3600))
+            .build();
+
+    @Test
+    public void testConvertNdjson() throws Exception {
+        String request = "{\"number\":21000,\"caseType\":\"GENITIVE\",\"gender\":\"MALE\"}\n"
+                + "{\"number\":10000000000000000000,\"caseType\":\"GENITIVE\",\"gender\":\"MALE\"}\n"
+                + "{\"number\":-1,\"caseType\":\"NOMINATIVE\",\"gender\":\"FEMALE\",\"comment\":[1,2]}\n"
+                + "{\"number\":1,\"caseType\":\"VOCATIVE\",\"gender\":\"FEMALE\"}\n"
+                + "{\"number\":1,\"caseType\":\"NOMINATIVE\"}\n";
+        String expected = "{\"index\":0,\"number\":21000,\"result\":\"двадцати одной тысячи\"}\n"
+                + "{\"index\":1,\"error\":\"OUT_OF_RANGE\"}\n"
+                + "{\"index\":2,\"number\":-1,\"result\":\"минус одна\"}\n"
+                + "{\"index\":3,\"error\":\"INVALID_CASE\"}\n"
+                + "{\"index\":4,\"error\":\"MISSING_ARGUMENT\"}\n";
+        byte[] response = mockMvc.perform(post("/api/convert")
+                .contentType(ConversionApiController.APPLICATION_NDJSON_VALUE)
+                .content(request.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(expected, new String(response, StandardCharsets.UTF_8));
+
+        assertEquals(1, meterRegistry.get(ConversionMetrics.CONVERSION)
+                .tags("case", "GENITIVE", "gender", "MALE", "magnitude", "thousands").timer().count());
+        assertEquals(1, meterRegistry.get(ConversionMetrics.CONVERSION)
+                .tags("case", "NOMINATIVE", "gender", "FEMALE", "magnitude", "units").timer().count());
+        //Гистограмма различает длительности меньше микросекунды и не содержит корзин длиннее 10 мс
+        List<DistributionStatisticConfig> histograms = new ArrayList<>();
+        MeterRegistry histogramRegistry = new SimpleMeterRegistry();
+        histogramRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().equals(ConversionMetrics.CONVERSION)) {
+                    histograms.add(config);
+                }
+                return config;
+            }
+        });
+        new ConversionMetrics(histogramRegistry);
+        NavigableSet<Long> buckets = histograms.get(0).getHistogramBuckets(true);
+        assertTrue(buckets.first() <= TimeUnit.MICROSECONDS.toNanos(1));
+        assertTrue(buckets.last() <= TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(1, meterRegistry.get(ConversionMetrics.ERRORS).tag("type", "OUT_OF_RANGE").counter().count(), 0);
+        assertEquals(1, meterRegistry.get(ConversionMetrics.ERRORS).tag("type", "INVALID_CASE").counter().count(), 0);
+        //Счетчики ошибок созданы заранее
+        assertEquals(0, meterRegistry.get(ConversionMetrics.ERRORS).tag("type", "INVALID_GENDER").counter().count(), 0);
+        assertEquals(0, meterRegistry.get(ConversionMetrics.ERRORS).tag("type", "UNKNOWN_DICTIONARY").counter().count(), 0);
+        assertEquals(DeclineData.getDictionary().getEntryCount(),
+                meterRegistry.get("decline.dictionary.entries").gauge().value(), 0);
+    }
+
+    @Test
+    public void testConvertNdjsonFlush() throws Exception {
+        ConversionApiController controller = new ConversionApiController(new ObjectMapper(), spellerRegistry,
+                new ConversionMetrics(meterRegistry), 0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] first = "{\"number\":2,\"caseType\":\"DATIVE\",\"gender\":\"NEUTER\"}\n".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "{\"number\":1,\"caseType\":\"NOMINATIVE\",\"gender\":\"FEMALE\"}\n".getBytes(StandardCharsets.UTF_8);
+        //Вторая запись приходит отдельно: к этому моменту ответ на первую уже должен быть отправлен
+        InputStream body = new SequenceInputStream(new ByteArrayInputStream(first), new InputStream() {
+            private InputStream rest;
+
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (rest == null) {
+                    assertEquals("{\"index\":0,\"number\":2,\"result\":\"двум\"}\n", response.getContentAsString());
+                    rest = new ByteArrayInputStream(second);
+                }
+                return rest.read(b, off, len);
+            }
+        });
+        controller.convert(null, body, response);
+        assertEquals("{\"index\":0,\"number\":2,\"result\":\"двум\"}\n{\"index\":1,\"number\":1,\"result\":\"одна\"}\n",
+                response.getContentAsString());
+
+        //Записи, уже прочитанные из запроса, не отправляются по одной: ответ сбрасывается, только когда читать нечего
+        StringBuilder records = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            records.append("{\"number\":").append(i).append(",\"caseType\":\"NOMINATIVE\",\"gender\":\"MALE\"}\n");
+        }
+        int[] flushes = new int[1];
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        HttpServletResponse counting = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                        output.write(b);
+                    }
+
+                    @Override
+                    public void flush() {
+                        flushes[0]++;
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                    }
+                };
+            }
+        };
+        controller.convert(null, new ByteArrayInputStream(records.toString().getBytes(StandardCharsets.UTF_8)), counting);
+        assertEquals(100, output.toString("UTF-8").split("\n").length);
+        assertEquals(1, flushes[0]);
+    }
+
+    @Test
+    public void testConvertJsonArray() throws Exception {
+        String request = "[{\"number\":2,\"caseType\":\"DATIVE\",\"gender\":\"NEUTER\"}, 5]";
+        String expected = "{\"index\":0,\"number\":2,\"result\":\"двум\"}\n"
+                + "{\"index\":1,\"error\":\"MALFORMED_REQUEST\",\"message\":\"Expected a record object\"}\n";
+        byte[] response = mockMvc.perform(post("/api/convert")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(expected, new String(response, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testConvertWithDictionary() throws Exception {
+        String request = "{\"number\":21,\"caseType\":\"NOMINATIVE\",\"gender\":\"MALE\"}\n";
+        byte[] response = mockMvc.perform(post("/api/convert").param("dictionary", "ru-x-upper")
+                .contentType(ConversionApiController.APPLICATION_NDJSON_VALUE)
+                .content(request.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("{\"index\":0,\"number\":21,\"result\":\"ДВАДЦАТЬ один\"}\n",
+                new String(response, StandardCharsets.UTF_8));
+
+        //Результат длиннее буфера запроса
+        response = mockMvc.perform(post("/api/convert").param("dictionary", "ru-x-long")
+                .contentType(ConversionApiController.APPLICATION_NDJSON_VALUE)
+                .content(request.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("{\"index\":0,\"number\":21,\"result\":\"" + String.join("", Collections.nCopies(300, "двадцать"))
+                + " один\"}\n", new String(response, StandardCharsets.UTF_8));
+
+        response = mockMvc.perform(post("/api/convert").param("dictionary", "en")
+                .contentType(ConversionApiController.APPLICATION_NDJSON_VALUE)
+                .content(request.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("{\"error\":\"UNKNOWN_DICTIONARY\",\"message\":\"Unknown dictionary en\"}\n",
+                new String(response, StandardCharsets.UTF_8));
+
+        response = mockMvc.perform(post("/api/convert").param("dictionary", "ru-x-broken")
+                .contentType(ConversionApiController.APPLICATION_NDJSON_VALUE)
+                .content(request.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("{\"error\":\"DICTIONARY_UNAVAILABLE\",\"message\":\"Dictionary ru-x-broken is not available\"}\n",
+                new String(response, StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/convert").param("dictionary", "ru-x-broken")
+                .param("number", "21").param("caseType", "NOMINATIVE").param("gender", "MALE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"DICTIONARY_UNAVAILABLE\"}"));
+    }
+
+    @Test
+    public void testConvertCacheable() throws Exception {
+        String etag = mockMvc.perform(get("/api/convert")
+                .param("number", "21 000").param("caseType", "GENITIVE").param("gender", "MALE"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"))
+                .andExpect(content().json("{\"number\":21000,\"result\":\"двадцати одной тысячи\"}"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertEquals("\"" + Long.toHexString(DeclineData.getDictionary().getContentHash()) + "\"", etag);
+        long conversions = meterRegistry.get(ConversionMetrics.CONVERSION).timers().stream()
+                .mapToLong(Timer::count).sum();
+
+        mockMvc.perform(get("/api/convert").header("If-None-Match", etag)
+                .param("number", "21000").param("caseType", "GENITIVE").param("gender", "MALE"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"));
+        assertEquals(conversions, meterRegistry.get(ConversionMetrics.CONVERSION).timers().stream()
+                .mapToLong(Timer::count).sum());
+
+        //Другой словарь - другой ETag
+        mockMvc.perform(get("/api/convert").header("If-None-Match", etag).param("dictionary", "ru-x-upper")
+                .param("number", "21").param("caseType", "NOMINATIVE").param("gender", "MALE"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"number\":21,\"result\":\"ДВАДЦАТЬ один\"}"));
+
+        mockMvc.perform(get("/api/convert").param("number", "12x").param("caseType", "GENITIVE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(content().json("{\"error\":\"INVALID_NUMBER\"}"));
+    }
+
+    @Test
+    public void testMaxRecords() throws Exception {
+        StringBuilder request = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            request.append("{\"number\":1,\"caseType\":\"NOMINATIVE\",\"gender\":\"FEMALE\"}\n");
+            if (i < 5) {
+                expected.append("{\"index\":").append(i).append(",\"number\":1,\"result\":\"одна\"}\n");
+            }
+        }
+        expected.append("{\"index\":5,\"error\":\"TOO_MANY_RECORDS\",\"message\":\"At most 5 records per request\"}\n");
+        byte[] response = mockMvc.perform(post("/api/convert")
+                .contentType(ConversionApiController.APPLICATION_NDJSON_VALUE)
+                .content(request.toString().getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(expected.toString(), new String(response, StandardCharsets.UTF_8));
+        assertEquals(1, meterRegistry.get(ConversionMetrics.ERRORS).tag("type", "TOO_MANY_RECORDS").counter().count(), 0);
+    }
+
+    @Test
+    public void testAdmission() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(1, 1, 10, 3);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[2];
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        //Пока первый запрос обрабатывается, второй ждет в очереди и не дожидается, третьему не хватает очереди
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/convert"), admitted, (request, response) -> {
+            try {
+                assertEquals(1, filter.getActive());
+                nested[0] = new MockHttpServletResponse();
+                filter.doFilter(new MockHttpServletRequest("POST", "/index"), nested[0],
+                        (r, s) -> fail("Admitted over the limit"));
+                AdmissionFilter queueFull = new AdmissionFilter(1, 0, 10, 3);
+                queueFull.doFilter(new MockHttpServletRequest("GET", "/api/convert"), new MockHttpServletResponse(),
+                        (r, s) -> {
+                            nested[1] = new MockHttpServletResponse();
+                            queueFull.doFilter(new MockHttpServletRequest("GET", "/api/convert"), nested[1],
+                                    (r2, s2) -> fail("Admitted over the limit"));
+                        });
+                //Остальные запросы не ограничиваются
+                filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(),
+                        (r, s) -> ((MockHttpServletResponse) s).setStatus(204));
+                ((MockHttpServletResponse) response).setStatus(200);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertEquals(200, admitted.getStatus());
+        assertEquals(429, nested[0].getStatus());
+        assertEquals("3", nested[0].getHeader("Retry-After"));
+        assertEquals("text/plain;charset=UTF-8", nested[0].getContentType());
+        assertEquals(429, nested[1].getStatus());
+        assertEquals("{\"error\":\"OVERLOADED\"}\n", nested[1].getContentAsString());
+        assertEquals(1, filter.getRejectedTimeout());
+        assertEquals(0, filter.getRejectedQueueFull());
+        assertEquals(0, filter.getActive());
+        assertEquals(0, filter.getQueued());
+    }
+
+    @Test
+    public void testDictionaryReload() throws Exception {
+        Path file = temporaryFolder.newFile("decline.xml").toPath();
+        String xml = new String(Files.readAllBytes(Paths.get("src/main/resources/decline.xml")), StandardCharsets.UTF_8);
+        Files.write(file, xml.replace("\"двадцать\"", "\"ДВАДЦАТЬ\"").getBytes(StandardCharsets.UTF_8));
+        MeterRegistry loads = new SimpleMeterRegistry();
+        DictionaryAdminController controller = new DictionaryAdminController(file.toString(), "secret",
+                new ConversionMetrics(loads));
+        MockMvc adminMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        try {
+            //Файл словаря загружается при запуске, до первого запроса
+            controller.load();
+            assertEquals("ДВАДЦАТЬ один", NumberSpeller.current().convert(21, NOMINATIVE, MALE));
+
+            Files.write(file, xml.getBytes(StandardCharsets.UTF_8));
+            //Без токена словарь не перезагружается
+            adminMvc.perform(post("/admin/dictionary/reload"))
+                    .andExpect(status().isForbidden());
+            adminMvc.perform(post("/admin/dictionary/reload").header(DictionaryAdminController.RELOAD_TOKEN_HEADER, "secre"))
+                    .andExpect(status().isForbidden());
+            assertEquals("ДВАДЦАТЬ один", NumberSpeller.current().convert(21, NOMINATIVE, MALE));
+            adminMvc.perform(post("/admin/dictionary/reload").header(DictionaryAdminController.RELOAD_TOKEN_HEADER, "secret"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.file").value(file.toString()));
+            assertEquals("двадцать один", NumberSpeller.current().convert(21, NOMINATIVE, MALE));
+            Dictionary reloaded = DeclineData.getDictionary();
+            adminMvc.perform(get("/admin/dictionary"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.version").value(reloaded.getVersion()));
+
+            Files.write(file, "<decline>".getBytes(StandardCharsets.UTF_8));
+            adminMvc.perform(post("/admin/dictionary/reload").header(DictionaryAdminController.RELOAD_TOKEN_HEADER, "secret"))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andExpect(jsonPath("$.version").value(reloaded.getVersion()))
+                    .andExpect(jsonPath("$.error").exists());
+            assertSame(reloaded, DeclineData.getDictionary());
+            assertEquals(2, loads.get(ConversionMetrics.LOAD).tag("result", "success").timer().count());
+            assertEquals(1, loads.get(ConversionMetrics.LOAD).tag("result", "failure").timer().count());
+        } finally {
+            DeclineXmlLoader.loadDeclineData();
+        }
+    }
+
+    @Test
+    public void testStartupDictionary() throws Exception {
+        Dictionary current = DeclineData.getDictionary();
+        MeterRegistry loads = new SimpleMeterRegistry();
+        ConversionMetrics metrics = new ConversionMetrics(loads);
+        try {
+            //Уже загруженный словарь без образа не перезагружается
+            new DictionaryConfiguration("", "", metrics).loadDictionary();
+            assertSame(current, DeclineData.getDictionary());
+            assertEquals(0, loads.get(ConversionMetrics.LOAD).tag("result", "success").timer().count());
+
+            Path image = temporaryFolder.newFile("decline.bin").toPath();
+            DeclineImageLoader.writeImage(loadDictionary("ДВАДЦАТЬ"), image);
+            new DictionaryConfiguration(image.toString(), "", metrics).loadDictionary();
+            assertEquals("ДВАДЦАТЬ один", NumberSpeller.current().convert(21, NOMINATIVE, MALE));
+            assertEquals(1, loads.get(ConversionMetrics.LOAD).tag("result", "success").timer().count());
+
+            Files.write(image, "<decline>".getBytes(StandardCharsets.UTF_8));
+            try {
+                new DictionaryConfiguration(image.toString(), "", metrics).loadDictionary();
+                fail();
+            } catch (DeclineLoadException e) {
+                assertEquals(1, loads.get(ConversionMetrics.LOAD).tag("result", "failure").timer().count());
+            }
+        } finally {
+            DeclineData.setDictionary(current);
+        }
+        //Образ и файл словаря одновременно не задаются: файл молча заменил бы образ
+        try {
+            new DictionaryConfiguration("decline.bin", "decline.xml", metrics);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Set either decline.dictionary.image or decline.dictionary.path, not both", e.getMessage());
+        }
+    }
+
+    private static Dictionary loadDictionary(String twenty) {
+        try {
+            String xml = new String(Files.readAllBytes(Paths.get("src/main/resources/decline.xml")), StandardCharsets.UTF_8);
+            return DeclineXmlLoader.loadDictionary(new ByteArrayInputStream(
+                    xml.replace("\"двадцать\"", "\"" + twenty + "\"").getBytes(StandardCharsets.UTF_8)), "twenty.xml");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}